@@ -0,0 +1,123 @@
+package uk.ac.ed.inf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the CreditCardValidator with the previous
+ * regex based checks, over a million synthetic cards (orders are placed
+ * on one date, like a day of orders from the REST server), and over the
+ * orders of every date in the fixtures
+ * (run the main method, or the benchmarks jar, see benchmarks/pom.xml)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardValidatorBenchmark
+{
+    // the number of synthetic cards checked by each invocation
+    private static final int CARD_COUNT = 1_000_000;
+
+    // the date every order was placed on
+    private static final String ORDER_DATE = "2023-04-15";
+
+    private String[] numbers;
+    private String[] expiries;
+    private String[] cvvs;
+    private Order[] fixtureOrders;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Random random = new Random(2023);
+        numbers = new String[CARD_COUNT];
+        expiries = new String[CARD_COUNT];
+        cvvs = new String[CARD_COUNT];
+        for (int card = 0; card < CARD_COUNT; card++)
+        {
+            numbers[card] = SyntheticCards.randomNumber(random);
+            expiries[card] = SyntheticCards.randomExpiry(random);
+            cvvs[card] = SyntheticCards.randomCvv(random);
+        }
+        fixtureOrders = Fixtures.allOrders().toArray(new Order[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARD_COUNT)
+    public int regexChecks()
+    {
+        int validCards = 0;
+        for (int card = 0; card < CARD_COUNT; card++)
+        {
+            if (LegacyCreditCardValidator.validCreditCardNumber(numbers[card])
+                    && LegacyCreditCardValidator.validExpiryDate(expiries[card], ORDER_DATE)
+                    && LegacyCreditCardValidator.validCvv(cvvs[card]))
+            {
+                validCards++;
+            }
+        }
+        return validCards;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARD_COUNT)
+    public int allocationFreeChecks()
+    {
+        int validCards = 0;
+        for (int card = 0; card < CARD_COUNT; card++)
+        {
+            if (CreditCardValidator.isValidNumber(numbers[card])
+                    && CreditCardValidator.isValidExpiryDate(expiries[card], ORDER_DATE)
+                    && CreditCardValidator.isValidCvv(cvvs[card]))
+            {
+                validCards++;
+            }
+        }
+        return validCards;
+    }
+
+    // checks the cards of all the fixture orders (one operation is the whole set)
+    @Benchmark
+    public int fixtureOrders()
+    {
+        int validCards = 0;
+        for (Order order : fixtureOrders)
+        {
+            if (CreditCardValidator.isValidCard(order))
+            {
+                validCards++;
+            }
+        }
+        return validCards;
+    }
+
+    /**
+     * runs all the benchmarks in this class
+     * @param args not used
+     * @throws RunnerException if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(CreditCardValidatorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,86 @@
+package uk.ac.ed.inf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the JSON and GeoJSON file writers, writing the
+ * output files of a fixture date that has already been planned
+ * (run the main method, or the benchmarks jar, see benchmarks/pom.xml)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileWritersBenchmark
+{
+    // the date planned (a day with as many deliveries as the battery allows)
+    private static final String DATE = "2023-04-15";
+
+    private PlanningContext context;
+    private List<Order> orders;
+    private Drone drone;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        context = Fixtures.context();
+        orders = Fixtures.orders(DATE);
+        drone = new Drone(context);
+        drone.setDateOfFlightPlan(DATE);
+        drone.deliverOrders(context.validateOrders(orders));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        Fixtures.deleteOutput(context);
+    }
+
+    @Benchmark
+    public void writeDeliveries()
+    {
+        new JsonFileWriter(context).writeOrderToJSON(orders);
+    }
+
+    @Benchmark
+    public void writeFlightPath()
+    {
+        new JsonFileWriter(context).writeMovesToJSON(List.of(drone.getMoveLog()), DATE);
+    }
+
+    @Benchmark
+    public void writeGeoJSON()
+    {
+        new GeoJSONWriter(context).writePlanToGeoJSON(drone);
+    }
+
+    /**
+     * runs all the benchmarks in this class
+     * @param args not used
+     * @throws RunnerException if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(FileWritersBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
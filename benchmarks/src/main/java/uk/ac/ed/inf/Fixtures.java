@@ -0,0 +1,108 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * this class gives the benchmarks the data checked into the fixtures folder
+ * (the 2023 REST server's restaurants, no-fly-zones and central area, and
+ * orders reconstructed from the deliveries files of every date there are
+ * result files for), read through the same code as the real server
+ */
+public final class Fixtures
+{
+    /**
+     * the dates there are orders for in the fixtures folder
+     */
+    public static final String[] DATES = {
+            "2023-01-01", "2023-01-11", "2023-01-12", "2023-01-25", "2023-02-03", "2023-02-04",
+            "2023-02-27", "2023-03-07", "2023-03-19", "2023-03-21", "2023-03-22", "2023-04-10",
+            "2023-04-13", "2023-04-15", "2023-05-02", "2023-05-18", "2023-05-22"};
+
+    // the fixtures folder, laid out like the REST server
+    private static final URL BASE_URL = Fixtures.class.getResource("/fixtures");
+
+    private Fixtures()
+    {
+    }
+
+    /**
+     * getter method for the base URL of the fixtures
+     * @return a URL that can be used in place of the REST server's
+     */
+    public static URL baseURL()
+    {
+        return BASE_URL;
+    }
+
+    /**
+     * creates a planning context from the fixtures, writing its output
+     * files to a new temporary directory (so the result files are left alone)
+     * @return a new planning context, with no orders validated yet
+     */
+    public static PlanningContext context()
+    {
+        PlanningContext context = PlanningContext.fromRestServer(BASE_URL);
+        try
+        {
+            String outputDirectory = Files.createTempDirectory("pizzadronz-benchmark").toString();
+            return new PlanningContext(context.getRestaurants(), context.getNoFlyZones(),
+                    context.getCentralArea(), outputDirectory);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * reads the orders of a given date from the fixtures
+     * @param date the date of the orders, one of DATES
+     * @return the orders for the date (none of them validated yet)
+     */
+    public static List<Order> orders(String date)
+    {
+        return RetrieveData.getData(BASE_URL, "/orders/" + date, new TypeReference<>(){});
+    }
+
+    /**
+     * reads the orders of every date from the fixtures
+     * @return the orders of all the DATES, one date after the other
+     */
+    public static List<Order> allOrders()
+    {
+        List<Order> orders = new ArrayList<>();
+        for (String date : DATES)
+        {
+            orders.addAll(orders(date));
+        }
+        return orders;
+    }
+
+    /**
+     * deletes the files a benchmark wrote to the output directory of a context
+     * @param context the context the benchmark planned with
+     */
+    public static void deleteOutput(PlanningContext context)
+    {
+        try (var files = Files.list(Path.of(context.getOutputDirectory())))
+        {
+            for (Path file : files.toList())
+            {
+                Files.delete(file);
+            }
+            Files.delete(Path.of(context.getOutputDirectory()));
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package uk.ac.ed.inf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the LngLat methods called on every step of a path
+ * search (the next position, and the no-fly-zone checks), with the
+ * no-fly-zones of the fixtures and positions spread around the campus
+ * (run the main method, or the benchmarks jar, see benchmarks/pom.xml)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LngLatBenchmark
+{
+    // the number of positions prepared in advance (a power of two)
+    private static final int POSITION_COUNT = 4096;
+
+    private static final CompassDirection[] DIRECTIONS = CompassDirection.values();
+
+    private PlanningContext context;
+    private LngLat[] positions;
+    private LngLat[] nextPositions;
+    private CompassDirection[] directions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        context = Fixtures.context();
+        // positions between the restaurants furthest apart, which covers every no-fly-zone
+        Random random = new Random(2023);
+        positions = new LngLat[POSITION_COUNT];
+        nextPositions = new LngLat[POSITION_COUNT];
+        directions = new CompassDirection[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++)
+        {
+            positions[i] = new LngLat(-3.2026 + random.nextDouble() * 0.0188, 55.9428 + random.nextDouble() * 0.0034);
+            directions[i] = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            nextPositions[i] = positions[i].nextPosition(directions[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        Fixtures.deleteOutput(context);
+    }
+
+    @Benchmark
+    public LngLat nextPosition()
+    {
+        int i = next++ & (POSITION_COUNT - 1);
+        return positions[i].nextPosition(directions[i]);
+    }
+
+    @Benchmark
+    public boolean inNoFlyZone()
+    {
+        return positions[next++ & (POSITION_COUNT - 1)].inNoFlyZone(context);
+    }
+
+    @Benchmark
+    public boolean lineCutsThroughNoFlyZones()
+    {
+        int i = next++ & (POSITION_COUNT - 1);
+        return positions[i].lineCutsThroughNoFlyZones(nextPositions[i], context);
+    }
+
+    /**
+     * runs all the benchmarks in this class
+     * @param args not used
+     * @throws RunnerException if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(LngLatBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,150 @@
+package uk.ac.ed.inf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the NoFlyZoneIndex with a linear scan over
+ * every no-fly-zone (the previous behaviour of LngLat), for maps with
+ * 10, 100 and 1000 randomly generated no-fly-zones
+ * (run the main method, or the benchmarks jar, see benchmarks/pom.xml)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoFlyZoneIndexBenchmark
+{
+    // the number of queries prepared in advance (a power of two)
+    private static final int QUERY_COUNT = 4096;
+
+    @Param({"10", "100", "1000"})
+    public int zoneCount;
+
+    // the previous (boxed) representations of each no-fly-zone, used by the linear scan
+    private List<List<LngLat>> zoneCorners;
+    private List<ArrayList<ArrayList<Double>>> zoneCoordinates;
+    private NoFlyZoneIndex index;
+    private LngLat[] queryStarts;
+    private LngLat[] queryEnds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Random random = new Random(2023);
+        // scatter the zones over a city-sized area, keeping their density constant
+        double side = 0.004 * Math.sqrt(zoneCount);
+        List<NoFlyZone> noFlyZones = new ArrayList<>();
+        zoneCorners = new ArrayList<>();
+        zoneCoordinates = new ArrayList<>();
+        for (int zone = 0; zone < zoneCount; zone++)
+        {
+            double centreLng = -3.19 + random.nextDouble() * side;
+            double centreLat = 55.94 + random.nextDouble() * side;
+            double radius = 0.0002 + random.nextDouble() * 0.0004;
+            ArrayList<ArrayList<Double>> vertices = new ArrayList<>();
+            for (int vertex = 0; vertex <= 8; vertex++)
+            {
+                double angle = 2 * Math.PI * (vertex % 8) / 8;
+                double distance = radius * (0.7 + 0.3 * ((vertex % 8 == 0) ? 1 : random.nextDouble()));
+                vertices.add(new ArrayList<>(Arrays.asList(centreLng + distance * Math.cos(angle),
+                        centreLat + distance * Math.sin(angle))));
+            }
+            NoFlyZone noFlyZone = new NoFlyZone(vertices);
+            noFlyZones.add(noFlyZone);
+            zoneCorners.add(noFlyZone.getNoFlyZoneEdges());
+            zoneCoordinates.add(noFlyZone.getNoFlyZoneEdgesAsDoubles());
+        }
+        index = new NoFlyZoneIndex(noFlyZones);
+        // and prepare random drone moves over the same area
+        queryStarts = new LngLat[QUERY_COUNT];
+        queryEnds = new LngLat[QUERY_COUNT];
+        for (int query = 0; query < QUERY_COUNT; query++)
+        {
+            queryStarts[query] = new LngLat(-3.19 + random.nextDouble() * side, 55.94 + random.nextDouble() * side);
+            queryEnds[query] = queryStarts[query].nextPosition(CompassDirection.values()[random.nextInt(16)]);
+        }
+    }
+
+    @Benchmark
+    public boolean linearInNoFlyZone()
+    {
+        LngLat point = queryStarts[next++ & (QUERY_COUNT - 1)];
+        for (List<LngLat> corners : zoneCorners)
+        {
+            if (point.inArea(corners))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean indexedInNoFlyZone()
+    {
+        return index.inNoFlyZone(queryStarts[next++ & (QUERY_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public boolean linearLineCutsThroughNoFlyZones()
+    {
+        int query = next++ & (QUERY_COUNT - 1);
+        Line2D line = new Line2D.Double(queryStarts[query].getLng(), queryStarts[query].getLat(),
+                queryEnds[query].getLng(), queryEnds[query].getLat());
+        for (ArrayList<ArrayList<Double>> coordinates : zoneCoordinates)
+        {
+            for (int i = 0, j = coordinates.size() - 1; i < coordinates.size(); j = i++)
+            {
+                Line2D edge = new Line2D.Double(coordinates.get(i).get(0), coordinates.get(i).get(1),
+                        coordinates.get(j).get(0), coordinates.get(j).get(1));
+                if (line.intersectsLine(edge))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean indexedLineCutsThroughNoFlyZones()
+    {
+        int query = next++ & (QUERY_COUNT - 1);
+        return index.lineCutsThroughNoFlyZones(queryStarts[query], queryEnds[query]);
+    }
+
+    /**
+     * runs all the benchmarks in this class
+     * @param args not used
+     * @throws RunnerException if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(NoFlyZoneIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,76 @@
+package uk.ac.ed.inf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for planning a whole day end to end (validating the
+ * orders, planning every route with a new drone, and writing the three
+ * output files), for a few of the fixture dates
+ * (run the main method, or the benchmarks jar, see benchmarks/pom.xml)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanFlightPathBenchmark
+{
+    @Param({"2023-01-01", "2023-04-15", "2023-05-22"})
+    public String date;
+
+    private PlanningContext context;
+    private List<Order> orders;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        context = Fixtures.context();
+        orders = Fixtures.orders(date);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        Fixtures.deleteOutput(context);
+    }
+
+    @Benchmark
+    public Drone planFlightPath()
+    {
+        // every run starts from a new drone (with no routes cached yet)
+        Drone drone = new Drone(context.newRun());
+        drone.setDateOfFlightPlan(date);
+        drone.planFlightPath(orders);
+        return drone;
+    }
+
+    /**
+     * runs all the benchmarks in this class
+     * @param args not used
+     * @throws RunnerException if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(PlanFlightPathBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
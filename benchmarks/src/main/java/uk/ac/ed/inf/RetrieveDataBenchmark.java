@@ -0,0 +1,84 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the cost of deserialising one day's orders
+ * with a new ObjectMapper for every call (the previous behaviour of
+ * RetrieveData) and with the shared, pre-built reader
+ * (run the main method, or the benchmarks jar, see benchmarks/pom.xml)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetrieveDataBenchmark
+{
+    // roughly the number of orders the REST server returns for one date
+    private static final int ORDER_COUNT = 50;
+
+    // the orders for one date, in the format returned by the REST server
+    private String ordersJson;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < ORDER_COUNT; i++)
+        {
+            if (i > 0)
+            {
+                json.append(',');
+            }
+            json.append(String.format("{\"orderNo\":\"%08X\",\"orderDate\":\"2023-04-15\","
+                    + "\"customer\":\"Customer %d\",\"creditCardNumber\":\"5480088966844071\","
+                    + "\"creditCardExpiry\":\"06/28\",\"cvv\":\"641\",\"priceTotalInPence\":2500,"
+                    + "\"orderItems\":[\"Margarita\",\"Calzone\"]}", i, i));
+        }
+        ordersJson = json.append(']').toString();
+    }
+
+    @Benchmark
+    public List<Order> newMapperPerCall() throws IOException
+    {
+        return new ObjectMapper().readValue(ordersJson, new TypeReference<List<Order>>(){});
+    }
+
+    @Benchmark
+    public List<Order> sharedReader()
+    {
+        return RetrieveData.parseData(ordersJson, new TypeReference<List<Order>>(){});
+    }
+
+    /**
+     * runs all the benchmarks in this class
+     * @param args not used
+     * @throws RunnerException if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(RetrieveDataBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
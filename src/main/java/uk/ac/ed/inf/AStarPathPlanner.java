@@ -0,0 +1,412 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * this class implements the A* search algorithm over all the positions
+ * the drone can reach using its 16 compass directions, returning the
+ * path with the fewest moves (positions are merged on a fine grid, so that
+ * the search does not revisit almost identical points)
+ */
+public class AStarPathPlanner implements PathPlanner
+{
+    // the default maximum number of nodes the search can expand
+    // before giving up (and returning no path)
+    private static final int DEFAULT_NODE_BUDGET = 200_000;
+
+    // the side length (in degrees) of the grid cells used to decide
+    // whether a position has already been visited
+    private static final double CELL_SIZE = LngLat.DRONE_MOVE_LENGTH / 4;
+
+    // all the compass directions (cached, since values() copies the array)
+    private static final CompassDirection[] DIRECTIONS = CompassDirection.values();
+
+    // the maximum number of nodes to be expanded for a single path
+    private final int nodeBudget;
+
+    // the planner used when no path is found within the node budget
+    private final PathPlanner fallbackPlanner;
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the A* planner
+     * (uses the default node budget, with no fallback planner, so an
+     * unreachable destination gives no path, and its orders stay undelivered)
+     */
+    public AStarPathPlanner()
+    {
+        this(DEFAULT_NODE_BUDGET, null);
+    }
+
+    /**
+     * constructor method for the A* planner
+     * @param nodeBudget the maximum number of nodes expanded for a single path
+     * @param fallbackPlanner the planner used if the budget runs out
+     *                        (can be null, in which case no path is returned)
+     */
+    public AStarPathPlanner(int nodeBudget, PathPlanner fallbackPlanner)
+    {
+        this.nodeBudget = nodeBudget;
+        this.fallbackPlanner = fallbackPlanner;
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * computes the shortest (in number of moves) path from the start point
+     * to the destination, that does not go through any no-fly-zone
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @return the list of compass directions to be taken (in order), or the
+     * fallback planner's path (null if there is none) if no path was found
+     * within the node budget
+     */
+    @Override
+    public List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones)
+    {
+        return planPath(start, destination, noFlyZones, null);
+    }
+
+    /**
+     * computes the shortest (in number of moves) path from the start point
+     * to the destination, that does not go through any no-fly-zone, adding
+     * the nodes expanded, the edges tested and the moves rejected to the
+     * counters of a run
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @param metrics the metrics of the run (can be null)
+     * @return the list of compass directions to be taken (in order), or the
+     * fallback planner's path (null if there is none) if no path was found
+     * within the node budget
+     */
+    @Override
+    public List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones,
+                                           PlanningMetrics metrics)
+    {
+        PlanningMetrics.Tally tally = new PlanningMetrics.Tally();
+        Search search = new Search(destination.getLng(), destination.getLat(), noFlyZones, tally);
+        int goalNode = search.run(start.getLng(), start.getLat(), nodeBudget);
+        if (metrics != null)
+        {
+            metrics.add(tally);
+        }
+        if (goalNode < 0)
+        {
+            return (fallbackPlanner == null) ? null
+                    : fallbackPlanner.planPath(start, destination, noFlyZones, metrics);
+        }
+        return search.directionsTo(goalNode);
+    }
+
+    // this class stores the state of a single search, with all the nodes
+    // kept in parallel primitive arrays (indexed by node number), an open
+    // set kept as a binary heap of node numbers, and a hash table from
+    // grid cells to the best node found in that cell
+    private static final class Search
+    {
+        private static final long EMPTY_CELL = Long.MIN_VALUE;
+
+        private final double destinationLng;
+        private final double destinationLat;
+        private final NoFlyZoneIndex noFlyZones;
+
+        // the work done by the search
+        private final PlanningMetrics.Tally tally;
+
+        // node storage
+        private int nodeCount;
+        private double[] lngs = new double[1024];
+        private double[] lats = new double[1024];
+        private int[] parents = new int[1024];
+        private byte[] directions = new byte[1024];
+        private int[] costs = new int[1024];
+        private double[] estimates = new double[1024];
+        private boolean[] expanded = new boolean[1024];
+
+        // open set (binary heap of node numbers)
+        private int heapSize;
+        private int[] heap = new int[1024];
+
+        // visited cells (open addressing, linear probing)
+        private int cellCount;
+        private long[] cellKeys = newCellKeys(4096);
+        private int[] cellNodes = new int[4096];
+
+        Search(double destinationLng, double destinationLat, NoFlyZoneIndex noFlyZones,
+               PlanningMetrics.Tally tally)
+        {
+            this.destinationLng = destinationLng;
+            this.destinationLat = destinationLat;
+            this.noFlyZones = noFlyZones;
+            this.tally = tally;
+        }
+
+        // runs the search from the given start point
+        // @return the number of the node that is close to the destination,
+        // or -1 if the budget ran out or no path exists
+        int run(double startLng, double startLat, int nodeBudget)
+        {
+            int startNode = addNode(startLng, startLat, -1, (byte) -1, 0);
+            putCell(cellKey(startLng, startLat), startNode);
+            push(startNode);
+            int expansions = 0;
+            while (heapSize > 0)
+            {
+                int node = pop();
+                if (expanded[node])
+                {
+                    continue;
+                }
+                if (isCloseToDestination(lngs[node], lats[node]))
+                {
+                    return node;
+                }
+                if (expansions++ >= nodeBudget)
+                {
+                    return -1;
+                }
+                expanded[node] = true;
+                tally.increment(PlanningMetrics.Counter.NODES_EXPANDED);
+                expand(node);
+            }
+            return -1;
+        }
+
+        // generates all the valid moves from a given node
+        private void expand(int node)
+        {
+            double lng = lngs[node];
+            double lat = lats[node];
+            int nextCost = costs[node] + 1;
+            for (CompassDirection direction : DIRECTIONS)
+            {
+                double nextLng = LngLat.nextLng(lng, direction);
+                double nextLat = LngLat.nextLat(lat, direction);
+                long key = cellKey(nextLng, nextLat);
+                int existing = getCell(key);
+                // skip cells that already have an equally good (or expanded) node
+                if (existing >= 0 && (expanded[existing] || costs[existing] <= nextCost))
+                {
+                    continue;
+                }
+                if (noFlyZones.inNoFlyZone(nextLng, nextLat)
+                        || noFlyZones.lineCutsThroughNoFlyZones(lng, lat, nextLng, nextLat, tally))
+                {
+                    tally.increment(PlanningMetrics.Counter.MOVES_REJECTED);
+                    continue;
+                }
+                int child = addNode(nextLng, nextLat, node, (byte) direction.ordinal(), nextCost);
+                putCell(key, child);
+                push(child);
+            }
+        }
+
+        // follows the parent links back from the goal node
+        // @return the directions taken from the start node to the goal node
+        List<CompassDirection> directionsTo(int goalNode)
+        {
+            List<CompassDirection> path = new ArrayList<>(costs[goalNode]);
+            for (int node = goalNode; parents[node] >= 0; node = parents[node])
+            {
+                path.add(DIRECTIONS[directions[node]]);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        private boolean isCloseToDestination(double lng, double lat)
+        {
+            return distanceToDestination(lng, lat) < LngLat.ACCEPTABLE_DISTANCE;
+        }
+
+        private double distanceToDestination(double lng, double lat)
+        {
+            double dLng = lng - destinationLng;
+            double dLat = lat - destinationLat;
+            return Math.sqrt(dLng * dLng + dLat * dLat);
+        }
+
+        // the heuristic is the least number of moves needed to get within
+        // the acceptable distance, so it never overestimates the real cost
+        private double heuristic(double lng, double lat)
+        {
+            double remaining = distanceToDestination(lng, lat) - LngLat.ACCEPTABLE_DISTANCE;
+            return (remaining <= 0) ? 0 : remaining / LngLat.DRONE_MOVE_LENGTH;
+        }
+
+        private int addNode(double lng, double lat, int parent, byte direction, int cost)
+        {
+            if (nodeCount == lngs.length)
+            {
+                int newLength = lngs.length * 2;
+                lngs = Arrays.copyOf(lngs, newLength);
+                lats = Arrays.copyOf(lats, newLength);
+                parents = Arrays.copyOf(parents, newLength);
+                directions = Arrays.copyOf(directions, newLength);
+                costs = Arrays.copyOf(costs, newLength);
+                estimates = Arrays.copyOf(estimates, newLength);
+                expanded = Arrays.copyOf(expanded, newLength);
+            }
+            int node = nodeCount++;
+            lngs[node] = lng;
+            lats[node] = lat;
+            parents[node] = parent;
+            directions[node] = direction;
+            costs[node] = cost;
+            estimates[node] = cost + heuristic(lng, lat);
+            return node;
+        }
+
+        // =====================================================================
+        // open set
+        // =====================================================================
+
+        // ties on the estimated total are broken in favour of deeper nodes
+        private boolean isBetter(int a, int b)
+        {
+            return estimates[a] < estimates[b]
+                    || (estimates[a] == estimates[b] && costs[a] > costs[b]);
+        }
+
+        private void push(int node)
+        {
+            if (heapSize == heap.length)
+            {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            int i = heapSize++;
+            while (i > 0)
+            {
+                int parent = (i - 1) >>> 1;
+                if (!isBetter(node, heap[parent]))
+                {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = node;
+        }
+
+        private int pop()
+        {
+            int top = heap[0];
+            int last = heap[--heapSize];
+            int i = 0;
+            while (true)
+            {
+                int child = 2 * i + 1;
+                if (child >= heapSize)
+                {
+                    break;
+                }
+                if (child + 1 < heapSize && isBetter(heap[child + 1], heap[child]))
+                {
+                    child++;
+                }
+                if (!isBetter(heap[child], last))
+                {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            if (heapSize > 0)
+            {
+                heap[i] = last;
+            }
+            return top;
+        }
+
+        // =====================================================================
+        // visited cells
+        // =====================================================================
+
+        private static long[] newCellKeys(int capacity)
+        {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY_CELL);
+            return keys;
+        }
+
+        private static long cellKey(double lng, double lat)
+        {
+            long x = (long) Math.floor(lng / CELL_SIZE);
+            long y = (long) Math.floor(lat / CELL_SIZE);
+            return (x << 32) ^ (y & 0xFFFFFFFFL);
+        }
+
+        private int slot(long key, int mask)
+        {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & mask;
+        }
+
+        // @return the node stored for the given cell, or -1 if there is none
+        private int getCell(long key)
+        {
+            int mask = cellKeys.length - 1;
+            for (int i = slot(key, mask); cellKeys[i] != EMPTY_CELL; i = (i + 1) & mask)
+            {
+                if (cellKeys[i] == key)
+                {
+                    return cellNodes[i];
+                }
+            }
+            return -1;
+        }
+
+        private void putCell(long key, int node)
+        {
+            if (2 * (cellCount + 1) > cellKeys.length)
+            {
+                resizeCells();
+            }
+            int mask = cellKeys.length - 1;
+            int i = slot(key, mask);
+            while (cellKeys[i] != EMPTY_CELL && cellKeys[i] != key)
+            {
+                i = (i + 1) & mask;
+            }
+            if (cellKeys[i] == EMPTY_CELL)
+            {
+                cellCount++;
+                cellKeys[i] = key;
+            }
+            cellNodes[i] = node;
+        }
+
+        private void resizeCells()
+        {
+            long[] oldKeys = cellKeys;
+            int[] oldNodes = cellNodes;
+            cellKeys = newCellKeys(oldKeys.length * 2);
+            cellNodes = new int[oldKeys.length * 2];
+            int mask = cellKeys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++)
+            {
+                if (oldKeys[j] != EMPTY_CELL)
+                {
+                    int i = slot(oldKeys[j], mask);
+                    while (cellKeys[i] != EMPTY_CELL)
+                    {
+                        i = (i + 1) & mask;
+                    }
+                    cellKeys[i] = oldKeys[j];
+                    cellNodes[i] = oldNodes[j];
+                }
+            }
+        }
+    }
+
+}
@@ -1,12 +1,9 @@
 package uk.ac.ed.inf;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * this is the main project class, where everything comes together
@@ -84,44 +81,120 @@ public class App
         return validatedURL;
     }
 
+    // this method ensures the (optional) number of drones inputted
+    // in the command line is a positive whole number
+    // @param numberOfDronesToVerify the number of drones inputted in the command line
+    // @return the number of drones if valid
+    private static int checkNumberOfDronesValid(String numberOfDronesToVerify)
+    {
+        int numberOfDrones = 0;
+        try
+        {
+            numberOfDrones = Integer.parseInt(numberOfDronesToVerify);
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("The number of drones provided is invalid!");
+            System.exit(1);
+        }
+        if (numberOfDrones < 1)
+        {
+            System.err.println("The number of drones provided is invalid!");
+            System.exit(1);
+        }
+        return numberOfDrones;
+    }
+
+    // this method ensures the (optional) number of threads inputted
+    // in the command line is a positive whole number
+    // @param numberOfThreadsToVerify the number of threads inputted in the command line
+    // @return the number of threads if valid
+    private static int checkNumberOfThreadsValid(String numberOfThreadsToVerify)
+    {
+        int numberOfThreads = 0;
+        try
+        {
+            numberOfThreads = Integer.parseInt(numberOfThreadsToVerify);
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("The number of threads provided is invalid!");
+            System.exit(1);
+        }
+        if (numberOfThreads < 1)
+        {
+            System.err.println("The number of threads provided is invalid!");
+            System.exit(1);
+        }
+        return numberOfThreads;
+    }
+
     /**
      * this is the main method, where the command line arguments
      * are taken as input, validated, and the whole algorithm for the
      * PizzaDronz app is executed
+     * (the date can also be a range, e.g. "2023-01-01..2023-05-30",
+     * in which case every date in the range is planned)
      * @param args the command line arguments passed
-     *             into the program
+     *             into the program (optionally followed by the
+     *             number of drones to deliver the orders with, and
+     *             for a range of dates, the number of dates to be
+     *             planned at the same time)
      */
     public static void main(String[] args)
     {
-        // check if enough arguments were given, to avoid any exceptions
-        if (!(args.length == 3))
+        // check if the right number of arguments was given, to avoid any exceptions
+        if (args.length < 3 || args.length > 5)
         {
-            System.err.println("Not enough arguments were provided!");
+            System.err.println("Expected 3 to 5 arguments, but " + args.length + " were provided!");
             System.exit(1);
         }
+        // keep the REST responses on disk, if asked to
+        ResponseCache responseCache = ResponseCache.fromSystemProperties();
         // retrieve the command line inputs
         String inputtedDate = args[0];
         String inputtedURL = args[1];
+        // a range of dates is planned in one go by the batch planner
+        if (inputtedDate != null && inputtedDate.contains(".."))
+        {
+            String[] range = inputtedDate.split("\\.\\.", 2);
+            String firstDate = checkDateValid(range[0]);
+            String lastDate = checkDateValid(range[1]);
+            if (firstDate.compareTo(lastDate) > 0)
+            {
+                System.err.println("The range of dates provided is invalid!");
+                System.exit(1);
+            }
+            URL validatedURL = checkURLValid(inputtedURL);
+            int numberOfDrones = (args.length >= 4) ? checkNumberOfDronesValid(args[3]) : 1;
+            int threads = (args.length == 5) ? checkNumberOfThreadsValid(args[4])
+                    : Runtime.getRuntime().availableProcessors();
+            new BatchPlanner(validatedURL, numberOfDrones, threads, responseCache)
+                    .planDates(BatchPlanner.datesBetween(firstDate, lastDate));
+            return;
+        }
         // perform the validation checks for the command line inputs
         String validatedDate = checkDateValid(inputtedDate);
         URL validatedURL = checkURLValid(inputtedURL);
-        // set the available restaurants field to all the restaurants from the validated URL
-        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(validatedURL);
-        Order.setRestaurants(restaurants);
-        // retrieve all available orders for the validated date
-        String extension = "/orders" + "/" + validatedDate;
-        List<Order> allOrders = RetrieveData.getData(validatedURL, extension, new TypeReference<>(){});
-        // set up all the no-fly-zones
-        extension = "/noFlyZones";
-        List<NoFlyZone> allNoFlyZones = RetrieveData.getData(validatedURL, extension, new TypeReference<>(){});
-        // set the base URL inside the LngLat class
-        // (for retrieving data for the central area)
-        LngLat.setBaseUrl(validatedURL);
+        int numberOfDrones = (args.length >= 4) ? checkNumberOfDronesValid(args[3]) : 1;
+        // retrieve the restaurants, the no-fly-zones and the central area
+        // (all at the same time), while the orders for the validated date
+        // start streaming in, to be planned as they arrive
+        StartupLoader.StartupData startupData = new StartupLoader(validatedURL, StartupLoader.DEFAULT_TIMEOUT,
+                responseCache).load(validatedDate);
+        PlanningContext context = startupData.context();
+        // with several drones, share the orders out between the fleet
+        if (numberOfDrones > 1)
+        {
+            Fleet fleet = new Fleet(context, numberOfDrones, validatedDate);
+            fleet.planFlightPaths(startupData.orders());
+            return;
+        }
         // create the drone
-        Drone drone = new Drone();
+        Drone drone = new Drone(context);
         // set the date to be the validated date
         drone.setDateOfFlightPlan(validatedDate);
         // and run the flight planning algorithm for the given date
-        drone.planFlightPath(allOrders);
+        drone.planFlightPath(startupData.orders());
     }
 }
@@ -0,0 +1,150 @@
+package uk.ac.ed.inf;
+
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * this class is used to plan the deliveries for a whole range of dates
+ * in one go (the restaurants and no-fly-zones are only retrieved from
+ * the REST server once, and the dates can be planned in parallel)
+ */
+public class BatchPlanner
+{
+    // the validated URL of the REST server
+    private final URL baseURL;
+
+    // the number of drones delivering the orders for each date
+    private final int numberOfDrones;
+
+    // the maximum number of dates planned at the same time
+    private final int threads;
+
+    // the on-disk cache the responses go through (null to always download them)
+    private final ResponseCache responseCache;
+
+    // the path planner shared by every date (so routes are only planned once)
+    private final PathPlanner pathPlanner = new CachingPathPlanner(new AStarPathPlanner());
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the batch planner
+     * @param baseURL the validated URL from the command line
+     * @param numberOfDrones the number of drones delivering the orders for each date
+     * @param threads the maximum number of dates planned at the same time
+     */
+    public BatchPlanner(URL baseURL, int numberOfDrones, int threads)
+    {
+        this(baseURL, numberOfDrones, threads, null);
+    }
+
+    /**
+     * constructor method for the batch planner
+     * @param baseURL the validated URL from the command line
+     * @param numberOfDrones the number of drones delivering the orders for each date
+     * @param threads the maximum number of dates planned at the same time
+     * @param responseCache the on-disk cache the responses go through
+     * (or null to always download them)
+     */
+    public BatchPlanner(URL baseURL, int numberOfDrones, int threads, ResponseCache responseCache)
+    {
+        this.baseURL = baseURL;
+        this.numberOfDrones = numberOfDrones;
+        this.threads = threads;
+        this.responseCache = responseCache;
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * lists every date between two dates (both included)
+     * @param firstDate the first date, in the format "yyyy-MM-dd"
+     * @param lastDate the last date, in the format "yyyy-MM-dd"
+     * @return all the dates in the range, in the format "yyyy-MM-dd"
+     */
+    public static List<String> datesBetween(String firstDate, String lastDate)
+    {
+        List<String> dates = new ArrayList<>();
+        for (LocalDate date = LocalDate.parse(firstDate); !date.isAfter(LocalDate.parse(lastDate));
+             date = date.plusDays(1))
+        {
+            dates.add(date.toString());
+        }
+        return dates;
+    }
+
+    /**
+     * plans the deliveries for every given date, writing the usual
+     * output files for each one (the data that does not depend on the
+     * date is retrieved from the REST server before any date is planned,
+     * and the time that takes is included in the fetch phase of every
+     * date's metrics, as it would be if the date was planned on its own)
+     * @param dates the dates to be planned, in the format "yyyy-MM-dd"
+     */
+    public void planDates(List<String> dates)
+    {
+        // set up the restaurants, the no-fly-zones and the central area once
+        PlanningContext sharedContext = PlanningContext.fromRestServer(baseURL, responseCache);
+        long startupFetchNanos = sharedContext.getMetrics().getPhaseNanos(PlanningMetrics.Phase.FETCH);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, dates.size())));
+        try
+        {
+            List<Future<?>> plans = new ArrayList<>();
+            for (String date : dates)
+            {
+                plans.add(executor.submit(() ->
+                {
+                    PlanningContext context = sharedContext.newRun();
+                    context.getMetrics().addPhaseTime(PlanningMetrics.Phase.FETCH, startupFetchNanos);
+                    planDate(context, date);
+                }));
+            }
+            for (Future<?> plan : plans)
+            {
+                plan.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new RuntimeException(e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    // plans the deliveries for a single date, and writes its output files
+    // @param context the planning context for the date (with no orders yet)
+    // @param date the date to be planned, in the format "yyyy-MM-dd"
+    private void planDate(PlanningContext context, String date)
+    {
+        // the orders are read one at a time, and planning starts as they arrive
+        if (numberOfDrones > 1)
+        {
+            new Fleet(context, numberOfDrones, date, pathPlanner).planFlightPaths(baseURL);
+        }
+        else
+        {
+            Drone drone = new Drone(context, pathPlanner);
+            drone.setDateOfFlightPlan(date);
+            drone.planFlightPath(baseURL);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package uk.ac.ed.inf;
+
+/**
+ * this record is used to store the axis-aligned bounding box
+ * of a shape on the map (the smallest rectangle, in longitude
+ * and latitude, that contains all of its points)
+ * @param minLng the smallest longitude of the shape
+ * @param minLat the smallest latitude of the shape
+ * @param maxLng the largest longitude of the shape
+ * @param maxLat the largest latitude of the shape
+ */
+public record BoundingBox(
+        double minLng,
+        double minLat,
+        double maxLng,
+        double maxLat)
+{
+
+    /**
+     * computes the bounding box of a list of points, with the points stored
+     * as separate arrays of longitudes and latitudes
+     * @param lngs the longitudes of the points
+     * @param lats the latitudes of the points
+     * @return the smallest bounding box containing all the points
+     * (a bounding box containing nothing if there are no points)
+     */
+    public static BoundingBox of(double[] lngs, double[] lats)
+    {
+        double minLng = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < lngs.length; i++)
+        {
+            minLng = Math.min(minLng, lngs[i]);
+            minLat = Math.min(minLat, lats[i]);
+            maxLng = Math.max(maxLng, lngs[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+        }
+        return new BoundingBox(minLng, minLat, maxLng, maxLat);
+    }
+
+    /**
+     * checks if a point is inside the bounding box (or on its edges)
+     * @param lng the longitude of the point
+     * @param lat the latitude of the point
+     * @return true if the point is inside the bounding box, false otherwise
+     */
+    public boolean contains(double lng, double lat)
+    {
+        return lng >= minLng && lng <= maxLng && lat >= minLat && lat <= maxLat;
+    }
+
+    /**
+     * computes the smallest bounding box containing both this one and another one
+     * @param other the other bounding box
+     * @return the union of the two bounding boxes
+     */
+    public BoundingBox union(BoundingBox other)
+    {
+        return new BoundingBox(Math.min(minLng, other.minLng), Math.min(minLat, other.minLat),
+                Math.max(maxLng, other.maxLng), Math.max(maxLat, other.maxLat));
+    }
+
+}
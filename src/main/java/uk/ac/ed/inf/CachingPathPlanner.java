@@ -0,0 +1,129 @@
+package uk.ac.ed.inf;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * this class wraps another path planner and remembers every path it
+ * computes, so that the same route (e.g. from Appleton Tower to a given
+ * restaurant) is only ever planned once for a given set of
+ * no-fly-zones
+ */
+public class CachingPathPlanner implements PathPlanner
+{
+    // stored in the cache for routes where the planner found no path
+    // (the map cannot hold null values)
+    private static final List<CompassDirection> NO_PATH = List.of(CompassDirection.NORTH);
+
+    // the planner used to compute routes that are not in the cache yet
+    private final PathPlanner planner;
+
+    // the cached routes, and the latest no-fly-zone index asked about
+    private final Map<RouteKey, List<CompassDirection>> routes = new ConcurrentHashMap<>();
+    private volatile NoFlyZoneIndex latestNoFlyZones;
+
+    // the number of routes found in (and missing from) the cache
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // identifies a route by its two ends, and the no-fly-zones it avoids
+    private record RouteKey(double startLng, double startLat, double destinationLng, double destinationLat,
+                            NoFlyZoneIndex noFlyZones) {}
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the caching planner
+     * @param planner the planner used to compute routes not in the cache
+     */
+    public CachingPathPlanner(PathPlanner planner)
+    {
+        this.planner = planner;
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the number of routes answered from the cache
+     * @return the number of cache hits so far
+     */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /**
+     * getter method for the number of routes that had to be planned
+     * @return the number of cache misses so far
+     */
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * returns the cached path between two locations, planning it
+     * with the wrapped planner the first time it is asked for
+     * (the routes for other sets of no-fly-zones are dropped whenever a
+     * different set is used)
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @return the (unmodifiable) list of compass directions to be taken,
+     * or null if no path could be found
+     */
+    @Override
+    public List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones)
+    {
+        return planPath(start, destination, noFlyZones, null);
+    }
+
+    /**
+     * returns the cached path between two locations, planning it
+     * with the wrapped planner the first time it is asked for
+     * (only the work done by the wrapped planner is counted, so a
+     * cache hit adds nothing to the counters of the run, and a route
+     * asked for by several threads at once is only planned by one of them)
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @param metrics the metrics of the run (can be null)
+     * @return the (unmodifiable) list of compass directions to be taken,
+     * or null if no path could be found
+     */
+    @Override
+    public List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones,
+                                           PlanningMetrics metrics)
+    {
+        if (noFlyZones != latestNoFlyZones)
+        {
+            // the routes computed for other no-fly-zones are not needed any more
+            // (only their routes are removed, so this can safely run on several
+            // threads at once, and never drops a route for the current index)
+            latestNoFlyZones = noFlyZones;
+            routes.keySet().removeIf(key -> key.noFlyZones() != noFlyZones);
+        }
+        RouteKey key = new RouteKey(start.getLng(), start.getLat(),
+                destination.getLng(), destination.getLat(), noFlyZones);
+        boolean[] planned = new boolean[1];
+        List<CompassDirection> path = routes.computeIfAbsent(key, missing ->
+        {
+            planned[0] = true;
+            List<CompassDirection> plannedPath = planner.planPath(start, destination, noFlyZones, metrics);
+            return (plannedPath == null) ? NO_PATH : List.copyOf(plannedPath);
+        });
+        (planned[0] ? misses : hits).incrementAndGet();
+        return (path == NO_PATH) ? null : path;
+    }
+
+}
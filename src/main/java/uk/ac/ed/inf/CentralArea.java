@@ -5,21 +5,24 @@ import java.net.URL;
 import java.util.List;
 
 /**
- * this singleton class is used strictly for
+ * this class is used strictly for
  * obtaining data regarding the Central Area
  * from the REST server
  */
 public class CentralArea
 {
-    /**
-     * the singleton instance that is only created once
-     */
-    private static CentralArea centralArea;
     /**
      * stores the list of the central area co-ordinates
      * as LngLat objects
      */
     private List<LngLat> centralAreaVertices;
+    /**
+     * the central area co-ordinates compiled into flat arrays,
+     * and the bounding box of the central area
+     */
+    private final double[] centralAreaLngs;
+    private final double[] centralAreaLats;
+    private final BoundingBox boundingBox;
 
     /**
      * constructor method for the class
@@ -27,21 +30,24 @@ public class CentralArea
      * @param baseURL the validated URL from the command line
      */
     public CentralArea(URL baseURL) {
-        centralAreaVertices = RetrieveData.getData(baseURL, "/centralArea", new TypeReference<>(){});
+        this(RetrieveData.getData(baseURL, "/centralArea", new TypeReference<List<LngLat>>(){}));
     }
 
     /**
-     * obtain an instance of the singleton class
-     * @param baseURL the validated URL from the command line
-     * @return an instance object of the CentralArea singleton
+     * constructor method for the class
+     * (for a central area that is already known)
+     * @param centralAreaVertices the central area co-ordinates as LngLat objects
      */
-    public static CentralArea getInstance(URL baseURL)
-    {
-        if (centralArea == null)
+    public CentralArea(List<LngLat> centralAreaVertices) {
+        this.centralAreaVertices = centralAreaVertices;
+        centralAreaLngs = new double[centralAreaVertices.size()];
+        centralAreaLats = new double[centralAreaVertices.size()];
+        for (int i = 0; i < centralAreaVertices.size(); i++)
         {
-            centralArea = new CentralArea(baseURL);
+            centralAreaLngs[i] = centralAreaVertices.get(i).getLng();
+            centralAreaLats[i] = centralAreaVertices.get(i).getLat();
         }
-        return centralArea;
+        boundingBox = BoundingBox.of(centralAreaLngs, centralAreaLats);
     }
 
     /**
@@ -54,4 +60,15 @@ public class CentralArea
         return centralAreaVertices;
     }
 
+    /**
+     * checks if a location is inside the central area (or on its edges)
+     * @param lng the longitude of the location
+     * @param lat the latitude of the location
+     * @return true if the location is in the central area, false otherwise
+     */
+    public boolean contains(double lng, double lat)
+    {
+        return LngLat.inArea(lng, lat, centralAreaLngs, centralAreaLats, boundingBox);
+    }
+
 }
@@ -1,17 +1,24 @@
 package uk.ac.ed.inf;
 
 import java.time.LocalDate;
-import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * this class is used to validate credit card information
  * for each order on the REST server
+ * (the static methods are stateless, and do not allocate any objects
+ * for the usual case, so they can be shared by every thread)
  */
 public class CreditCardValidator
 {
+    // the format of the order dates
+    private static final DateTimeFormatter ORDER_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // the last order date seen, and its month (counted from year 0)
+    // (the orders are checked a day at a time, so this is nearly always a hit)
+    private record OrderMonth(String orderDate, int month) {}
+    private static volatile OrderMonth lastOrderMonth = new OrderMonth("", 0);
+
     // the order instance for which credit card validation will be performed
     private Order orderToVerify;
 
@@ -34,54 +41,7 @@ public class CreditCardValidator
      */
     public boolean validCreditCardNumber()
     {
-        String creditCardNumber = orderToVerify.getCreditCardNumber();
-        // check if string is empty, or if it has an incorrect length
-        if (creditCardNumber == null || creditCardNumber.length() != 16)
-        {
-            return false;
-        }
-        // card validation regexes that stores information about valid card numbers
-        // based on different providers
-        String cardValidationVisa = "^4[0-9]{0,}$";
-        String cardValidationMasterCard = "^(5[1-5]|222[1-9]|22[3-9]|2[3-6]|27[01]|2720)[0-9]{0,}$";
-        // create a pattern and matcher for the regexes and card number
-        // (to see if there is a match)
-        Pattern patternVisa = Pattern.compile(cardValidationVisa);
-        Pattern patternMasterCard = Pattern.compile(cardValidationMasterCard);
-        Matcher matcherVisa = patternVisa.matcher(creditCardNumber);
-        Matcher matcherMasterCard = patternMasterCard.matcher(creditCardNumber);
-        // this part is the Luhn algorithm for credit card number validation
-        int luhnSum = 0;
-        boolean shouldBeDoubled = false;
-        // starting from last digit and going to the first
-        for (int i = creditCardNumber.length() - 1; i >= 0; i--)
-        {
-            // get each individual digit from the card number
-            try
-            {
-                int currentDigit = Integer.parseInt(creditCardNumber.substring(i, i + 1));
-                // check if it should be doubled, and if so, double it
-                if (shouldBeDoubled)
-                {
-                    currentDigit *= 2;
-                    // check the new result is a single digit number
-                    if (currentDigit > 9)
-                    {
-                        // if not, convert it to a single digit number
-                        currentDigit = (currentDigit % 10) + 1;
-                    }
-                }
-                // append the computed current digit to the sum of digits
-                luhnSum += currentDigit;
-                // and switch the value of the flag
-                shouldBeDoubled = !shouldBeDoubled;
-            }
-            catch (Exception ignored) {}
-        }
-        // if there is a match in terms of card pattern
-        // and the Luhn checksum algorithm passes
-        // then the credit card number is valid
-        return (matcherVisa.matches() || matcherMasterCard.matches()) && (luhnSum % 10 == 0);
+        return isValidNumber(orderToVerify.getCreditCardNumber());
     }
 
     /**
@@ -91,29 +51,7 @@ public class CreditCardValidator
      */
     public boolean validExpiryDate()
     {
-        String creditCardExpiry = orderToVerify.getCreditCardExpiry();
-        String orderDate = orderToVerify.getOrderDate();
-        // check if either string is empty
-        if (creditCardExpiry == null || orderDate == null)
-        {
-            return false;
-        }
-        LocalDate dateOfOrder = LocalDate.parse(orderDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        LocalDate lastDay;
-        if (creditCardExpiry.matches("^((0[1-9])|(1[0-2]))/*((0[0-9])|([1-3][0-9]))$"))
-        {
-            YearMonth yearMonth = YearMonth.parse(creditCardExpiry, DateTimeFormatter.ofPattern("MM/yy"));
-            lastDay = yearMonth.atEndOfMonth();
-        }
-        else
-        {
-            return false;
-        }
-        String lastDayString = lastDay.toString();
-        String reformattedLastDay = lastDayString.substring(0, 4) + "-" +
-                lastDayString.substring(5, 7) + "-" + lastDayString.substring(8, 10);
-        lastDay = LocalDate.parse(reformattedLastDay, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        return !dateOfOrder.isAfter(lastDay);
+        return isValidExpiryDate(orderToVerify.getCreditCardExpiry(), orderToVerify.getOrderDate());
     }
 
     /**
@@ -123,20 +61,7 @@ public class CreditCardValidator
      */
     public boolean validCvv()
     {
-        String cvv = orderToVerify.getCvv();
-        // check if string is empty
-        if (cvv == null)
-        {
-            return false;
-        }
-        // Regex to check for valid CVV number combinations
-        String regex = "^[0-9]{3}$";
-        // create a pattern and matcher for the regex and card number
-        // (to see if there is a match)
-        Pattern p = Pattern.compile(regex);
-        Matcher matcher = p.matcher(cvv);
-        // return true if there is a match between the cvv and the regex
-        return matcher.matches();
+        return isValidCvv(orderToVerify.getCvv());
     }
 
     /**
@@ -145,26 +70,170 @@ public class CreditCardValidator
      * @return true if the card details are all valid, false otherwise
      */
     public boolean validCreditCardDetails()
+    {
+        return isValidCard(orderToVerify);
+    }
+
+    /**
+     * check if all components of the card of an order (i.e. card number,
+     * expiry date, cvv) are valid, and update the order outcome
+     * @param order the order whose credit card information will be verified
+     * @return true if the card details are all valid, false otherwise
+     */
+    public static boolean isValidCard(Order order)
     {
         // if the credit card number is invalid, update the order outcome accordingly
-        if (!validCreditCardNumber())
+        if (!isValidNumber(order.getCreditCardNumber()))
         {
-            orderToVerify.setOutcome(OrderOutcome.InvalidCardNumber);
+            order.setOutcome(OrderOutcome.InvalidCardNumber);
             return false;
         }
         // if the credit card expiry date is invalid, update the order outcome accordingly
-        else if (!validExpiryDate())
+        else if (!isValidExpiryDate(order.getCreditCardExpiry(), order.getOrderDate()))
         {
-            orderToVerify.setOutcome(OrderOutcome.InvalidExpiryDate);
+            order.setOutcome(OrderOutcome.InvalidExpiryDate);
             return false;
         }
         // if the credit card cvv number is invalid, update the order outcome accordingly
-        else if (!validCvv())
+        else if (!isValidCvv(order.getCvv()))
+        {
+            order.setOutcome(OrderOutcome.InvalidCvv);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * checks a credit card number is a 16 digit Visa or MasterCard
+     * number, with a valid Luhn checksum
+     * @param creditCardNumber the credit card number
+     * @return true if the credit card number is valid, false otherwise
+     */
+    public static boolean isValidNumber(String creditCardNumber)
+    {
+        // check if string is empty, or if it has an incorrect length
+        if (creditCardNumber == null || creditCardNumber.length() != 16)
+        {
+            return false;
+        }
+        // this part is the Luhn algorithm, starting from the last digit
+        // (which also checks every character is a digit)
+        int luhnSum = 0;
+        for (int i = 15; i >= 0; i--)
+        {
+            int currentDigit = creditCardNumber.charAt(i) - '0';
+            if (currentDigit < 0 || currentDigit > 9)
+            {
+                return false;
+            }
+            // every second digit (from the end) is doubled,
+            // and brought back to a single digit
+            if ((i & 1) == 0)
+            {
+                currentDigit *= 2;
+                if (currentDigit > 9)
+                {
+                    currentDigit -= 9;
+                }
+            }
+            luhnSum += currentDigit;
+        }
+        return luhnSum % 10 == 0 && hasCardPrefix(creditCardNumber);
+    }
+
+    // checks the number starts like a Visa (4) or MasterCard (51-55 or 2221-2720) number
+    // @param creditCardNumber a string of 16 digits
+    // @return true if the prefix belongs to one of the two providers
+    private static boolean hasCardPrefix(String creditCardNumber)
+    {
+        int first = creditCardNumber.charAt(0) - '0';
+        if (first == 4)
+        {
+            return true;
+        }
+        int prefix = (creditCardNumber.charAt(0) - '0') * 1000 + (creditCardNumber.charAt(1) - '0') * 100
+                + (creditCardNumber.charAt(2) - '0') * 10 + (creditCardNumber.charAt(3) - '0');
+        return (prefix >= 5100 && prefix <= 5599) || (prefix >= 2221 && prefix <= 2720);
+    }
+
+    /**
+     * checks a credit card has not expired by the date of the order
+     * (the card is valid until the end of its expiry month)
+     * @param creditCardExpiry the expiry date of the card, in the format "MM/yy"
+     * (with the year between 00 and 39)
+     * @param orderDate the date of the order, in the format "yyyy-MM-dd"
+     * @return true if the credit card expiry is valid, false otherwise
+     */
+    public static boolean isValidExpiryDate(String creditCardExpiry, String orderDate)
+    {
+        // check if either string is empty, or the expiry is not "MM/yy"
+        if (creditCardExpiry == null || orderDate == null || creditCardExpiry.length() != 5
+                || creditCardExpiry.charAt(2) != '/')
+        {
+            return false;
+        }
+        int month = twoDigits(creditCardExpiry, 0);
+        int year = twoDigits(creditCardExpiry, 3);
+        if (month < 1 || month > 12 || year < 0 || year > 39)
         {
-            orderToVerify.setOutcome(OrderOutcome.InvalidCvv);
             return false;
         }
+        // the card is valid if the order was placed in its expiry month or before
+        return orderMonth(orderDate) <= (2000 + year) * 12 + (month - 1);
+    }
+
+    // reads a two digit number from a string
+    // @param text the string to read from
+    // @param start the index of the first digit
+    // @return the number, or -1 if either character is not a digit
+    private static int twoDigits(String text, int start)
+    {
+        int tens = text.charAt(start) - '0';
+        int units = text.charAt(start + 1) - '0';
+        if (tens < 0 || tens > 9 || units < 0 || units > 9)
+        {
+            return -1;
+        }
+        return tens * 10 + units;
+    }
+
+    // the month of an order date, counted from year 0
+    // (parsed once for each new date)
+    // @param orderDate the date of the order, in the format "yyyy-MM-dd"
+    // @return the year times 12, plus the month (from 0 to 11)
+    private static int orderMonth(String orderDate)
+    {
+        OrderMonth cached = lastOrderMonth;
+        if (cached.orderDate().equals(orderDate))
+        {
+            return cached.month();
+        }
+        LocalDate dateOfOrder = LocalDate.parse(orderDate, ORDER_DATE_FORMAT);
+        int month = dateOfOrder.getYear() * 12 + (dateOfOrder.getMonthValue() - 1);
+        lastOrderMonth = new OrderMonth(orderDate, month);
+        return month;
+    }
+
+    /**
+     * checks a credit card cvv number is made of exactly 3 digits
+     * @param cvv the cvv number
+     * @return true if the credit card cvv number is valid, false otherwise
+     */
+    public static boolean isValidCvv(String cvv)
+    {
+        // check if string is empty, or has the wrong length
+        if (cvv == null || cvv.length() != 3)
+        {
+            return false;
+        }
+        for (int i = 0; i < 3; i++)
+        {
+            if (cvv.charAt(i) < '0' || cvv.charAt(i) > '9')
+            {
+                return false;
+            }
+        }
         return true;
     }
 
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package uk.ac.ed.inf;
 
+import java.net.URL;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * this class is used to monitor the movement of the drone
@@ -17,36 +19,34 @@ public class Drone
     // the address of Appleton Tower
     private static final LngLat APPLETON_TOWER = new LngLat(-3.186874, 55.944494);
 
-    // current position of the drone
-    private LngLat currentPosition;
+    // all the compass directions, indexed by ordinal
+    private static final CompassDirection[] COMPASS_DIRECTIONS = CompassDirection.values();
 
-    // a deep clone object of the current position
-    // (to be used when planning a potential path)
-    private LngLat currentPositionClone;
+    // all the moves the drone makes
+    private final MoveLog moveLog = new MoveLog(APPLETON_TOWER);
 
-    // a list of all the moves the drone makes
-    // (all points covered during the flight)
-    private ArrayList<LngLat> allMovesMade = new ArrayList<>();
-
-    // a list of all the moves the drone might consider making
-    // (all points covered during the flight)
-    private ArrayList<LngLat> potentialPathToTake;
-
-    // stores the number of moves taken when going from a
-    // given start point to a given end point
-    private int movesTakenForOneWayFlightPath;
+    // the index (in the move log) of the order currently being planned
+    private int currentOrderIndex;
 
     // this field stores the remaining number of moves
     // that the drone has before it runs out of battery
     private int availableMovesLeft;
 
-    // stores the angle at which the drone moves
-    // (to be used in file writing)
-    private Double angle;
+    // the algorithm used to compute the path between two locations
+    private final PathPlanner pathPlanner;
+
+    // the planning context of the run (no-fly-zones, orders, output directory)
+    private final PlanningContext context;
 
-    // stores the time taken to compute a given move
-    // (to be used in file writing)
-    private int ticksSinceStartOfCalculation;
+    // the number of moves for the round trip to each restaurant
+    // (computed once, either ahead of delivery or when selecting orders;
+    // kept next to the path planner's own cache, because the drone may be
+    // given a planner that does not cache, and the selection asks for the
+    // cost of every order, so each restaurant is still only searched once)
+    private final Map<Restaurant, Integer> roundTripMoves = new HashMap<>();
+
+    // what the drone tries to maximise when choosing which orders to deliver
+    private SelectionObjective selectionObjective = SelectionObjective.ORDER_COUNT;
 
     // field used to store the date inputted from the command line
     // (to be used for GeoJSON file writing)
@@ -55,23 +55,32 @@ public class Drone
     // keeps track of the time when the algorithm is started
     private long startTime;
 
-    // a list of all the flight path objects created for the given date
-    // (to be written to a JSON file)
-    private List<FlightPath> allFlightPathsForGivenDate = new ArrayList<>();
-
-
     // =========================================================================
     // ============================= CONSTRUCTOR ===============================
     // =========================================================================
 
     /**
      * constructor method for the drone object
+     * (uses the A* path planner to compute flight paths, caching every
+     * route so that each restaurant is only planned for once)
+     * @param context the planning context of the run
+     */
+    public Drone(PlanningContext context)
+    {
+        this(context, new CachingPathPlanner(new AStarPathPlanner()));
+    }
+
+    /**
+     * constructor method for the drone object
+     * @param context the planning context of the run
+     * @param pathPlanner the algorithm used to compute the path
+     *                    between two locations
      */
-    public Drone()
+    public Drone(PlanningContext context, PathPlanner pathPlanner)
     {
+        this.context = context;
+        this.pathPlanner = pathPlanner;
         availableMovesLeft = MAX_NUMBER_OF_MOVES_ALLOWED;
-        currentPosition = APPLETON_TOWER;
-        allMovesMade.add(currentPosition);
         startTime = System.nanoTime();
     }
 
@@ -79,14 +88,36 @@ public class Drone
     // ================================ GETTERS ================================
     // =========================================================================
 
+    /**
+     * getter method for the log of all the moves the drone makes
+     * (read directly by the JSON and GeoJSON file writers)
+     * @return the move log of the drone
+     */
+    public MoveLog getMoveLog()
+    {
+        return moveLog;
+    }
+
     /**
      * getter method for the list of all the moves the drone makes
+     * (created from the move log on every call)
      * @return a list of LngLat objects representing all the points
      * covered during the flight of the drone
      */
     public List<LngLat> getAllMovesMade()
     {
-        return allMovesMade;
+        return moveLog.toPositions();
+    }
+
+    /**
+     * getter method for the list of all the flight path objects
+     * (one for every move, including hovers, created from the
+     * move log on every call)
+     * @return the flight paths for the date of the flight plan
+     */
+    public List<FlightPath> getAllFlightPaths()
+    {
+        return moveLog.toFlightPaths(dateOfFlightPlan);
     }
 
     /**
@@ -113,176 +144,253 @@ public class Drone
         this.dateOfFlightPlan = dateOfFlightPlan;
     }
 
+    /**
+     * setter method for what the drone tries to maximise
+     * when choosing which orders to deliver (only available to callers
+     * of the library, the command line always maximises the number of orders)
+     * @param selectionObjective the number of orders delivered, or the revenue
+     */
+    public void setSelectionObjective(SelectionObjective selectionObjective)
+    {
+        this.selectionObjective = selectionObjective;
+    }
+
     // =========================================================================
     // ========================== OTHER CLASS METHODS ==========================
     // =========================================================================
 
     // this method checks if a delivery can be made for a given order
-    // by planning a route to and from the restaurant, and checking if
-    // the drone has enough battery left to make the delivery
-    // @param destination a LngLat object storing the location of the restaurant
-    // @param orderNo the order number (to be used when creating FlightPath objects)
+    // by planning a route to the restaurant, and checking if the drone
+    // has enough battery left to fly there and back, and if so, flies it
+    // (the drone flies back along the same route, so every trip starts
+    // and ends exactly at Appleton Tower, and the route to each restaurant
+    // is the same on every trip; an order route event is recorded for the route)
+    // @param restaurant the restaurant the order is collected from
+    // @param orderNo the order number (to be stored with each move in the move log)
     // @return true if the order can be delivered, false otherwise
-    private boolean canDeliverOrder(LngLat destination, String orderNo)
+    private boolean canDeliverOrder(Restaurant restaurant, String orderNo)
     {
-        // initialise the deep clone, and the potential path to take
-        currentPositionClone = new LngLat(currentPosition.getLng(), currentPosition.getLat());
-        potentialPathToTake = new ArrayList<>();
-        // compute the number of moves needed to make the delivery
-        int movesToMakeDelivery = computeFlightPath(destination, orderNo);
-        movesToMakeDelivery += computeFlightPath(APPLETON_TOWER, orderNo);
-        // if we have enough moves left to make the delivery
-        if (availableMovesLeft - movesToMakeDelivery >= 0)
-        {
-            // append the created flight path to the list of all moves made
-            allMovesMade.addAll(potentialPathToTake);
-            // reset the current position to be the drop-off location
-            // (where the order was delivered)
-            currentPosition = currentPositionClone;
-            // and account for the moves taken to deliver the order
-            availableMovesLeft -= movesToMakeDelivery;
-            // return true, since it was possible to make the delivery
-            return true;
-        }
+        OrderRouteEvent event = new OrderRouteEvent();
+        event.begin();
+        // get the directions to take from the path planner
+        List<CompassDirection> outbound = pathPlanner.planPath(APPLETON_TOWER, restaurant.getRestaurantLocation(),
+                context.getNoFlyZoneIndex(), context.getMetrics());
+        // (if no path could be found, the order can never be delivered)
+        int movesToMakeDelivery = (outbound == null) ? MAX_NUMBER_OF_MOVES_ALLOWED + 1 : roundTripMoves(outbound);
         // if it is not possible to make the delivery, return false
         // so that the order outcome is not updated
-        return false;
+        if (availableMovesLeft - movesToMakeDelivery < 0)
+        {
+            event.record(dateOfFlightPlan, orderNo, restaurant, movesToMakeDelivery, false);
+            return false;
+        }
+        // otherwise, fly the route, and account for the moves taken to deliver the order
+        currentOrderIndex = moveLog.addOrder(orderNo);
+        flyRoundTrip(outbound);
+        availableMovesLeft -= movesToMakeDelivery;
+        event.record(dateOfFlightPlan, orderNo, restaurant, movesToMakeDelivery, true);
+        // return true, since it was possible to make the delivery
+        return true;
     }
 
-    // this method computes the flight path to a given destination from the current position
-    // @param destination: a LngLat object storing the location of the restaurant
-    // @param orderNo: the order number (to be used when creating FlightPath objects)
-    // @return the number of moves taken to get from the current position to the
-    // given destination
-    private int computeFlightPath(LngLat destination, String orderNo)
+    // this method flies the drone from Appleton Tower along a route, hovers,
+    // and flies back along the same route (each move reversed, through exactly
+    // the same positions), before hovering at Appleton Tower again
+    // @param outbound the directions to take from Appleton Tower (in order)
+    private void flyRoundTrip(List<CompassDirection> outbound)
     {
-        // initialise the counter for number of moves taken
-        movesTakenForOneWayFlightPath = 0;
-        // used to keep the drone from getting stuck in an infinite loop
-        CompassDirection getsStuck = null;
-        // if we're not close to the destination
-        while (!currentPositionClone.closeTo(destination))
+        LngLat[] positions = new LngLat[outbound.size() + 1];
+        positions[0] = APPLETON_TOWER;
+        for (int i = 0; i < outbound.size(); i++)
         {
-            // create a list of all angles that are not taking the drone in a no-fly-zone
-            ArrayList<CompassDirection> anglesNotInNoFlyZones = new ArrayList<>();
-            for (CompassDirection direction : CompassDirection.values())
-            {
-                // for each direction, compute a possible next position
-                LngLat nextPosition = currentPositionClone.nextPosition(direction);
-                // and check if that lands the drone in a no-fly-zone
-                if (!nextPosition.inNoFlyZone() && !currentPositionClone.lineCutsThroughNoFlyZones(nextPosition))
-                {
-                    // if it doesn't, add it to the list
-                    anglesNotInNoFlyZones.add(direction);
-                }
-            }
-            // if the list already contains a direction that could get the drone
-            // stuck in an infinite loop, remove it
-            if (anglesNotInNoFlyZones.contains(getsStuck))
-            {
-                anglesNotInNoFlyZones.remove(getsStuck);
-            }
-            // set the closest angle to the first element in the list, and compute the closest distance
-            CompassDirection bestAngle = anglesNotInNoFlyZones.get(0);
-            double bestDistance = destination.distanceTo(currentPositionClone.nextPosition(bestAngle));
-            // check if there is a better direction to take
-            for (CompassDirection direction : anglesNotInNoFlyZones)
-            {
-                LngLat nextPosition = currentPositionClone.nextPosition(direction);
-                double distance = destination.distanceTo(nextPosition);
-                // if there is, update the variables accordingly
-                if (distance < bestDistance)
-                {
-                    bestAngle = direction;
-                    bestDistance = distance;
-                }
-            }
-            // create a new FlightPath object
-            LngLat newPosition = currentPositionClone.nextPosition(bestAngle);
-            angle = bestAngle.ordinal() * 22.5;
-            ticksSinceStartOfCalculation = (int) (System.nanoTime() - startTime);
-            createFlightPathObject(orderNo, newPosition);
-            // and take that best direction
-            makeMove(newPosition);
-            // get all compass directions
-            List<CompassDirection> allDirections = Arrays.stream(CompassDirection.values()).toList();
-            // remove the reverse of the angle that was taken
-            int reverseOfAngleTaken = allDirections.indexOf(bestAngle) - 8;
-            if (reverseOfAngleTaken < 0)
-            {
-                reverseOfAngleTaken += 16;
-            }
-            // and set the stuck direction to that reverse to avoid getting stuck
-            getsStuck = allDirections.get(reverseOfAngleTaken);
+            positions[i + 1] = positions[i].nextPosition(outbound.get(i));
+            makeMove(positions[i + 1], outbound.get(i));
         }
-        // if we are close to the destination, make a hover move
-        // create a new FlightPath object for the hover move
-        angle = null;
-        ticksSinceStartOfCalculation = (int) (System.nanoTime() - startTime);
-        createFlightPathObject(orderNo, currentPosition);
-        // and make the hover move
-        makeMove(currentPositionClone);
-        return movesTakenForOneWayFlightPath;
+        // if we are close to the restaurant, make a hover move
+        makeMove(positions[outbound.size()], null);
+        for (int i = outbound.size() - 1; i >= 0; i--)
+        {
+            // the opposite direction is half way round the compass
+            makeMove(positions[i], COMPASS_DIRECTIONS[(outbound.get(i).ordinal() + 8) % 16]);
+        }
+        // and hover again once back at Appleton Tower
+        makeMove(APPLETON_TOWER, null);
     }
 
-    // this method moves the drone from its current position
-    // to a new give position
+    // this method records a move of the drone in the move log
     // @param updatedPosition the new position to which the drone
-    //                        should be moved
-    private void makeMove(LngLat updatedPosition)
+    //                        should be moved (kept constant if the
+    //                        move is a hover)
+    // @param direction the direction of the move (null for a hover)
+    private void makeMove(LngLat updatedPosition, CompassDirection direction)
     {
-        // update the potential path to take
-        potentialPathToTake.add(updatedPosition);
-        // and the current position clone
-        currentPositionClone = updatedPosition;
-        // and the number of moves taken
-        movesTakenForOneWayFlightPath++;
+        moveLog.addMove(updatedPosition, direction, currentOrderIndex, System.nanoTime() - startTime);
     }
 
-    // this method creates a FlightPath object for every move made
-    // by the drone when delivering a certain order
-    // @param orderNo     the corresponding order number
-    // @param newPosition the new position to which the drone
-    //                    should be moved (kept constant if the
-    //                    move is a hover)
-    private void createFlightPathObject(String orderNo, LngLat newPosition)
+    // this method computes the number of moves needed to fly a round trip
+    // (the route there and back, with a hover at either end, as flown by flyRoundTrip)
+    // @param outbound the directions to take from Appleton Tower to the restaurant
+    // @return the number of moves for the round trip
+    private static int roundTripMoves(List<CompassDirection> outbound)
     {
-        FlightPath currentFlightPath = new FlightPath(orderNo, dateOfFlightPlan,
-                currentPositionClone.getLng(), currentPositionClone.getLat(),
-                angle, newPosition.getLng(), newPosition.getLat(),
-                ticksSinceStartOfCalculation);
-        allFlightPathsForGivenDate.add(currentFlightPath);
+        return 2 * outbound.size() + 2;
+    }
+
+    // this method returns the number of moves needed to fly from Appleton Tower
+    // to the restaurant of an order and back, planning the route the first
+    // time the restaurant is asked for (the same route canDeliverOrder flies,
+    // so the estimate is exactly what the delivery costs; a route planning
+    // event is recorded for the search, with the order that needed it)
+    // @param order the valid order whose restaurant is to be visited
+    // @return the number of moves for the round trip, or -1 if there is no path
+    private int roundTripMovesFor(Order order)
+    {
+        return roundTripMoves.computeIfAbsent(order.getCorrespondingRestaurant(), restaurant ->
+        {
+            RoutePlanningEvent event = new RoutePlanningEvent();
+            event.begin();
+            List<CompassDirection> outbound = pathPlanner.planPath(APPLETON_TOWER,
+                    restaurant.getRestaurantLocation(), context.getNoFlyZoneIndex(), context.getMetrics());
+            int moves = (outbound == null) ? -1 : roundTripMoves(outbound);
+            event.record(dateOfFlightPlan, order.getOrderNumber(), restaurant, moves);
+            return moves;
+        });
+    }
+
+    // this method chooses which of the valid orders to deliver, so that the
+    // selection objective is maximised within the drone's battery
+    // (the round trip to each restaurant is only computed once per drone)
+    // @param validOrders all the valid orders for the given date
+    // @return for each valid order, true if it was chosen, false otherwise
+    private boolean[] selectOrdersToDeliver(List<Order> validOrders)
+    {
+        int[] moves = new int[validOrders.size()];
+        int[] values = new int[validOrders.size()];
+        for (int i = 0; i < validOrders.size(); i++)
+        {
+            Order order = validOrders.get(i);
+            moves[i] = roundTripMovesFor(order);
+            values[i] = (selectionObjective == SelectionObjective.REVENUE) ? order.getOrderDeliveryCost() : 1;
+        }
+        return OrderSelector.select(moves, values, availableMovesLeft);
     }
 
     /**
-     * generate the flight plan of the drone to deliver
-     * as many orders as it can, for a given set of orders
-     * (also generates all the required JSON and GeoJSON output files)
-     * @param allOrdersForGivenDate all the available orders
-     *                              for the inputted date
-     *                              (from command line)
+     * delivers as many of the given valid orders as the battery allows
+     * (the orders chosen by the selection objective are delivered in the
+     * order they were placed, and since the selection uses the exact cost
+     * of every trip, they all fit, and no other order would),
+     * updating their outcomes and the drone's flight paths
+     * (the time taken to plan each order, and the orders delivered,
+     * are recorded in the metrics of the run, and an order route event
+     * is recorded for every order, whether it was chosen or not)
+     * @param validOrders the valid orders this drone should try to deliver
      */
-    public void planFlightPath(List<Order> allOrdersForGivenDate)
+    public void deliverOrders(List<Order> validOrders)
     {
-        // get the list of valid orders
-        List<Order> validOrders = Order.getValidOrders();
-        for (Order order: validOrders)
+        PlanningMetrics metrics = context.getMetrics();
+        boolean[] chosen = selectOrdersToDeliver(validOrders);
+        for (int i = 0; i < validOrders.size(); i++)
         {
-            // for each order, get the corresponding restaurant location
+            Order order = validOrders.get(i);
+            if (!chosen[i])
+            {
+                // the order is left undelivered, with the cost that ruled it out
+                int moves = roundTripMovesFor(order);
+                OrderRouteEvent event = new OrderRouteEvent();
+                event.begin();
+                event.record(dateOfFlightPlan, order.getOrderNumber(), order.getCorrespondingRestaurant(),
+                        (moves < 0) ? MAX_NUMBER_OF_MOVES_ALLOWED + 1 : moves, false);
+                continue;
+            }
+            // for each chosen order, get the corresponding restaurant
             Restaurant correspondingRestaurant = order.getCorrespondingRestaurant();
-            LngLat destination = correspondingRestaurant.getRestaurantLocation();
             // check if we have enough moves left to deliver the order
-            if (canDeliverOrder(destination, order.getOrderNumber()))
+            long orderStartTime = System.nanoTime();
+            boolean canDeliver = canDeliverOrder(correspondingRestaurant, order.getOrderNumber());
+            metrics.recordOrderPlanningTime(System.nanoTime() - orderStartTime);
+            if (canDeliver)
             {
                 // if so, plan the route and deliver the order
                 // and record the order as delivered
                 order.setOutcome(OrderOutcome.Delivered);
+                metrics.increment(PlanningMetrics.Counter.ORDERS_DELIVERED);
             }
         }
-        // once all valid orders have been looped over, write all output files
-        Order.writeOrdersToJson(allOrdersForGivenDate);
-        FlightPath.writeFlightPathsToJson(allFlightPathsForGivenDate);
-        writePlanToGeoJSON();
+    }
+
+    /**
+     * generate the flight plan of the drone to deliver
+     * as many orders as it can, for a given set of orders
+     * (the orders are validated against the planning context first,
+     * and all the required JSON and GeoJSON output files, and the
+     * metrics of the run, are generated)
+     * @param allOrdersForGivenDate all the available orders
+     *                              for the inputted date
+     *                              (from command line)
+     */
+    public void planFlightPath(List<Order> allOrdersForGivenDate)
+    {
+        List<Order> validOrders = context.validateOrders(allOrdersForGivenDate);
+        context.getMetrics().time(PlanningMetrics.Phase.PLAN, () -> deliverOrders(validOrders));
+        writeOutputFiles(allOrdersForGivenDate);
+    }
+
+    /**
+     * generate the flight plan of the drone for the orders of its date,
+     * reading the orders from the REST server one at a time (each order
+     * is validated as soon as it arrives, and the route to its restaurant
+     * is planned while the rest of the orders are still being read),
+     * and generate all the required JSON and GeoJSON output files,
+     * and the metrics of the run
+     * @param baseURL the validated URL from the command line
+     */
+    public void planFlightPath(URL baseURL)
+    {
+        planFlightPath(OrderStream.open(baseURL, dateOfFlightPlan, context.getResponseCache()));
+    }
+
+    /**
+     * generate the flight plan of the drone for the orders of its date,
+     * taking them from a stream that is already reading them (e.g. one
+     * opened at startup), and generate all the required JSON and GeoJSON
+     * output files, and the metrics of the run
+     * @param orders the stream of orders for the drone's date
+     */
+    public void planFlightPath(OrderStream orders)
+    {
+        List<Order> validOrders = new ArrayList<>();
+        List<Order> allOrdersForGivenDate = context.streamOrders(orders, order ->
+        {
+            validOrders.add(order);
+            prepareForOrder(order);
+        });
+        context.getMetrics().time(PlanningMetrics.Phase.PLAN, () -> deliverOrders(validOrders));
+        writeOutputFiles(allOrdersForGivenDate);
+    }
+
+    /**
+     * plans the round trip to the restaurant of a valid order ahead of
+     * delivering it (each restaurant is only planned for once)
+     * @param validOrder a valid order this drone may deliver later
+     */
+    public void prepareForOrder(Order validOrder)
+    {
+        roundTripMovesFor(validOrder);
+    }
+
+    // once all valid orders have been looped over, write all output files
+    // (the metrics are written last, so they include the time taken to write the others)
+    // @param allOrdersForGivenDate all the orders for the date (valid or not)
+    private void writeOutputFiles(List<Order> allOrdersForGivenDate)
+    {
+        context.getMetrics().time(PlanningMetrics.Phase.WRITE, () ->
+        {
+            Order.writeOrdersToJson(allOrdersForGivenDate, context);
+            MoveLog.writeMovesToJson(List.of(moveLog), dateOfFlightPlan, context);
+            writePlanToGeoJSON();
+        });
+        context.getMetrics().writeMetricsToJson(dateOfFlightPlan, context);
     }
 
     /**
@@ -292,7 +400,7 @@ public class Drone
      */
     public void writePlanToGeoJSON()
     {
-        GeoJSONWriter geoJSONWriter = new GeoJSONWriter();
+        GeoJSONWriter geoJSONWriter = new GeoJSONWriter(context);
         geoJSONWriter.writePlanToGeoJSON(this);
     }
 
@@ -0,0 +1,109 @@
+package uk.ac.ed.inf;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * this class is the Java Flight Recorder event for writing an output file
+ * (from when the file is opened until it is closed), recorded by the
+ * streams the JSON and GeoJSON writers write through
+ */
+@Name("uk.ac.ed.inf.FileWrite")
+@Label("File Write")
+@Category({"PizzaDronz", "Output"})
+@Description("An output file being written")
+@StackTrace(false)
+public class FileWriteEvent extends Event
+{
+    // the path of the file written
+    @Label("Path")
+    String path;
+
+    // the size of the file written
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * opens a file for writing, recording a file write event when it is closed
+     * @param path the path of the file to be written
+     * @return the (unbuffered) stream writing to the file
+     * @throws IOException if the file could not be opened
+     */
+    public static OutputStream open(String path) throws IOException
+    {
+        FileWriteEvent event = new FileWriteEvent();
+        event.begin();
+        return new RecordedOutputStream(new FileOutputStream(path), path, event);
+    }
+
+    // a stream counting the bytes written to a file, and recording
+    // the file write event when it is closed (only the first time)
+    private static final class RecordedOutputStream extends FilterOutputStream
+    {
+        private final String path;
+        private final FileWriteEvent event;
+        private long bytesWritten;
+        private boolean closed;
+
+        private RecordedOutputStream(OutputStream out, String path, FileWriteEvent event)
+        {
+            super(out);
+            this.path = path;
+            this.event = event;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException
+        {
+            out.write(bytes, offset, length);
+            bytesWritten += length;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            try
+            {
+                super.close();
+            }
+            finally
+            {
+                event.end();
+                if (event.shouldCommit())
+                {
+                    event.path = path;
+                    event.bytesWritten = bytesWritten;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+package uk.ac.ed.inf;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * this class is used to deliver the orders for a given date with
+ * several drones, each with its own battery (the valid orders are
+ * shared out between the drones, every drone plans its flight on its
+ * own thread, the orders a drone could not fit in are then offered to
+ * the others, and the results are written to the usual output files)
+ */
+public class Fleet
+{
+    // the drones in the fleet
+    private final List<Drone> drones = new ArrayList<>();
+
+    // the date inputted from the command line
+    private final String dateOfFlightPlan;
+
+    // the planning context of the run (shared by all the drones)
+    private final PlanningContext context;
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the fleet (all the drones share
+     * one cache of planned routes)
+     * @param context the planning context of the run
+     * @param numberOfDrones the number of drones in the fleet (at least 1)
+     * @param dateOfFlightPlan the date the orders are delivered on
+     */
+    public Fleet(PlanningContext context, int numberOfDrones, String dateOfFlightPlan)
+    {
+        this(context, numberOfDrones, dateOfFlightPlan, new CachingPathPlanner(new AStarPathPlanner()));
+    }
+
+    /**
+     * constructor method for the fleet
+     * @param context the planning context of the run
+     * @param numberOfDrones the number of drones in the fleet (at least 1)
+     * @param dateOfFlightPlan the date the orders are delivered on
+     * @param pathPlanner the path planner shared by all the drones
+     *                    (must be safe to use from several threads)
+     */
+    public Fleet(PlanningContext context, int numberOfDrones, String dateOfFlightPlan, PathPlanner pathPlanner)
+    {
+        if (numberOfDrones < 1)
+        {
+            throw new IllegalArgumentException("A fleet needs at least one drone!");
+        }
+        this.context = context;
+        this.dateOfFlightPlan = dateOfFlightPlan;
+        for (int i = 0; i < numberOfDrones; i++)
+        {
+            Drone drone = new Drone(context, pathPlanner);
+            drone.setDateOfFlightPlan(dateOfFlightPlan);
+            drones.add(drone);
+        }
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the drones in the fleet
+     * @return the list of drones
+     */
+    public List<Drone> getDrones()
+    {
+        return drones;
+    }
+
+    /**
+     * getter method for the flight paths of the whole fleet
+     * (all the flight paths of the first drone, then the second, etc.)
+     * @return the flight paths of all the drones
+     */
+    public List<FlightPath> getAllFlightPaths()
+    {
+        List<FlightPath> allFlightPaths = new ArrayList<>();
+        for (Drone drone : drones)
+        {
+            allFlightPaths.addAll(drone.getAllFlightPaths());
+        }
+        return allFlightPaths;
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * shares the given valid orders out between the drones (in turn,
+     * in the order they were placed) and has every drone deliver its
+     * share on a separate thread, waiting for all of them to finish,
+     * before offering the orders left undelivered to the drones in turn
+     * (so a drone with battery to spare picks up the orders another
+     * drone had no room for)
+     * @param validOrders the valid orders to be delivered
+     */
+    public void deliverOrders(List<Order> validOrders)
+    {
+        List<List<Order>> shares = new ArrayList<>();
+        for (int i = 0; i < drones.size(); i++)
+        {
+            shares.add(new ArrayList<>());
+        }
+        for (int i = 0; i < validOrders.size(); i++)
+        {
+            shares.get(i % drones.size()).add(validOrders.get(i));
+        }
+        int threads = Math.min(drones.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<?>> flights = new ArrayList<>();
+            for (int i = 0; i < drones.size(); i++)
+            {
+                Drone drone = drones.get(i);
+                List<Order> share = shares.get(i);
+                flights.add(executor.submit(() -> drone.deliverOrders(share)));
+            }
+            for (Future<?> flight : flights)
+            {
+                flight.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new RuntimeException(e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        offerUndeliveredOrders(validOrders);
+    }
+
+    // offers the valid orders no drone has delivered yet to each drone in turn,
+    // until every order is delivered, or every drone has had the chance to
+    // use the rest of its battery on them
+    // @param validOrders the valid orders to be delivered
+    private void offerUndeliveredOrders(List<Order> validOrders)
+    {
+        for (Drone drone : drones)
+        {
+            List<Order> undeliveredOrders = validOrders.stream()
+                    .filter(order -> order.getOutcome() != OrderOutcome.Delivered)
+                    .toList();
+            if (undeliveredOrders.isEmpty())
+            {
+                return;
+            }
+            drone.deliverOrders(undeliveredOrders);
+        }
+    }
+
+    /**
+     * generate the flight plans of all the drones to deliver as many
+     * orders as they can, for a given set of orders
+     * (the orders are validated against the planning context first,
+     * and this also generates the JSON and GeoJSON output files, one of each
+     * for the whole fleet, and the metrics of the run)
+     * @param allOrdersForGivenDate all the available orders
+     *                              for the inputted date
+     *                              (from command line)
+     */
+    public void planFlightPaths(List<Order> allOrdersForGivenDate)
+    {
+        List<Order> validOrders = context.validateOrders(allOrdersForGivenDate);
+        context.getMetrics().time(PlanningMetrics.Phase.PLAN, () -> deliverOrders(validOrders));
+        writeOutputFiles(allOrdersForGivenDate);
+    }
+
+    /**
+     * generate the flight plans of all the drones for the orders of the
+     * fleet's date, reading the orders from the REST server one at a time
+     * (each order is validated as soon as it arrives, and the drone it will
+     * be shared out to plans the route to its restaurant while the rest of
+     * the orders are still being read), and generate the output files
+     * and the metrics of the run
+     * @param baseURL the validated URL from the command line
+     */
+    public void planFlightPaths(URL baseURL)
+    {
+        planFlightPaths(OrderStream.open(baseURL, dateOfFlightPlan, context.getResponseCache()));
+    }
+
+    /**
+     * generate the flight plans of all the drones for the orders of the
+     * fleet's date, taking them from a stream that is already reading them
+     * (e.g. one opened at startup), and generate the output files and the
+     * metrics of the run
+     * @param orders the stream of orders for the fleet's date
+     */
+    public void planFlightPaths(OrderStream orders)
+    {
+        List<Order> validOrders = new ArrayList<>();
+        List<Order> allOrdersForGivenDate = context.streamOrders(orders, order ->
+        {
+            // the same drone deliverOrders() will share the order out to
+            drones.get(validOrders.size() % drones.size()).prepareForOrder(order);
+            validOrders.add(order);
+        });
+        context.getMetrics().time(PlanningMetrics.Phase.PLAN, () -> deliverOrders(validOrders));
+        writeOutputFiles(allOrdersForGivenDate);
+    }
+
+    // once all the drones have finished, write all output files
+    // (the metrics are written last, so they include the time taken to write the others)
+    // @param allOrdersForGivenDate all the orders for the date (valid or not)
+    private void writeOutputFiles(List<Order> allOrdersForGivenDate)
+    {
+        context.getMetrics().time(PlanningMetrics.Phase.WRITE, () ->
+        {
+            Order.writeOrdersToJson(allOrdersForGivenDate, context);
+            MoveLog.writeMovesToJson(drones.stream().map(Drone::getMoveLog).toList(), dateOfFlightPlan, context);
+            new GeoJSONWriter(context).writePlansToGeoJSON(drones, dateOfFlightPlan);
+        });
+        context.getMetrics().writeMetricsToJson(dateOfFlightPlan, context);
+    }
+
+}
@@ -16,7 +16,7 @@ public record FlightPath (
         Double angle,
         double toLongitude,
         double toLatitude,
-        int  ticksSinceStartOfCalculation
+        long ticksSinceStartOfCalculation
 )
 {
 
@@ -24,10 +24,12 @@ public record FlightPath (
      * this method is used to write the flight path objects
      * for a specific date (inputted in the command line)
      * to a JSON file
+     * @param allFlightPaths the flight path objects to be written
+     * @param context the planning context (giving the output directory)
      */
-    public static void writeFlightPathsToJson(List<FlightPath> allFlightPaths)
+    public static void writeFlightPathsToJson(List<FlightPath> allFlightPaths, PlanningContext context)
     {
-        JsonFileWriter fileWriter = new JsonFileWriter();
+        JsonFileWriter fileWriter = new JsonFileWriter(context);
         fileWriter.writeFlightPathToJSON(allFlightPaths);
     }
 
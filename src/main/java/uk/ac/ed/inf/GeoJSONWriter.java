@@ -1,29 +1,44 @@
 package uk.ac.ed.inf;
 
-import com.mapbox.geojson.Feature;
-import com.mapbox.geojson.FeatureCollection;
-import com.mapbox.geojson.LineString;
-import com.mapbox.geojson.Point;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
  * this class is used to write the GeoJSON files
  * needed as part of the specification
+ * (the coordinates are streamed straight from each drone's move log to
+ * a buffered file, in the same format the Mapbox library wrote)
  */
 public class GeoJSONWriter
 {
+    // the factory for the streaming generators (thread-safe, and shared)
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // the size of the buffer between the generator and the file
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // coordinates are rounded to 7 decimal places (about 1cm), like Mapbox did
+    // (unless they are too large to be rounded through a long)
+    private static final double ROUND_PRECISION = 10000000.0;
+    private static final double MAX_COORDINATE_TO_ROUND = Long.MAX_VALUE / ROUND_PRECISION;
+
+    // the directory path the files are written to
+    private final String outputDirectory;
 
     /**
      * constructor method for the GeoJSON file
      * writer
+     * @param context the planning context (giving the output directory)
      */
-    public GeoJSONWriter()
+    public GeoJSONWriter(PlanningContext context)
     {
-
+        outputDirectory = context.getOutputDirectory();
     }
 
     /**
@@ -35,26 +50,49 @@ public class GeoJSONWriter
      */
     public void writePlanToGeoJSON(Drone drone)
     {
-        // the directory path to the resultfiles folder
-        String path = System.getProperty("user.dir") + "/resultfiles";
-        // get all the necessary information from the drone object
-        List<LngLat> finalCoordinates = drone.getAllMovesMade();
-        String fileDate = drone.getDateOfFlightPlan();
-        try
+        writePlansToGeoJSON(List.of(drone), drone.getDateOfFlightPlan());
+    }
+
+    /**
+     * this method writes the flight plans of several drones
+     * for delivering orders for a given date (from command line)
+     * to a single GeoJSON file (one line feature per drone)
+     * @param drones the drone objects containing the flight plans
+     *               to be written
+     * @param fileDate the date of the flight plans
+     */
+    public void writePlansToGeoJSON(List<Drone> drones, String fileDate)
+    {
+        String fileName = "drone-" + fileDate + ".geojson";
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(new BufferedOutputStream(
+                FileWriteEvent.open(Path.of(outputDirectory, fileName).toString()), BUFFER_SIZE), JsonEncoding.UTF8))
         {
-            // set up all the data for GeoJSON format
-            ArrayList<Point> pointsList = new ArrayList<>();
-            for (LngLat point : finalCoordinates) {
-                pointsList.add(Point.fromLngLat(point.getLng(), point.getLat()));
+            // a feature collection, with one line feature per drone
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+            for (Drone drone : drones)
+            {
+                generator.writeStartObject();
+                generator.writeStringField("type", "Feature");
+                generator.writeObjectFieldStart("geometry");
+                generator.writeStringField("type", "LineString");
+                generator.writeArrayFieldStart("coordinates");
+                // the start position, then the end of each move
+                MoveLog moveLog = drone.getMoveLog();
+                writePoint(generator, moveLog.getFromLongitude(0), moveLog.getFromLatitude(0));
+                for (int move = 0; move < moveLog.size(); move++)
+                {
+                    writePoint(generator, moveLog.getToLongitude(move), moveLog.getToLatitude(move));
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeObjectFieldStart("properties");
+                generator.writeEndObject();
+                generator.writeEndObject();
             }
-            LineString line = LineString.fromLngLats(pointsList);
-            Feature feature = Feature.fromGeometry(line);
-            FeatureCollection collection = FeatureCollection.fromFeature(feature);
-            String fileName = "drone-" + fileDate + ".geojson";
-            // and write it to the appropriate file
-            FileWriter file = new FileWriter(path + "/" + fileName);
-            file.write(collection.toJson());
-            file.close();
+            generator.writeEndArray();
+            generator.writeEndObject();
         }
         catch (IOException e)
         {
@@ -63,4 +101,25 @@ public class GeoJSONWriter
         }
     }
 
+    // writes a point as a [longitude, latitude] array
+    private static void writePoint(JsonGenerator generator, double longitude, double latitude) throws IOException
+    {
+        generator.writeStartArray();
+        generator.writeNumber(trim(longitude));
+        generator.writeNumber(trim(latitude));
+        generator.writeEndArray();
+    }
+
+    // rounds a coordinate to 7 decimal places
+    // @param coordinate the longitude or latitude
+    // @return the rounded coordinate
+    private static double trim(double coordinate)
+    {
+        if (coordinate > MAX_COORDINATE_TO_ROUND || coordinate < -MAX_COORDINATE_TO_ROUND)
+        {
+            return coordinate;
+        }
+        return Math.round(coordinate * ROUND_PRECISION) / ROUND_PRECISION;
+    }
+
 }
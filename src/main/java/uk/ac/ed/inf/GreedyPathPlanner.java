@@ -0,0 +1,144 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * this class implements the original greedy path-finding
+ * algorithm (at every step, the drone takes the direction that
+ * gets it closest to the destination, without entering a no-fly-zone)
+ */
+public class GreedyPathPlanner implements PathPlanner
+{
+    // the default maximum number of moves in a path (a full battery)
+    private static final int DEFAULT_MAX_MOVES = 2000;
+
+    // the maximum number of moves in a path, before giving up
+    private final int maxMoves;
+
+    /**
+     * constructor method for the greedy path planner
+     * (gives up after as many moves as a full battery allows)
+     */
+    public GreedyPathPlanner()
+    {
+        this(DEFAULT_MAX_MOVES);
+    }
+
+    /**
+     * constructor method for the greedy path planner
+     * @param maxMoves the maximum number of moves in a path, before giving up
+     */
+    public GreedyPathPlanner(int maxMoves)
+    {
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * computes the moves needed to get from the start point to the destination,
+     * by always taking the locally closest direction
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @return the list of compass directions to be taken (in order),
+     * or null if the drone gets stuck, or runs out of moves
+     */
+    @Override
+    public List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones)
+    {
+        return planPath(start, destination, noFlyZones, null);
+    }
+
+    /**
+     * computes the path by always taking the direction that gets the
+     * drone closest to the destination, adding the positions expanded,
+     * the edges tested and the moves rejected to the counters of a run
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @param metrics the metrics of the run (can be null)
+     * @return the list of compass directions to be taken (in order),
+     * or null if the drone gets stuck, or runs out of moves
+     */
+    @Override
+    public List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones,
+                                           PlanningMetrics metrics)
+    {
+        PlanningMetrics.Tally tally = new PlanningMetrics.Tally();
+        List<CompassDirection> directionsTaken = findPath(start, destination, noFlyZones, tally);
+        if (metrics != null)
+        {
+            metrics.add(tally);
+        }
+        return directionsTaken;
+    }
+
+    // follows the locally closest direction until the drone is close to the destination
+    // @return the directions taken, or null if every direction is blocked, or the moves run out
+    private List<CompassDirection> findPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones,
+                                            PlanningMetrics.Tally tally)
+    {
+        List<CompassDirection> directionsTaken = new ArrayList<>();
+        LngLat currentPosition = start;
+        // used to keep the drone from getting stuck in an infinite loop
+        CompassDirection getsStuck = null;
+        // if we're not close to the destination
+        while (!currentPosition.closeTo(destination))
+        {
+            // give up once the path is longer than the drone could ever fly
+            if (directionsTaken.size() >= maxMoves)
+            {
+                return null;
+            }
+            // create a list of all angles that are not taking the drone in a no-fly-zone
+            ArrayList<CompassDirection> anglesNotInNoFlyZones = new ArrayList<>();
+            tally.increment(PlanningMetrics.Counter.NODES_EXPANDED);
+            for (CompassDirection direction : CompassDirection.values())
+            {
+                // for each direction, compute a possible next position
+                LngLat nextPosition = currentPosition.nextPosition(direction);
+                // and check if that lands the drone in a no-fly-zone
+                if (!noFlyZones.inNoFlyZone(nextPosition)
+                        && !noFlyZones.lineCutsThroughNoFlyZones(currentPosition.getLng(), currentPosition.getLat(),
+                                nextPosition.getLng(), nextPosition.getLat(), tally))
+                {
+                    // if it doesn't, add it to the list
+                    anglesNotInNoFlyZones.add(direction);
+                }
+                else
+                {
+                    tally.increment(PlanningMetrics.Counter.MOVES_REJECTED);
+                }
+            }
+            // if the list already contains a direction that could get the drone
+            // stuck in an infinite loop, remove it
+            anglesNotInNoFlyZones.remove(getsStuck);
+            // if every direction is blocked, there is no way to go on
+            if (anglesNotInNoFlyZones.isEmpty())
+            {
+                return null;
+            }
+            // set the closest angle to the first element in the list, and compute the closest distance
+            CompassDirection bestAngle = anglesNotInNoFlyZones.get(0);
+            double bestDistance = destination.distanceTo(currentPosition.nextPosition(bestAngle));
+            // check if there is a better direction to take
+            for (CompassDirection direction : anglesNotInNoFlyZones)
+            {
+                double distance = destination.distanceTo(currentPosition.nextPosition(direction));
+                // if there is, update the variables accordingly
+                if (distance < bestDistance)
+                {
+                    bestAngle = direction;
+                    bestDistance = distance;
+                }
+            }
+            // take that best direction
+            directionsTaken.add(bestAngle);
+            currentPosition = currentPosition.nextPosition(bestAngle);
+            // and set the stuck direction to the reverse of the angle taken
+            getsStuck = CompassDirection.values()[(bestAngle.ordinal() + 8) % 16];
+        }
+        return directionsTaken;
+    }
+
+}
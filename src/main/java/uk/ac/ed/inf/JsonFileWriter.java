@@ -1,35 +1,42 @@
 package uk.ac.ed.inf;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
 
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * this class is to be used for writing the JSON files
  * for both deliveries (orders) and the drone's flightpath
+ * (each record is written straight to a buffered file as it is
+ * produced, and the moves are read straight from the drones' move
+ * logs, with the same field names, field order and value formatting
+ * as the json-simple files written before)
  */
 public class JsonFileWriter
 {
-    // the JSON object which will store all the data
-    // to be written to a given JSON file
-    private JSONObject jsonObject;
+    // the factory for the streaming generators (thread-safe, and shared)
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
-    // stores a list of all json objects for orders
-    private List<JSONObject> allOrderJsonObjects = new ArrayList<>();
+    // the size of the buffer between the generator and the file
+    private static final int BUFFER_SIZE = 1 << 16;
 
-    // stores a list of all flight path objects for orders
-    private List<JSONObject> allFlightPathJsonObjects = new ArrayList<>();
+    // the directory path the files are written to
+    private final String outputDirectory;
 
     /**
      * the constructor for this class
+     * @param context the planning context (giving the output directory)
      */
-    public JsonFileWriter()
+    public JsonFileWriter(PlanningContext context)
     {
-        jsonObject = new JSONObject();
+        outputDirectory = context.getOutputDirectory();
     }
 
     /**
@@ -39,20 +46,32 @@ public class JsonFileWriter
      */
     public void writeOrderToJSON(List<Order> orders)
     {
-        String filename = "";
-        for (Order order: orders)
-        {
-            // add all the necessary information to the JSON object
-            jsonObject.put("orderNo", order.getOrderNumber());
-            jsonObject.put("outcome", order.getOutcome().name());
-            jsonObject.put("costInPence", order.getOrderDeliveryCost());
-            // add the object to the list of order objects, and reset it
-            allOrderJsonObjects.add(jsonObject);
-            jsonObject = new JSONObject();
-            // set up the file name in appropriate format and write file
-            filename = "deliveries-" + order.getOrderDate() + ".json";
-        }
-        writeJSONFile(filename, allOrderJsonObjects);
+        if (orders.isEmpty())
+        {
+            return;
+        }
+        // set up the file name in appropriate format and write file
+        String filename = "deliveries-" + orders.get(orders.size() - 1).getOrderDate() + ".json";
+        try (JsonGenerator generator = openFile(filename))
+        {
+            generator.writeStartArray();
+            for (Order order: orders)
+            {
+                // write all the necessary information for the order
+                // (in the order json-simple wrote the fields in)
+                generator.writeStartObject();
+                writeString(generator, "orderNo", order.getOrderNumber());
+                generator.writeNumberField("costInPence", order.getOrderDeliveryCost());
+                writeString(generator, "outcome", order.getOutcome().name());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        catch (IOException e)
+        {
+            // Auto-generated catch block
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -62,54 +81,118 @@ public class JsonFileWriter
      */
     public void writeFlightPathToJSON(List<FlightPath> flightPaths)
     {
-        String filename = "";
-        for (FlightPath flightPath: flightPaths)
-        {
-            // add all the necessary information to the JSON object
-            jsonObject.put("orderNo", flightPath.orderNo());
-            jsonObject.put("orderDate", flightPath.orderDate());
-            jsonObject.put("fromLongitude", flightPath.fromLongitude());
-            jsonObject.put("fromLatitude", flightPath.fromLatitude());
-            // check if the angle is null
-            if (flightPath.angle() == null)
-            {
-                jsonObject.put("angle", Double.NaN);
-            }
-            else
+        if (flightPaths.isEmpty())
+        {
+            return;
+        }
+        // set up the file name in appropriate format and write file
+        String filename = "flightpath-" + flightPaths.get(flightPaths.size() - 1).orderDate() + ".json";
+        try (JsonGenerator generator = openFile(filename))
+        {
+            generator.writeStartArray();
+            for (FlightPath flightPath: flightPaths)
             {
-                jsonObject.put("angle", flightPath.angle());
+                // a hover has no angle, which is written as null
+                writeMove(generator, flightPath.ticksSinceStartOfCalculation(), flightPath.orderNo(),
+                        flightPath.fromLongitude(), flightPath.fromLatitude(),
+                        (flightPath.angle() == null) ? Double.NaN : flightPath.angle(),
+                        flightPath.orderDate(), flightPath.toLatitude(), flightPath.toLongitude());
             }
-            jsonObject.put("toLongitude", flightPath.toLongitude());
-            jsonObject.put("toLatitude", flightPath.toLatitude());
-            jsonObject.put("ticksSinceStartOfCalculation", flightPath.ticksSinceStartOfCalculation());
-            // add the object to the list of flight path objects, and reset it
-            allFlightPathJsonObjects.add(jsonObject);
-            jsonObject = new JSONObject();
-            // set up the file name in appropriate format and write file
-            filename = "flightpath-" + flightPath.orderDate() + ".json";
-        }
-        writeJSONFile(filename, allFlightPathJsonObjects);
+            generator.writeEndArray();
+        }
+        catch (IOException e)
+        {
+            // Auto-generated catch block
+            e.printStackTrace();
+        }
     }
 
-    // this method handles the actual file writing,
-    // once all the JSON data is set up
-    // @param filename the name of the file to be written
-    // @param allJsonObjects
-    private void writeJSONFile(String filename, List<JSONObject> allJsonObjects)
+    /**
+     * this method writes the moves of one or more drones straight from
+     * their move logs (one after the other) to the appropriate JSON file,
+     * in the same format as the flight path objects
+     * @param moveLogs the move logs to be written
+     * @param orderDate the date of the flight plan
+     */
+    public void writeMovesToJSON(List<MoveLog> moveLogs, String orderDate)
     {
-        // the directory path to the resultfiles folder
-        String path = System.getProperty("user.dir") + "/resultfiles";
-        JSONArray objects = new JSONArray();
-        for (JSONObject object: allJsonObjects)
+        if (moveLogs.stream().allMatch(moveLog -> moveLog.size() == 0))
         {
-            objects.add(object);
+            return;
         }
-        try
+        // set up the file name in appropriate format and write file
+        String filename = "flightpath-" + orderDate + ".json";
+        try (JsonGenerator generator = openFile(filename))
         {
-            // write the JSON object (and all data it stores) to given file
-            FileWriter file = new FileWriter(path + "/" + filename);
-            file.write(objects.toJSONString());
-            file.close();
+            generator.writeStartArray();
+            for (MoveLog moveLog: moveLogs)
+            {
+                for (int move = 0; move < moveLog.size(); move++)
+                {
+                    writeMove(generator, moveLog.getTicks(move), moveLog.getOrderNumber(move),
+                            moveLog.getFromLongitude(move), moveLog.getFromLatitude(move), moveLog.getAngle(move),
+                            orderDate, moveLog.getToLatitude(move), moveLog.getToLongitude(move));
+                }
+            }
+            generator.writeEndArray();
+        }
+        catch (IOException e)
+        {
+            // Auto-generated catch block
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * this method writes the metrics of a planning run to the appropriate
+     * JSON file (the wall time of each phase and every counter, in
+     * nanoseconds and counts, and the histogram of the order planning
+     * times, with only its non-empty buckets)
+     * @param metrics the metrics of the run
+     * @param orderDate the date of the flight plan
+     */
+    public void writeMetricsToJSON(PlanningMetrics metrics, String orderDate)
+    {
+        // set up the file name in appropriate format and write file
+        String filename = "metrics-" + orderDate + ".json";
+        try (JsonGenerator generator = openFile(filename))
+        {
+            generator.writeStartObject();
+            writeString(generator, "orderDate", orderDate);
+            generator.writeObjectFieldStart("phaseNanos");
+            for (PlanningMetrics.Phase phase : PlanningMetrics.Phase.values())
+            {
+                generator.writeNumberField(phase.getJsonName(), metrics.getPhaseNanos(phase));
+            }
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("counters");
+            for (PlanningMetrics.Counter counter : PlanningMetrics.Counter.values())
+            {
+                generator.writeNumberField(counter.getJsonName(), metrics.getCount(counter));
+            }
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("orderPlanningNanos");
+            generator.writeNumberField("count", metrics.getOrdersPlanned());
+            generator.writeNumberField("total", metrics.getOrderPlanningTotalNanos());
+            generator.writeNumberField("max", metrics.getOrderPlanningMaxNanos());
+            generator.writeNumberField("p50", metrics.getOrderPlanningPercentileNanos(50));
+            generator.writeNumberField("p90", metrics.getOrderPlanningPercentileNanos(90));
+            generator.writeNumberField("p99", metrics.getOrderPlanningPercentileNanos(99));
+            generator.writeArrayFieldStart("buckets");
+            for (int bucket = 0; bucket < PlanningMetrics.BUCKETS; bucket++)
+            {
+                long count = metrics.getOrderPlanningBucket(bucket);
+                if (count > 0)
+                {
+                    generator.writeStartObject();
+                    generator.writeNumberField("upTo", PlanningMetrics.bucketUpperBound(bucket));
+                    generator.writeNumberField("count", count);
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
         }
         catch (IOException e)
         {
@@ -118,4 +201,112 @@ public class JsonFileWriter
         }
     }
 
+    // writes all the necessary information for one move
+    // (in the order json-simple wrote the fields in, with a NaN angle for a hover)
+    private static void writeMove(JsonGenerator generator, long ticks, String orderNo,
+                                  double fromLongitude, double fromLatitude, double angle,
+                                  String orderDate, double toLatitude, double toLongitude) throws IOException
+    {
+        generator.writeStartObject();
+        generator.writeNumberField("ticksSinceStartOfCalculation", ticks);
+        writeString(generator, "orderNo", orderNo);
+        writeDouble(generator, "fromLongitude", fromLongitude);
+        writeDouble(generator, "fromLatitude", fromLatitude);
+        writeDouble(generator, "angle", angle);
+        writeString(generator, "orderDate", orderDate);
+        writeDouble(generator, "toLatitude", toLatitude);
+        writeDouble(generator, "toLongitude", toLongitude);
+        generator.writeEndObject();
+    }
+
+    // opens a generator writing to a buffered file in the output directory
+    // (a file write event is recorded when the generator is closed)
+    // @param filename the name of the file to be written
+    // @return the generator (escaping strings the way json-simple did)
+    private JsonGenerator openFile(String filename) throws IOException
+    {
+        JsonGenerator generator = JSON_FACTORY.createGenerator(new BufferedOutputStream(
+                FileWriteEvent.open(outputDirectory + "/" + filename), BUFFER_SIZE), JsonEncoding.UTF8);
+        generator.setCharacterEscapes(JsonSimpleEscapes.INSTANCE);
+        return generator;
+    }
+
+    // writes a string field (json-simple wrote a missing string as null)
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException
+    {
+        if (value == null)
+        {
+            generator.writeNullField(name);
+        }
+        else
+        {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    // writes a number field (json-simple wrote NaN and infinite values as null)
+    private static void writeDouble(JsonGenerator generator, String name, double value) throws IOException
+    {
+        if (Double.isNaN(value) || Double.isInfinite(value))
+        {
+            generator.writeNullField(name);
+        }
+        else
+        {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    // escapes the characters of strings exactly like json-simple did
+    // (including "/", and a few ranges of non-ASCII characters)
+    private static final class JsonSimpleEscapes extends CharacterEscapes
+    {
+        private static final long serialVersionUID = 1L;
+
+        private static final JsonSimpleEscapes INSTANCE = new JsonSimpleEscapes();
+
+        private final int[] asciiEscapes = new int[128];
+
+        private JsonSimpleEscapes()
+        {
+            for (int ch = 0; ch < 0x20; ch++)
+            {
+                asciiEscapes[ch] = ESCAPE_CUSTOM;
+            }
+            asciiEscapes['"'] = ESCAPE_CUSTOM;
+            asciiEscapes['\\'] = ESCAPE_CUSTOM;
+            asciiEscapes['/'] = ESCAPE_CUSTOM;
+            asciiEscapes[0x7F] = ESCAPE_CUSTOM;
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii()
+        {
+            return asciiEscapes;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(int ch)
+        {
+            switch (ch)
+            {
+                case '"': return new SerializedString("\\\"");
+                case '\\': return new SerializedString("\\\\");
+                case '/': return new SerializedString("\\/");
+                case '\b': return new SerializedString("\\b");
+                case '\f': return new SerializedString("\\f");
+                case '\n': return new SerializedString("\\n");
+                case '\r': return new SerializedString("\\r");
+                case '\t': return new SerializedString("\\t");
+                default:
+                    if (ch <= 0x1F || (ch >= 0x7F && ch <= 0x9F) || (ch >= 0x2000 && ch <= 0x20FF))
+                    {
+                        String hex = Integer.toHexString(ch).toUpperCase();
+                        return new SerializedString("\\u" + "0000".substring(hex.length()) + hex);
+                    }
+                    return null;
+            }
+        }
+    }
+
 }
@@ -3,9 +3,6 @@ package uk.ac.ed.inf;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.awt.geom.Line2D;
-import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,15 +19,31 @@ public class LngLat
 
     // this constant stores the maximum acceptable distance
     // for a location to be considered close to another location
-    private static final double ACCEPTABLE_DISTANCE = 0.00015;
+    static final double ACCEPTABLE_DISTANCE = 0.00015;
 
     // this constant store the length of a drone move (in degrees)
-    private static final double DRONE_MOVE_LENGTH = 0.00015;
+    static final double DRONE_MOVE_LENGTH = 0.00015;
 
-    // this field is used to store the validated URL from command line
-    // (used when creating a CentralArea singleton instance, integrates the
-    // command line input with that class)
-    private static URL BASE_URL;
+    // this constant stores how far (in degrees) a location can be from
+    // an edge of a polygon and still be treated as lying on that edge
+    static final double ON_EDGE_TOLERANCE = 1e-12;
+
+    // these tables store the change in longitude and latitude for a single
+    // move in each compass direction (indexed by the ordinal of the direction),
+    // so that the trigonometry is only computed once
+    private static final double[] LNG_OFFSETS = new double[CompassDirection.values().length];
+    private static final double[] LAT_OFFSETS = new double[CompassDirection.values().length];
+
+    static
+    {
+        for (CompassDirection direction : CompassDirection.values())
+        {
+            // converts the compass direction to an angle (in degrees)
+            double angle = direction.ordinal() * 22.5;
+            LNG_OFFSETS[direction.ordinal()] = DRONE_MOVE_LENGTH * Math.cos(Math.toRadians(angle));
+            LAT_OFFSETS[direction.ordinal()] = DRONE_MOVE_LENGTH * Math.sin(Math.toRadians(angle));
+        }
+    }
 
     // =========================================================================
     // ============================= CONSTRUCTOR ===============================
@@ -75,72 +88,70 @@ public class LngLat
         return lat;
     }
 
-    // =========================================================================
-    // ================================ SETTERS ================================
-    // =========================================================================
-
-    /**
-     * setter method for the baseURL field
-     * (used to read the co-ordinates of the central area
-     * from the validated URL inputted in the command line)
-     * @param baseUrl the validated URL inputted in the command line
-     */
-    public static void setBaseUrl(URL baseUrl)
-    {
-        BASE_URL = baseUrl;
-    }
-
     // =========================================================================
     // ========================== OTHER CLASS METHODS ==========================
     // =========================================================================
 
     // checks if the current location is within a given polygon area
-    // Note: the implementation below is partly based on the following post
-    // <a href = "https://stackoverflow.com/questions/8721406/how-to-determine-if-a-point-is-inside-a-2d-convex-polygon">link</a>
     // @param corners a list of the vertices of the polygon
     // @return true if the current location is inside the polygon or on the edges, false otherwise
-    private boolean inArea(List<LngLat> corners)
+    boolean inArea(List<LngLat> corners)
     {
+        double[] cornerLngs = new double[corners.size()];
+        double[] cornerLats = new double[corners.size()];
+        for (int i = 0; i < corners.size(); i++)
+        {
+            cornerLngs[i] = corners.get(i).lng;
+            cornerLats[i] = corners.get(i).lat;
+        }
+        return inArea(lng, lat, cornerLngs, cornerLats);
+    }
+
+    /**
+     * checks if a location is within a given polygon area, with the vertices
+     * of the polygon stored as separate arrays of longitudes and latitudes
+     * Note: the implementation below is partly based on the following post
+     * <a href = "https://stackoverflow.com/questions/8721406/how-to-determine-if-a-point-is-inside-a-2d-convex-polygon">link</a>
+     * @param lng the longitude of the location
+     * @param lat the latitude of the location
+     * @param cornerLngs the longitudes of the vertices of the polygon
+     * @param cornerLats the latitudes of the vertices of the polygon
+     * @return true if the location is inside the polygon or on the edges, false otherwise
+     */
+    public static boolean inArea(double lng, double lat, double[] cornerLngs, double[] cornerLats)
+    {
+        int corners = cornerLngs.length;
+        if (corners == 0)
+        {
+            return false;
+        }
         // this part handles exact corners
         // (treats them as being inside the central area)
-        for (LngLat corner: corners)
+        for (int i = 0; i < corners; i++)
         {
-            if ( (this.lng == corner.lng) && (this.lat == corner.lat) )
+            if ( (lng == cornerLngs[i]) && (lat == cornerLats[i]) )
             {
                 return true;
             }
         }
         // this part handles points on the edges
         // (treats them as being inside the central area)
-        int i = 0;
-        int j = 1;
-        while (i < corners.size())
+        for (int i = 0, j = corners - 1; i < corners; j = i++)
         {
-            LngLat corner1 = corners.get(i);
-            LngLat corner2 = corners.get(j);
-            // by definition of a straight line, if the distance from each end of the line
-            // to the point adds up to the total length of the line, then the point is on the line
-            if (this.distanceTo(corner1) + this.distanceTo(corner2) == corner1.distanceTo(corner2))
+            if (onSegment(lng, lat, cornerLngs[j], cornerLats[j], cornerLngs[i], cornerLats[i]))
             {
                 return true;
             }
-            i++;
-            j++;
-            // to check the last edge, we reset j (edge between last vertex and first vertex)
-            if (j == corners.size())
-            {
-                j = 0;
-            }
         }
         // this part handles checking if a given point is inside the central area
         // (excluding edges, treats the central area like a polygon shape of any kind)
         int a, b;
         boolean isInsideArea = false;
-        for (a = 0, b = corners.size() - 1; a < corners.size(); b = a++)
+        for (a = 0, b = corners - 1; a < corners; b = a++)
         {
-            if ((corners.get(a).lat > this.lat) != (corners.get(b).lat > this.lat)
-                    && (this.lng < (corners.get(b).lng - corners.get(a).lng) * (this.lat - corners.get(a).lat) /
-                    (corners.get(b).lat - corners.get(a).lat) + corners.get(a).lng))
+            if ((cornerLats[a] > lat) != (cornerLats[b] > lat)
+                    && (lng < (cornerLngs[b] - cornerLngs[a]) * (lat - cornerLats[a]) /
+                    (cornerLats[b] - cornerLats[a]) + cornerLngs[a]))
             {
                 isInsideArea = !isInsideArea;
             }
@@ -148,16 +159,105 @@ public class LngLat
         return isInsideArea;
     }
 
+    /**
+     * checks if a location is within a given polygon area, rejecting it straight
+     * away if it is outside the bounding box of the polygon (so that locations
+     * far away from the polygon never look at its vertices)
+     * @param lng the longitude of the location
+     * @param lat the latitude of the location
+     * @param cornerLngs the longitudes of the vertices of the polygon
+     * @param cornerLats the latitudes of the vertices of the polygon
+     * @param bounds the precomputed bounding box of the polygon
+     * @return true if the location is inside the polygon or on the edges, false otherwise
+     */
+    public static boolean inArea(double lng, double lat, double[] cornerLngs, double[] cornerLats,
+                                 BoundingBox bounds)
+    {
+        return bounds.contains(lng, lat) && inArea(lng, lat, cornerLngs, cornerLats);
+    }
+
+    // checks if a location lies on the segment (x1, y1) -> (x2, y2), i.e. it is within the
+    // bounding box of the segment and its distance from the line is below ON_EDGE_TOLERANCE
+    // (using the cross product, which is that distance times the length of the segment)
+    // @return true if the location is on the segment, false otherwise
+    private static boolean onSegment(double lng, double lat, double x1, double y1, double x2, double y2)
+    {
+        if (lng < Math.min(x1, x2) || lng > Math.max(x1, x2) || lat < Math.min(y1, y2) || lat > Math.max(y1, y2))
+        {
+            return false;
+        }
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double cross = dx * (lat - y1) - dy * (lng - x1);
+        return cross * cross <= ON_EDGE_TOLERANCE * ON_EDGE_TOLERANCE * (dx * dx + dy * dy);
+    }
+
+    /**
+     * checks if two line segments intersect (touching, or overlapping
+     * when on the same line, counts as intersecting), without creating any objects
+     * @param x1 the longitude of the start of the first segment
+     * @param y1 the latitude of the start of the first segment
+     * @param x2 the longitude of the end of the first segment
+     * @param y2 the latitude of the end of the first segment
+     * @param x3 the longitude of the start of the second segment
+     * @param y3 the latitude of the start of the second segment
+     * @param x4 the longitude of the end of the second segment
+     * @param y4 the latitude of the end of the second segment
+     * @return true if the two segments intersect, false otherwise
+     */
+    public static boolean segmentsIntersect(double x1, double y1, double x2, double y2,
+                                            double x3, double y3, double x4, double y4)
+    {
+        // the segments intersect if the ends of each one are not strictly
+        // on the same side of the other one
+        return side(x1, y1, x2, y2, x3, y3) * side(x1, y1, x2, y2, x4, y4) <= 0
+                && side(x3, y3, x4, y4, x1, y1) * side(x3, y3, x4, y4, x2, y2) <= 0;
+    }
+
+    // computes which side of the segment (x1, y1) -> (x2, y2) a point is on
+    // @return 1 or -1 for either side (or for a point on the same line, but beyond
+    // either end of the segment), 0 for a point on the segment itself
+    private static int side(double x1, double y1, double x2, double y2, double px, double py)
+    {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double qx = px - x1;
+        double qy = py - y1;
+        double cross = qx * dy - qy * dx;
+        if (cross == 0.0)
+        {
+            // the point is on the same line, so check if it is before the start,
+            // after the end, or between the two ends of the segment
+            cross = qx * dx + qy * dy;
+            if (cross > 0.0)
+            {
+                cross = (qx - dx) * dx + (qy - dy) * dy;
+                if (cross < 0.0)
+                {
+                    cross = 0.0;
+                }
+            }
+        }
+        return (cross < 0.0) ? -1 : ((cross > 0.0) ? 1 : 0);
+    }
+
     /**
      * computes the Pythagorean distance between the current location and a given location
      * @param location a given location (using the (longitude, latitude) format)
      * @return the Pythagorean distance between the two locations, as a double
      */
     public double distanceTo(LngLat location)
+    {
+        return distance(this.lng, this.lat, location.lng, location.lat);
+    }
+
+    // computes the Pythagorean distance between two locations
+    // @return the distance between (lng1, lat1) and (lng2, lat2)
+    private static double distance(double lng1, double lat1, double lng2, double lat2)
     {
         return Math.sqrt(
-                Math.pow( (this.lng - location.lng) , 2) +
-                        Math.pow( (this.lat - location.lat) , 2));
+                Math.pow( (lng1 - lng2) , 2) +
+                        Math.pow( (lat1 - lat2) , 2));
     }
 
     /**
@@ -186,74 +286,69 @@ public class LngLat
         {
             return this;
         }
-        // converts the compass direction to an angle (in degrees)
-        double angle = position.ordinal() * 22.5;
-        double lng = this.lng + DRONE_MOVE_LENGTH * Math.cos(Math.toRadians(angle));
-        double lat = this.lat + DRONE_MOVE_LENGTH * Math.sin(Math.toRadians(angle));
-        return new LngLat(lng, lat);
+        return new LngLat(this.lng + LNG_OFFSETS[position.ordinal()],
+                this.lat + LAT_OFFSETS[position.ordinal()]);
+    }
+
+    /**
+     * computes the longitude reached after a move in the given compass direction
+     * (same as nextPosition, but without creating a new LngLat object)
+     * @param lng the longitude before the move
+     * @param direction the compass direction of the move (null if hovering)
+     * @return the longitude after the move
+     */
+    public static double nextLng(double lng, CompassDirection direction)
+    {
+        return (direction == null) ? lng : lng + LNG_OFFSETS[direction.ordinal()];
+    }
+
+    /**
+     * computes the latitude reached after a move in the given compass direction
+     * (same as nextPosition, but without creating a new LngLat object)
+     * @param lat the latitude before the move
+     * @param direction the compass direction of the move (null if hovering)
+     * @return the latitude after the move
+     */
+    public static double nextLat(double lat, CompassDirection direction)
+    {
+        return (direction == null) ? lat : lat + LAT_OFFSETS[direction.ordinal()];
     }
 
     /**
      * checks if the current location is within the central campus area
-     * based on information from the REST server
+     * of the given planning context
+     * @param context the planning context holding the central area
      * @return true if the point is inside the central campus area,
      * false otherwise
      */
-    public boolean inCentralArea()
+    public boolean inCentralArea(PlanningContext context)
     {
-        // get the central area from the singleton class
-        List<LngLat> corners = CentralArea.getInstance(BASE_URL).getCentralArea();
-        return inArea(corners);
+        return context.getCentralArea().contains(lng, lat);
     }
 
     /**
      * checks if the current location is within any of the no-fly-zones
-     * based on information from the REST server
+     * of the given planning context
+     * @param context the planning context holding the no-fly-zones
      * @return true if the current location is in a no-fly-zone, false otherwise
      */
-    public boolean inNoFlyZone()
+    public boolean inNoFlyZone(PlanningContext context)
     {
-        // get all the existing no-fly-zones
-        List<NoFlyZone> existingNoFlyZones = NoFlyZone.allNoFlyZones;
-        for (NoFlyZone noFlyZone: existingNoFlyZones)
-        {
-            // for each one, check to see if the current location is inside
-            // that no-fly-zone
-            List<LngLat> noFlyZoneCorners = noFlyZone.getNoFlyZoneEdges();
-            if (inArea(noFlyZoneCorners))
-            {
-                return true;
-            }
-        }
-        return false;
+        // only the no-fly-zones near the current location are checked
+        return context.getNoFlyZoneIndex().inNoFlyZone(this);
     }
 
     /**
      * check if a line between two points cuts through any of the
-     * no-fly-zones obtained from the inputted URL
+     * no-fly-zones of the given planning context
      * @param newPosition the new point being considered as a future move
+     * @param context the planning context holding the no-fly-zones
      * @return true if the line cuts through a no-fly-zone, false otherwise
      */
-    public boolean lineCutsThroughNoFlyZones(LngLat newPosition) {
-        // create a line between the current point and the new point
-        Line2D line = new Line2D.Double(lng, lat, newPosition.getLng(), newPosition.getLat());
-        for (NoFlyZone noFlyZone: NoFlyZone.allNoFlyZones)
-        {
-            // for each no-fly-zone, get the co-ordinates of the edges
-            ArrayList<ArrayList<Double>> noFlyZoneCoords = noFlyZone.getNoFlyZoneEdgesAsDoubles();
-            for (int i = 0, j = noFlyZoneCoords.size()-1; i < noFlyZoneCoords.size(); j = i++)
-            {
-                // for each pair of co-ordinates, generate a line
-                Line2D noFlyZoneLine = new Line2D.Double(noFlyZoneCoords.get(i).get(0),noFlyZoneCoords.get(i).get(1),
-                        noFlyZoneCoords.get(j).get(0), noFlyZoneCoords.get(j).get(1));
-                // and check if the two lines intersect
-                if (line.intersectsLine(noFlyZoneLine))
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public boolean lineCutsThroughNoFlyZones(LngLat newPosition, PlanningContext context)
+    {
+        // only the no-fly-zone edges near the line are checked
+        return context.getNoFlyZoneIndex().lineCutsThroughNoFlyZones(this, newPosition);
     }
 
 }
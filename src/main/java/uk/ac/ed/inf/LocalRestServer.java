@@ -0,0 +1,339 @@
+package uk.ac.ed.inf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * this class is an embedded stand-in for the REST server, serving
+ * "/restaurants", "/noFlyZones", "/centralArea" and "/orders/{date}"
+ * on localhost, either from a folder laid out like the server (e.g. the
+ * benchmark fixtures, or a folder written by the WorkloadGenerator) or
+ * straight from a WorkloadGenerator
+ * each response can be slowed down by a fixed latency (before the first
+ * byte is sent) and a limit on the bytes sent per second, so the fetch
+ * paths can be timed without the network, and tested under controlled slowness
+ */
+public class LocalRestServer implements AutoCloseable
+{
+    // the start of the orders endpoint (which is followed by the date)
+    private static final String ORDERS_ENDPOINT = "/orders/";
+
+    // the largest number of bytes sent at once when the throughput is limited
+    private static final int CHUNK_SIZE = 1 << 12;
+
+    // finds the body of an endpoint (or null if there is nothing there)
+    @FunctionalInterface
+    private interface Source
+    {
+        Body find(String path);
+    }
+
+    // writes the body of a response
+    @FunctionalInterface
+    private interface Body
+    {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // the bodies of the responses
+    private final Source source;
+
+    // the delay before each response, and the bytes per second (0 for no limit)
+    private final Duration latency;
+    private final long bytesPerSecond;
+
+    // the underlying server, and the threads requests are handled on
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // the number of requests handled so far
+    private final AtomicLong requests = new AtomicLong();
+
+    // the number of requests being handled right now, and the most there has been at once
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+    private final AtomicInteger maxRequestsInFlight = new AtomicInteger();
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for a server serving the files of a folder
+     * laid out like the REST server (the server is started straight away)
+     * @param directory the folder with the restaurants, noFlyZones,
+     *                  centralArea and orders/{date} files
+     * @param port the port to listen on (0 for any free port)
+     * @param latency the delay before each response is sent
+     * @param bytesPerSecond the most bytes sent per second (0 for no limit)
+     * @throws IOException if the server could not be started
+     */
+    public LocalRestServer(Path directory, int port, Duration latency, long bytesPerSecond) throws IOException
+    {
+        this(path ->
+        {
+            Path root = directory.toAbsolutePath().normalize();
+            Path file = root.resolve(path.substring(1)).normalize();
+            if (!file.startsWith(root) || !Files.isRegularFile(file))
+            {
+                return null;
+            }
+            return out -> Files.copy(file, out);
+        }, port, latency, bytesPerSecond);
+    }
+
+    /**
+     * constructor method for a server generating every response
+     * (the orders of any date are generated when they are asked for,
+     * and the server is started straight away)
+     * @param generator the generator of the data served
+     * @param port the port to listen on (0 for any free port)
+     * @param latency the delay before each response is sent
+     * @param bytesPerSecond the most bytes sent per second (0 for no limit)
+     * @throws IOException if the server could not be started
+     */
+    public LocalRestServer(WorkloadGenerator generator, int port, Duration latency, long bytesPerSecond)
+            throws IOException
+    {
+        this(path -> switch (path)
+        {
+            case "/restaurants" -> generator::writeRestaurants;
+            case "/noFlyZones" -> generator::writeNoFlyZones;
+            case "/centralArea" -> generator::writeCentralArea;
+            default -> out -> generator.writeOrders(path.substring(ORDERS_ENDPOINT.length()), out);
+        }, port, latency, bytesPerSecond);
+    }
+
+    private LocalRestServer(Source source, int port, Duration latency, long bytesPerSecond) throws IOException
+    {
+        if (latency.isNegative() || bytesPerSecond < 0)
+        {
+            throw new IllegalArgumentException("The latency and the throughput limit cannot be negative");
+        }
+        this.source = source;
+        this.latency = latency;
+        this.bytesPerSecond = bytesPerSecond;
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        // requests are handled at the same time, like the REST server would
+        executor = Executors.newCachedThreadPool(runnable ->
+        {
+            Thread thread = new Thread(runnable, "local-rest-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the URL of the server
+     * @return the URL to use in place of the REST server's
+     */
+    public URL getBaseURL()
+    {
+        try
+        {
+            return new URL("http://localhost:" + server.getAddress().getPort());
+        }
+        catch (MalformedURLException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * getter method for the number of requests handled so far
+     * @return the number of requests (including the ones for missing data)
+     */
+    public long getRequestCount()
+    {
+        return requests.get();
+    }
+
+    /**
+     * getter method for the most requests handled at the same time so far
+     * @return the most requests there have been in flight at once
+     */
+    public int getMaxConcurrentRequests()
+    {
+        return maxRequestsInFlight.get();
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    // answers one request, after the latency, sending the body at the limited throughput
+    // (anything that is not a GET of an existing endpoint gets a 404)
+    // @param exchange the request, and its response
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        requests.incrementAndGet();
+        maxRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet(), Math::max);
+        try (exchange)
+        {
+            String path = exchange.getRequestURI().getPath();
+            if (!"GET".equals(exchange.getRequestMethod()) || !isEndpoint(path))
+            {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            Body body = source.find(path);
+            if (body == null)
+            {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            Thread.sleep(latency.toMillis());
+            // the body is streamed (chunked), so large responses are never held in memory
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = (bytesPerSecond == 0) ? exchange.getResponseBody()
+                    : new ThrottledOutputStream(exchange.getResponseBody(), bytesPerSecond))
+            {
+                body.writeTo(out);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            requestsInFlight.decrementAndGet();
+        }
+    }
+
+    // checks a path is one of the endpoints (with a valid date for the orders)
+    private static boolean isEndpoint(String path)
+    {
+        if (!path.startsWith(ORDERS_ENDPOINT))
+        {
+            return path.equals("/restaurants") || path.equals("/noFlyZones") || path.equals("/centralArea");
+        }
+        try
+        {
+            LocalDate.parse(path.substring(ORDERS_ENDPOINT.length()));
+            return true;
+        }
+        catch (DateTimeParseException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * stops the server (waiting for no request to finish)
+     */
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // an output stream sending at most a given number of bytes per second
+    // (in small chunks, sleeping whenever it gets ahead of the limit)
+    private static final class ThrottledOutputStream extends FilterOutputStream
+    {
+        private final long bytesPerSecond;
+        private final long startTime = System.nanoTime();
+        private long bytesWritten;
+
+        private ThrottledOutputStream(OutputStream out, long bytesPerSecond)
+        {
+            super(out);
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException
+        {
+            while (length > 0)
+            {
+                int chunk = Math.min(length, CHUNK_SIZE);
+                out.write(bytes, offset, chunk);
+                bytesWritten += chunk;
+                offset += chunk;
+                length -= chunk;
+                long aheadNanos = bytesWritten * 1_000_000_000L / bytesPerSecond - (System.nanoTime() - startTime);
+                if (aheadNanos > 0)
+                {
+                    try
+                    {
+                        Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while throttling the response");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * starts a server from the command line, serving a folder laid out like
+     * the REST server (e.g. one written by the WorkloadGenerator), until the
+     * process is stopped
+     * @param args the folder, then optionally the port (by default 8080),
+     *             the latency in milliseconds, and the most bytes sent per second
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 1 || args.length > 4)
+        {
+            System.err.println("Usage: LocalRestServer <folder> [port] [latencyMillis] [bytesPerSecond]");
+            System.exit(1);
+        }
+        try
+        {
+            int port = (args.length > 1) ? Integer.parseInt(args[1]) : 8080;
+            Duration latency = Duration.ofMillis((args.length > 2) ? Long.parseLong(args[2]) : 0);
+            long bytesPerSecond = (args.length > 3) ? Long.parseLong(args[3]) : 0;
+            LocalRestServer server = new LocalRestServer(Path.of(args[0]).toAbsolutePath(), port, latency,
+                    bytesPerSecond);
+            System.out.println("Serving " + args[0] + " at " + server.getBaseURL());
+            // the request threads are daemons, so keep the process running
+            Thread.currentThread().join();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            System.err.println("The server could not be started: " + e.getMessage());
+            System.exit(1);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * this class is used to look up which restaurants sell a given pizza
+ * (and at what price), so that validating an order only takes one
+ * lookup per order item, instead of a scan of every restaurant's menu
+ */
+public class MenuIndex
+{
+    /**
+     * a pizza on the menu of a restaurant
+     * @param restaurant the restaurant selling the pizza
+     * @param priceInPence the price of the pizza at that restaurant, in pence
+     */
+    public record MenuEntry(Restaurant restaurant, int priceInPence) {}
+
+    // the restaurants selling each pizza, in the same order as the restaurants were given
+    private final Map<String, List<MenuEntry>> suppliers;
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the menu index
+     * @param restaurants the restaurants available on the PizzaDronz app
+     */
+    public MenuIndex(Restaurant[] restaurants)
+    {
+        Map<String, List<MenuEntry>> entries = new HashMap<>();
+        for (Restaurant restaurant : restaurants)
+        {
+            for (Menu item : restaurant.getMenuItems())
+            {
+                entries.computeIfAbsent(item.name(), name -> new ArrayList<>())
+                        .add(new MenuEntry(restaurant, item.priceInPence()));
+            }
+        }
+        Map<String, List<MenuEntry>> immutableEntries = new HashMap<>();
+        entries.forEach((name, list) -> immutableEntries.put(name, List.copyOf(list)));
+        suppliers = Map.copyOf(immutableEntries);
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the restaurants selling a given pizza
+     * @param pizzaName the name of the pizza
+     * @return the (unmodifiable) list of restaurants selling it, with their
+     * prices (empty if the pizza is not on any menu)
+     */
+    public List<MenuEntry> getSuppliers(String pizzaName)
+    {
+        List<MenuEntry> entries = suppliers.get(pizzaName);
+        return (entries == null) ? List.of() : entries;
+    }
+
+    /**
+     * getter method for the price of a pizza at a given restaurant
+     * @param pizzaName the name of the pizza
+     * @param restaurant the restaurant
+     * @return the price of the pizza at the restaurant, in pence,
+     * or -1 if the restaurant does not sell it
+     */
+    public int getPrice(String pizzaName, Restaurant restaurant)
+    {
+        for (MenuEntry entry : getSuppliers(pizzaName))
+        {
+            if (entry.restaurant() == restaurant)
+            {
+                return entry.priceInPence();
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,243 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * this class is used to store every move made by a drone in a compact,
+ * columnar form (one growable primitive array per field, instead of
+ * an LngLat and a FlightPath object per move), so that the flight paths
+ * of a fleet, or of several days, take about 30 bytes per move
+ * (each move only stores where it ends, since it starts where
+ * the previous move ended, or at the start position for the first move)
+ */
+public class MoveLog
+{
+    /**
+     * the direction stored for a hover move (which has no angle)
+     */
+    public static final byte HOVER = -1;
+
+    // the number of moves the arrays can hold before they first grow
+    private static final int INITIAL_CAPACITY = 256;
+
+    // the angle between two neighbouring compass directions
+    private static final double DEGREES_PER_DIRECTION = 22.5;
+
+    // where the drone was before its first move
+    private final double startLongitude;
+    private final double startLatitude;
+
+    // the position at the end of each move
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+
+    // the compass direction (ordinal) of each move, or HOVER
+    private byte[] directions = new byte[INITIAL_CAPACITY];
+
+    // the index (into the order numbers) of the order each move was made for
+    private int[] orderIndices = new int[INITIAL_CAPACITY];
+
+    // the nanoseconds since the start of the calculation when each move was computed
+    private long[] ticks = new long[INITIAL_CAPACITY];
+
+    // the number of moves in the log
+    private int size;
+
+    // the number of each order the moves were made for (each one stored once)
+    private final List<String> orderNumbers = new ArrayList<>();
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the move log
+     * @param start where the drone is before its first move
+     */
+    public MoveLog(LngLat start)
+    {
+        startLongitude = start.getLng();
+        startLatitude = start.getLat();
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the number of moves in the log
+     * @return the number of moves made
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * getter method for the longitude the given move starts from
+     * @param move the index of the move
+     * @return the longitude of the drone before the move
+     */
+    public double getFromLongitude(int move)
+    {
+        return (move == 0) ? startLongitude : longitudes[move - 1];
+    }
+
+    /**
+     * getter method for the latitude the given move starts from
+     * @param move the index of the move
+     * @return the latitude of the drone before the move
+     */
+    public double getFromLatitude(int move)
+    {
+        return (move == 0) ? startLatitude : latitudes[move - 1];
+    }
+
+    /**
+     * getter method for the longitude the given move ends at
+     * @param move the index of the move
+     * @return the longitude of the drone after the move
+     */
+    public double getToLongitude(int move)
+    {
+        return longitudes[move];
+    }
+
+    /**
+     * getter method for the latitude the given move ends at
+     * @param move the index of the move
+     * @return the latitude of the drone after the move
+     */
+    public double getToLatitude(int move)
+    {
+        return latitudes[move];
+    }
+
+    /**
+     * getter method for the angle of the given move
+     * @param move the index of the move
+     * @return the angle the drone flew at, or NaN if the move is a hover
+     */
+    public double getAngle(int move)
+    {
+        return (directions[move] == HOVER) ? Double.NaN : directions[move] * DEGREES_PER_DIRECTION;
+    }
+
+    /**
+     * getter method for the order number of the given move
+     * @param move the index of the move
+     * @return the number of the order the move was made for
+     */
+    public String getOrderNumber(int move)
+    {
+        return orderNumbers.get(orderIndices[move]);
+    }
+
+    /**
+     * getter method for the time the given move was computed at
+     * @param move the index of the move
+     * @return the nanoseconds since the start of the calculation
+     */
+    public long getTicks(int move)
+    {
+        return ticks[move];
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * adds an order to the log, so that moves can be made for it
+     * @param orderNo the number of the order
+     * @return the index to be given with each move made for the order
+     */
+    public int addOrder(String orderNo)
+    {
+        orderNumbers.add(orderNo);
+        return orderNumbers.size() - 1;
+    }
+
+    /**
+     * adds a move to the end of the log
+     * @param position where the drone is after the move
+     * @param direction the direction of the move, or null for a hover
+     * @param orderIndex the index of the order the move was made for
+     * @param ticksSinceStart the nanoseconds since the start of the calculation
+     */
+    public void addMove(LngLat position, CompassDirection direction, int orderIndex, long ticksSinceStart)
+    {
+        if (size == longitudes.length)
+        {
+            grow();
+        }
+        longitudes[size] = position.getLng();
+        latitudes[size] = position.getLat();
+        directions[size] = (direction == null) ? HOVER : (byte) direction.ordinal();
+        orderIndices[size] = orderIndex;
+        ticks[size] = ticksSinceStart;
+        size++;
+    }
+
+    /**
+     * lists every point covered during the flight (the start
+     * position, then the end of each move)
+     * @return a new list of LngLat objects
+     */
+    public List<LngLat> toPositions()
+    {
+        List<LngLat> positions = new ArrayList<>(size + 1);
+        positions.add(new LngLat(startLongitude, startLatitude));
+        for (int move = 0; move < size; move++)
+        {
+            positions.add(new LngLat(longitudes[move], latitudes[move]));
+        }
+        return positions;
+    }
+
+    /**
+     * creates a flight path object for every move in the log
+     * @param orderDate the date of the flight plan
+     * @return a new list with one flight path object per move
+     */
+    public List<FlightPath> toFlightPaths(String orderDate)
+    {
+        List<FlightPath> flightPaths = new ArrayList<>(size);
+        for (int move = 0; move < size; move++)
+        {
+            double angle = getAngle(move);
+            flightPaths.add(new FlightPath(getOrderNumber(move), orderDate,
+                    getFromLongitude(move), getFromLatitude(move), Double.isNaN(angle) ? null : angle,
+                    longitudes[move], latitudes[move], ticks[move]));
+        }
+        return flightPaths;
+    }
+
+    /**
+     * this method is used to write the moves of one or more drones
+     * for a specific date (inputted in the command line)
+     * to a JSON file
+     * @param moveLogs the move logs to be written, one after the other
+     * @param orderDate the date of the flight plan
+     * @param context the planning context (giving the output directory)
+     */
+    public static void writeMovesToJson(List<MoveLog> moveLogs, String orderDate, PlanningContext context)
+    {
+        JsonFileWriter fileWriter = new JsonFileWriter(context);
+        fileWriter.writeMovesToJSON(moveLogs, orderDate);
+    }
+
+    // doubles the capacity of all the arrays
+    private void grow()
+    {
+        int capacity = longitudes.length * 2;
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        directions = Arrays.copyOf(directions, capacity);
+        orderIndices = Arrays.copyOf(orderIndices, capacity);
+        ticks = Arrays.copyOf(ticks, capacity);
+    }
+
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * this class is used to keep track of all the no-fly-zones
@@ -13,15 +14,13 @@ import java.util.ArrayList;
 @JsonIgnoreProperties("name")
 public class NoFlyZone
 {
-    // all the information from the REST server
-    private ArrayList<ArrayList<Double>> noFlyZoneEdgesAsDoubles = new ArrayList<>();
+    // the co-ordinates of the vertices of the no-fly-zone from the REST server,
+    // compiled into flat arrays (so that the hot path never unboxes a Double)
+    private final double[] vertexLngs;
+    private final double[] vertexLats;
 
-    // a list that stores the edges of each no-fly-zone
-    // as LngLat objects
-    private ArrayList<LngLat> noFlyZoneEdges = new ArrayList<>();
-
-    // a list of all the no-fly-zones from the REST server
-    public static ArrayList<NoFlyZone> allNoFlyZones = new ArrayList<>();
+    // the bounding box of the no-fly-zone (used to quickly reject far away locations)
+    private final BoundingBox boundingBox;
 
     // =========================================================================
     // ============================= CONSTRUCTOR ===============================
@@ -36,9 +35,14 @@ public class NoFlyZone
             @JsonProperty("coordinates")
             ArrayList<ArrayList<Double>> noFlyZoneEdgesAsDoubles)
     {
-        this.noFlyZoneEdgesAsDoubles = noFlyZoneEdgesAsDoubles;
-        this.noFlyZoneEdges = generateNoFlyZoneEdges();
-        allNoFlyZones.add(this);
+        this.vertexLngs = new double[noFlyZoneEdgesAsDoubles.size()];
+        this.vertexLats = new double[noFlyZoneEdgesAsDoubles.size()];
+        for (int i = 0; i < noFlyZoneEdgesAsDoubles.size(); i++)
+        {
+            vertexLngs[i] = noFlyZoneEdgesAsDoubles.get(i).get(0);
+            vertexLats[i] = noFlyZoneEdgesAsDoubles.get(i).get(1);
+        }
+        this.boundingBox = BoundingBox.of(vertexLngs, vertexLats);
     }
 
     // =========================================================================
@@ -47,42 +51,87 @@ public class NoFlyZone
 
     /**
      * getter method for the edges of the no-fly-zone
-     * (edges stored as LngLat objects)
-     * @return the class field storing the edges of the
+     * (edges stored as LngLat objects, created on every call)
+     * @return a new list storing the edges of the
      * no-fly-zone as LngLat objects
      */
     public ArrayList<LngLat> getNoFlyZoneEdges()
     {
+        ArrayList<LngLat> noFlyZoneEdges = new ArrayList<>(vertexLngs.length);
+        for (int i = 0; i < vertexLngs.length; i++)
+        {
+            noFlyZoneEdges.add(new LngLat(vertexLngs[i], vertexLats[i]));
+        }
         return noFlyZoneEdges;
     }
 
     /**
      * getter method for the edges of the no-fly-zone
-     * (edges stored as array lists of Double objects)
-     * @return the class field storing the edges of the
+     * (edges stored as array lists of Double objects, created on every call)
+     * @return a new list storing the edges of the
      * no-fly-zone as array lists of Double objects
      */
     public ArrayList<ArrayList<Double>> getNoFlyZoneEdgesAsDoubles()
     {
+        ArrayList<ArrayList<Double>> noFlyZoneEdgesAsDoubles = new ArrayList<>(vertexLngs.length);
+        for (int i = 0; i < vertexLngs.length; i++)
+        {
+            noFlyZoneEdgesAsDoubles.add(new ArrayList<>(List.of(vertexLngs[i], vertexLats[i])));
+        }
         return noFlyZoneEdgesAsDoubles;
     }
 
+    /**
+     * getter method for the number of vertices of the no-fly-zone
+     * @return the number of vertices
+     */
+    public int getVertexCount()
+    {
+        return vertexLngs.length;
+    }
+
+    /**
+     * getter method for the longitude of a vertex of the no-fly-zone
+     * @param vertex the position of the vertex
+     * @return the longitude of the vertex
+     */
+    public double getVertexLng(int vertex)
+    {
+        return vertexLngs[vertex];
+    }
+
+    /**
+     * getter method for the latitude of a vertex of the no-fly-zone
+     * @param vertex the position of the vertex
+     * @return the latitude of the vertex
+     */
+    public double getVertexLat(int vertex)
+    {
+        return vertexLats[vertex];
+    }
+
+    /**
+     * getter method for the bounding box of the no-fly-zone
+     * @return the smallest bounding box containing all the vertices
+     */
+    public BoundingBox getBoundingBox()
+    {
+        return boundingBox;
+    }
+
     // =========================================================================
     // ========================== OTHER CLASS METHODS ==========================
     // =========================================================================
 
-    // method used to populate the no-fly-zone edges list,
-    // which stores the edges as LngLat objects
-    // @return the newly populated LngLat list
-    private ArrayList<LngLat> generateNoFlyZoneEdges()
+    /**
+     * checks if a location is inside the no-fly-zone (or on its edges)
+     * @param lng the longitude of the location
+     * @param lat the latitude of the location
+     * @return true if the location is in the no-fly-zone, false otherwise
+     */
+    public boolean contains(double lng, double lat)
     {
-        for (ArrayList<Double> edge: noFlyZoneEdgesAsDoubles)
-        {
-            // create a new LngLat object for each pair of co-ordinates
-            LngLat point = new LngLat(edge.get(0), edge.get(1));
-            noFlyZoneEdges.add(point);
-        }
-        return noFlyZoneEdges;
+        return LngLat.inArea(lng, lat, vertexLngs, vertexLats, boundingBox);
     }
 
 }
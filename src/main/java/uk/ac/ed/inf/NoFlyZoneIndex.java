@@ -0,0 +1,352 @@
+package uk.ac.ed.inf;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * this class is a compiled, immutable spatial index over a set of
+ * no-fly-zones (a uniform grid covering all the zones, where every cell
+ * stores the zone edges and the zone bounding boxes overlapping it),
+ * so that a query only looks at the edges near the point or line given
+ */
+public final class NoFlyZoneIndex
+{
+    // the number of grid cells to aim for, per indexed edge
+    private static final int CELLS_PER_EDGE = 4;
+
+    // the maximum number of grid cells along each axis
+    private static final int MAX_CELLS_PER_AXIS = 1024;
+
+    // the no-fly-zones being indexed, and their bounding boxes
+    private final List<NoFlyZone> noFlyZones;
+    private final BoundingBox[] noFlyZoneBoxes;
+
+    // the bounding box of all the no-fly-zones (null if there are none)
+    private final BoundingBox bounds;
+
+    // the grid dimensions
+    private final int columns;
+    private final int rows;
+    private final double cellWidth;
+    private final double cellHeight;
+
+    // the co-ordinates of every edge of every no-fly-zone
+    private final double[] edgeStartLngs;
+    private final double[] edgeStartLats;
+    private final double[] edgeEndLngs;
+    private final double[] edgeEndLats;
+
+    // the edges overlapping each cell are cellEdges[cellEdgeStarts[c] .. cellEdgeStarts[c + 1])
+    private final int[] cellEdgeStarts;
+    private final int[] cellEdges;
+
+    // the zones overlapping each cell are cellZones[cellZoneStarts[c] .. cellZoneStarts[c + 1])
+    private final int[] cellZoneStarts;
+    private final int[] cellZones;
+
+    // the edges already tested by the line query running on each thread
+    // (an edge spanning several cells is only tested once per query)
+    private final ThreadLocal<EdgeStamps> edgeStamps;
+
+    // stamps every edge with the last line query that tested it
+    private static final class EdgeStamps
+    {
+        private final int[] stamps;
+        private int query;
+
+        private EdgeStamps(int edgeCount)
+        {
+            stamps = new int[edgeCount];
+        }
+
+        // starts a new query (clearing the stamps before the count wraps around)
+        // @return the stamp of the new query
+        private int nextQuery()
+        {
+            if (query == Integer.MAX_VALUE)
+            {
+                Arrays.fill(stamps, 0);
+                query = 0;
+            }
+            return ++query;
+        }
+    }
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the index (compiles all the given
+     * no-fly-zones into the grid)
+     * @param noFlyZones the no-fly-zones to be indexed
+     */
+    public NoFlyZoneIndex(List<NoFlyZone> noFlyZones)
+    {
+        this.noFlyZones = List.copyOf(noFlyZones);
+        this.noFlyZoneBoxes = new BoundingBox[this.noFlyZones.size()];
+        // collect all the edges (each vertex joined to the previous one,
+        // the first one being joined to the last one)
+        int edgeCount = 0;
+        for (NoFlyZone noFlyZone : this.noFlyZones)
+        {
+            edgeCount += noFlyZone.getVertexCount();
+        }
+        edgeStartLngs = new double[edgeCount];
+        edgeStartLats = new double[edgeCount];
+        edgeEndLngs = new double[edgeCount];
+        edgeEndLats = new double[edgeCount];
+        int edge = 0;
+        BoundingBox allZones = null;
+        for (int zone = 0; zone < this.noFlyZones.size(); zone++)
+        {
+            NoFlyZone noFlyZone = this.noFlyZones.get(zone);
+            int vertices = noFlyZone.getVertexCount();
+            for (int i = 0, j = vertices - 1; i < vertices; j = i++, edge++)
+            {
+                edgeStartLngs[edge] = noFlyZone.getVertexLng(i);
+                edgeStartLats[edge] = noFlyZone.getVertexLat(i);
+                edgeEndLngs[edge] = noFlyZone.getVertexLng(j);
+                edgeEndLats[edge] = noFlyZone.getVertexLat(j);
+            }
+            noFlyZoneBoxes[zone] = noFlyZone.getBoundingBox();
+            allZones = (allZones == null) ? noFlyZoneBoxes[zone] : allZones.union(noFlyZoneBoxes[zone]);
+        }
+        this.bounds = allZones;
+        // choose the grid dimensions, so that cells are roughly square
+        if (bounds == null)
+        {
+            columns = 1;
+            rows = 1;
+            cellWidth = 1;
+            cellHeight = 1;
+        }
+        else
+        {
+            double width = Math.max(bounds.maxLng() - bounds.minLng(), LngLat.DRONE_MOVE_LENGTH);
+            double height = Math.max(bounds.maxLat() - bounds.minLat(), LngLat.DRONE_MOVE_LENGTH);
+            double cellSide = Math.sqrt(width * height / Math.max(1, (double) CELLS_PER_EDGE * edgeCount));
+            columns = (int) Math.min(MAX_CELLS_PER_AXIS, Math.max(1, Math.ceil(width / cellSide)));
+            rows = (int) Math.min(MAX_CELLS_PER_AXIS, Math.max(1, Math.ceil(height / cellSide)));
+            cellWidth = width / columns;
+            cellHeight = height / rows;
+        }
+        // bucket the edges, using the bounding box of each edge
+        BoundingBox[] edgeBoxes = new BoundingBox[edgeCount];
+        for (edge = 0; edge < edgeCount; edge++)
+        {
+            edgeBoxes[edge] = new BoundingBox(
+                    Math.min(edgeStartLngs[edge], edgeEndLngs[edge]), Math.min(edgeStartLats[edge], edgeEndLats[edge]),
+                    Math.max(edgeStartLngs[edge], edgeEndLngs[edge]), Math.max(edgeStartLats[edge], edgeEndLats[edge]));
+        }
+        cellEdgeStarts = new int[columns * rows + 1];
+        cellEdges = bucket(edgeBoxes, cellEdgeStarts);
+        cellZoneStarts = new int[columns * rows + 1];
+        cellZones = bucket(noFlyZoneBoxes, cellZoneStarts);
+        int indexedEdges = edgeCount;
+        edgeStamps = ThreadLocal.withInitial(() -> new EdgeStamps(indexedEdges));
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the number of no-fly-zones in the index
+     * @return the number of indexed no-fly-zones
+     */
+    public int size()
+    {
+        return noFlyZones.size();
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * checks if a location is within any of the indexed no-fly-zones
+     * (same result as checking every no-fly-zone one by one)
+     * @param point the location to be checked
+     * @return true if the location is in a no-fly-zone, false otherwise
+     */
+    public boolean inNoFlyZone(LngLat point)
+    {
+        return inNoFlyZone(point.getLng(), point.getLat());
+    }
+
+    /**
+     * checks if a location is within any of the indexed no-fly-zones
+     * (same result as checking every no-fly-zone one by one)
+     * @param lng the longitude of the location
+     * @param lat the latitude of the location
+     * @return true if the location is in a no-fly-zone, false otherwise
+     */
+    public boolean inNoFlyZone(double lng, double lat)
+    {
+        if (bounds == null || !bounds.contains(lng, lat))
+        {
+            return false;
+        }
+        int cell = row(lat) * columns + column(lng);
+        for (int k = cellZoneStarts[cell]; k < cellZoneStarts[cell + 1]; k++)
+        {
+            int zone = cellZones[k];
+            if (noFlyZones.get(zone).contains(lng, lat))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * check if a line between two points cuts through any of the
+     * indexed no-fly-zones (touching an edge counts as cutting through)
+     * @param from the start of the line
+     * @param to the end of the line
+     * @return true if the line cuts through a no-fly-zone, false otherwise
+     */
+    public boolean lineCutsThroughNoFlyZones(LngLat from, LngLat to)
+    {
+        return lineCutsThroughNoFlyZones(from.getLng(), from.getLat(), to.getLng(), to.getLat());
+    }
+
+    /**
+     * check if a line between two points cuts through any of the
+     * indexed no-fly-zones (touching an edge counts as cutting through)
+     * @param fromLng the longitude of the start of the line
+     * @param fromLat the latitude of the start of the line
+     * @param toLng the longitude of the end of the line
+     * @param toLat the latitude of the end of the line
+     * @return true if the line cuts through a no-fly-zone, false otherwise
+     */
+    public boolean lineCutsThroughNoFlyZones(double fromLng, double fromLat, double toLng, double toLat)
+    {
+        return lineCutsThroughNoFlyZones(fromLng, fromLat, toLng, toLat, null);
+    }
+
+    /**
+     * check if a line between two points cuts through any of the
+     * indexed no-fly-zones (touching an edge counts as cutting through),
+     * counting the edges the line is tested against (each edge at most once)
+     * @param fromLng the longitude of the start of the line
+     * @param fromLat the latitude of the start of the line
+     * @param toLng the longitude of the end of the line
+     * @param toLat the latitude of the end of the line
+     * @param tally the tally the edge tests are added to (can be null)
+     * @return true if the line cuts through a no-fly-zone, false otherwise
+     */
+    public boolean lineCutsThroughNoFlyZones(double fromLng, double fromLat, double toLng, double toLat,
+                                             PlanningMetrics.Tally tally)
+    {
+        double minLng = Math.min(fromLng, toLng);
+        double maxLng = Math.max(fromLng, toLng);
+        double minLat = Math.min(fromLat, toLat);
+        double maxLat = Math.max(fromLat, toLat);
+        if (bounds == null || maxLng < bounds.minLng() || minLng > bounds.maxLng()
+                || maxLat < bounds.minLat() || minLat > bounds.maxLat())
+        {
+            return false;
+        }
+        int firstColumn = column(minLng);
+        int lastColumn = column(maxLng);
+        int firstRow = row(minLat);
+        int lastRow = row(maxLat);
+        // an edge can only be met twice if the line spans several cells
+        EdgeStamps tested = (firstColumn == lastColumn && firstRow == lastRow) ? null : edgeStamps.get();
+        int query = (tested == null) ? 0 : tested.nextQuery();
+        // counted locally, and added to the tally once
+        int edgeTests = 0;
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            for (int column = firstColumn; column <= lastColumn; column++)
+            {
+                int cell = row * columns + column;
+                for (int k = cellEdgeStarts[cell]; k < cellEdgeStarts[cell + 1]; k++)
+                {
+                    int edge = cellEdges[k];
+                    if (tested != null)
+                    {
+                        if (tested.stamps[edge] == query)
+                        {
+                            continue;
+                        }
+                        tested.stamps[edge] = query;
+                    }
+                    edgeTests++;
+                    if (LngLat.segmentsIntersect(fromLng, fromLat, toLng, toLat,
+                            edgeStartLngs[edge], edgeStartLats[edge], edgeEndLngs[edge], edgeEndLats[edge]))
+                    {
+                        addEdgeTests(tally, edgeTests);
+                        return true;
+                    }
+                }
+            }
+        }
+        addEdgeTests(tally, edgeTests);
+        return false;
+    }
+
+    // adds the edges a line was tested against to a tally (if there is one)
+    private static void addEdgeTests(PlanningMetrics.Tally tally, int edgeTests)
+    {
+        if (tally != null)
+        {
+            tally.add(PlanningMetrics.Counter.NO_FLY_ZONE_EDGE_TESTS, edgeTests);
+        }
+    }
+
+    // the grid column containing a given longitude (clamped to the grid)
+    private int column(double lng)
+    {
+        int column = (int) ((lng - bounds.minLng()) / cellWidth);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    // the grid row containing a given latitude (clamped to the grid)
+    private int row(double lat)
+    {
+        int row = (int) ((lat - bounds.minLat()) / cellHeight);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    // places every item in each of the cells its bounding box overlaps
+    // @param boxes the bounding box of each item
+    // @param cellStarts filled in with the start of each cell's items
+    // @return the items of all the cells, one cell after another
+    private int[] bucket(BoundingBox[] boxes, int[] cellStarts)
+    {
+        // first count the items in each cell, then fill them in
+        for (BoundingBox box : boxes)
+        {
+            for (int row = row(box.minLat()); row <= row(box.maxLat()); row++)
+            {
+                for (int column = column(box.minLng()); column <= column(box.maxLng()); column++)
+                {
+                    cellStarts[row * columns + column + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < columns * rows; cell++)
+        {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        int[] items = new int[cellStarts[columns * rows]];
+        int[] filled = new int[columns * rows];
+        for (int item = 0; item < boxes.length; item++)
+        {
+            BoundingBox box = boxes[item];
+            for (int row = row(box.minLat()); row <= row(box.maxLat()); row++)
+            {
+                for (int column = column(box.minLng()); column <= column(box.maxLng()); column++)
+                {
+                    int cell = row * columns + column;
+                    items[cellStarts[cell] + filled[cell]++] = item;
+                }
+            }
+        }
+        return items;
+    }
+
+}
@@ -2,7 +2,6 @@ package uk.ac.ed.inf;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,12 +23,6 @@ public class Order
     // this field is used to update the status of each order
     private OrderOutcome outcome;
 
-    // a list of all restaurants on the PizzaDronz app
-    private static Restaurant[] restaurants = {};
-
-    // a list containing all orders that are deemed valid
-    private static ArrayList<Order> validOrders = new ArrayList<>();
-
     // this field is used to store the delivery cost of an order
     // (including the £1 delivery fee)
     // set to 0 if the order is invalid
@@ -44,6 +37,7 @@ public class Order
 
     /**
      * constructor for the order objects
+     * (the order is not validated until validate() is called)
      * @param orderNo: the unique number used to identify an order
      * @param orderDate: the date the order was created/ placed
      * @param customer: the name of the person (customer) who made the order
@@ -83,11 +77,6 @@ public class Order
         this.cvv = cvv;
         this.priceTotalInPence = priceTotalInPence;
         this.orderItems = orderItems;
-        // if the order is valid, add it to the list of valid orders
-        if (isOrderValid())
-        {
-            validOrders.add(this);
-        }
     }
 
     // =========================================================================
@@ -167,16 +156,6 @@ public class Order
         return correspondingRestaurant;
     }
 
-    /**
-     * getter method for the list of valid orders for
-     * the inputted date (from the command line)
-     * @return a list of all valid orders for a given date
-     */
-    public static ArrayList<Order> getValidOrders()
-    {
-        return validOrders;
-    }
-
     // =========================================================================
     // ================================ SETTERS ================================
     // =========================================================================
@@ -190,25 +169,29 @@ public class Order
         this.outcome = outcome;
     }
 
-    /**
-     * setter method for the static restaurants list
-     * based on URL inputted in the command line
-     * @param restaurants the list of restaurants available
-     *                    on the PizzaDronz app
-     */
-    public static void setRestaurants(Restaurant[] restaurants)
-    {
-        Order.restaurants = restaurants;
-    }
-
     // =========================================================================
     // =========================== ORDER VALIDATION ============================
     // =========================================================================
 
 
+    /**
+     * checks if the order is valid, and updates the order outcome
+     * (and delivery cost) accordingly
+     * @param menuIndex the index over the menus of all the restaurants
+     * @return true if the order is valid, false otherwise
+     */
+    public boolean validate(MenuIndex menuIndex)
+    {
+        outcome = null;
+        orderDeliveryCost = 0;
+        correspondingRestaurant = null;
+        return isOrderValid(menuIndex);
+    }
+
     // check if the order is valid, and update the order outcome accordingly
+    // @param menuIndex the index over the menus of all the restaurants
     // @return true if an order is valid, false otherwise
-    private boolean isOrderValid()
+    private boolean isOrderValid(MenuIndex menuIndex)
     {
         // check if there are missing details, and if so, mark the order as invalid
         if (orderNo == null || customer == null)
@@ -217,8 +200,7 @@ public class Order
             return false;
         }
         // check if the credit card details are valid, and update the outcome accordingly
-        CreditCardValidator creditCardValidator = new CreditCardValidator(this);
-        if (!creditCardValidator.validCreditCardDetails())
+        if (!CreditCardValidator.isValidCard(this))
         {
             return false;
         }
@@ -231,7 +213,7 @@ public class Order
             return false;
         }
         // update the delivery cost, and check if the order outcome has changed
-        updateDeliveryCost();
+        updateDeliveryCost(menuIndex);
         if (outcome != null)
         {
             // if the order outcome has changed, the order is invalid
@@ -249,86 +231,69 @@ public class Order
     /**
      * computes the cost, in pence, of all order items
      * plus a charge of £1 (100 pence) per delivery, and updates the
-     * appropriate field
+     * appropriate field (using one menu lookup per order item)
      * also updates the order outcome accordingly
      * (if an invalid pizza is found, if the pizzas cannot be provided
      * by a single supplier, or if the total is invalid)
+     * @param menuIndex the index over the menus of all the restaurants
      */
-    public void updateDeliveryCost()
+    public void updateDeliveryCost(MenuIndex menuIndex)
     {
-        // this variable is used to keep track of the price
-        // of all order items
-        int totalInPence = 0;
-        // keep track of all items in the order items list
-        // that are defined
-        int definedItems = 0;
-        // keep track of all the items on the menu that match
-        // the order items
-        int itemsInMenu = 0;
-        // this variable will be used to store the final delivery cost
-        int deliveryCost = 0;
-        // check to see if a single restaurant can deliver all the ordered items
-        for (Restaurant restaurant : restaurants)
+        // every order item has to be on at least one menu
+        for (String orderItem : orderItems)
+        {
+            if (menuIndex.getSuppliers(orderItem).isEmpty())
+            {
+                outcome = OrderOutcome.InvalidPizzaNotDefined;
+                orderDeliveryCost = 0;
+                return;
+            }
+        }
+        // a single restaurant has to sell all the order items, so it
+        // has to be one of the restaurants selling the first item
+        for (MenuIndex.MenuEntry candidate : menuIndex.getSuppliers(orderItems.get(0)))
         {
-            // get all menu items as Menu objects
-            List<Menu> menuItems = restaurant.getMenuItems();
-            for (Menu item: menuItems)
+            Restaurant restaurant = candidate.restaurant();
+            int totalInPence = 0;
+            boolean sellsAllItems = true;
+            for (String orderItem : orderItems)
             {
-                for (String orderItem: orderItems)
+                int price = menuIndex.getPrice(orderItem, restaurant);
+                if (price < 0)
                 {
-                    // for each menu item, check if there is a match
-                    if (orderItem.equals(item.name()))
-                    {
-                        // and update the defined items, items in menu
-                        // and total price in pence
-                        definedItems += 1;
-                        itemsInMenu += 1;
-                        totalInPence += item.priceInPence();
-                    }
+                    sellsAllItems = false;
+                    break;
                 }
-                // if all order items are contained in the menu
-                if (itemsInMenu == orderItems.size())
+                totalInPence += price;
+            }
+            if (sellsAllItems)
+            {
+                // add the £1 delivery fee, set the corresponding restaurant
+                // field, and check if the total is valid
+                orderDeliveryCost = totalInPence + 100;
+                correspondingRestaurant = restaurant;
+                if (orderDeliveryCost != priceTotalInPence)
                 {
-                    // add the £1 delivery fee
-                    deliveryCost = totalInPence + 100;
-                    // set the corresponding restaurant field
-                    correspondingRestaurant = restaurant;
-                    // and check if the total is valid
-                    if (deliveryCost != priceTotalInPence)
-                    {
-                        outcome = OrderOutcome.InvalidTotal;
-                    }
+                    outcome = OrderOutcome.InvalidTotal;
                 }
+                return;
             }
-            // if the menu doesn't contain all order items
-            // reset the two fields
-            itemsInMenu = 0;
-            totalInPence = 0;
-        }
-        // if all items are defined, then set the outcome to invalid
-        // due to multiple suppliers being needed
-        if (definedItems == orderItems.size() && deliveryCost == 0)
-        {
-            outcome = OrderOutcome.InvalidPizzaCombinationMultipleSuppliers;
-        }
-        // if not all items are defined, then set the outcome to invalid
-        // due to an invalid pizza being found
-        else if (definedItems != orderItems.size() && deliveryCost == 0)
-        {
-            outcome = OrderOutcome.InvalidPizzaNotDefined;
         }
-        // set the order delivery cost field
-        orderDeliveryCost = deliveryCost;
+        // all items are defined, but no single restaurant sells them all
+        outcome = OrderOutcome.InvalidPizzaCombinationMultipleSuppliers;
+        orderDeliveryCost = 0;
     }
 
     /**
      * this method is used to write the order objects
      * for a specific date (inputted in the command line)
      * to a JSON file
+     * @param orders the order objects to be written
+     * @param context the planning context (giving the output directory)
      */
-    public static void writeOrdersToJson(List<Order> orders)
+    public static void writeOrdersToJson(List<Order> orders, PlanningContext context)
     {
-        JsonFileWriter fileWriter = new JsonFileWriter();
+        JsonFileWriter fileWriter = new JsonFileWriter(context);
         fileWriter.writeOrderToJSON(orders);
     }
 
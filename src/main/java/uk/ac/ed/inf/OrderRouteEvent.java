@@ -0,0 +1,71 @@
+package uk.ac.ed.inf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * this class is the Java Flight Recorder event for the route of a single
+ * order (to the restaurant and back to Appleton Tower), recorded for every
+ * valid order once the drone has chosen which ones to deliver, either while
+ * the route is flown or when the order is left undelivered (the search for
+ * the route itself is recorded by the route planning event)
+ */
+@Name("uk.ac.ed.inf.OrderRoute")
+@Label("Order Route")
+@Category({"PizzaDronz", "Planning"})
+@Description("The route of an order being flown, or left undelivered, by a drone")
+@StackTrace(false)
+public class OrderRouteEvent extends Event
+{
+    // the date of the flight plan, and the order the route is for
+    @Label("Order Date")
+    String orderDate;
+
+    @Label("Order Number")
+    String orderNo;
+
+    // the name of the restaurant the order is collected from
+    @Label("Restaurant")
+    String restaurant;
+
+    // the number of moves in the route (including both hovers, or
+    // more than a full battery allows if no route could be found)
+    @Label("Moves")
+    int moves;
+
+    // whether the order was chosen, and the drone flew the route
+    @Label("Delivered")
+    boolean delivered;
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * ends the event, and records it for the route of an order
+     * (if the event is being recorded, and took long enough)
+     * @param orderDate the date of the flight plan
+     * @param orderNo the order number
+     * @param restaurant the restaurant the order is collected from
+     * @param moves the number of moves in the route
+     * @param delivered true if the order can be delivered, false otherwise
+     */
+    public void record(String orderDate, String orderNo, Restaurant restaurant, int moves, boolean delivered)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.orderDate = orderDate;
+            this.orderNo = orderNo;
+            this.restaurant = restaurant.getName();
+            this.moves = moves;
+            this.delivered = delivered;
+            commit();
+        }
+    }
+
+}
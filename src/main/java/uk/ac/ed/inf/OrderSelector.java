@@ -0,0 +1,119 @@
+package uk.ac.ed.inf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * this class chooses which orders the drone should deliver, given
+ * the number of moves each delivery takes and the number of moves
+ * the drone's battery allows (a 0/1 knapsack problem)
+ */
+public final class OrderSelector
+{
+
+    // this class only has static methods
+    private OrderSelector()
+    {
+    }
+
+    /**
+     * chooses the set of deliveries with the largest total value
+     * that fits within the available moves
+     * (when every value is 1, taking the cheapest deliveries first is optimal,
+     * otherwise the knapsack is solved exactly with dynamic programming,
+     * over the groups of deliveries that take the same number of moves)
+     * @param moves the number of moves each delivery takes
+     *              (negative if the delivery is impossible)
+     * @param values the value of each delivery
+     * @param movesAvailable the number of moves the drone can make
+     * @return for each delivery, true if it was chosen, false otherwise
+     */
+    public static boolean[] select(int[] moves, int[] values, int movesAvailable)
+    {
+        boolean[] chosen = new boolean[moves.length];
+        if (Arrays.stream(values).allMatch(value -> value == 1))
+        {
+            // take the cheapest deliveries first (keeping the original order for ties)
+            int[] cheapestFirst = IntStream.range(0, moves.length)
+                    .filter(item -> moves[item] >= 0)
+                    .boxed()
+                    .sorted(Comparator.comparingInt(item -> moves[item]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int movesLeft = movesAvailable;
+            for (int item : cheapestFirst)
+            {
+                if (moves[item] > movesLeft)
+                {
+                    break;
+                }
+                chosen[item] = true;
+                movesLeft -= moves[item];
+            }
+            return chosen;
+        }
+        // the deliveries with the same number of moves (e.g. all the orders from one
+        // restaurant) are solved together, since taking t of them is best done by
+        // taking the t most valuable ones, which keeps the table to one row per
+        // distinct number of moves instead of one row per delivery
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int item = 0; item < moves.length; item++)
+        {
+            if (moves[item] >= 0 && moves[item] <= movesAvailable)
+            {
+                groups.computeIfAbsent(moves[item], cost -> new ArrayList<>()).add(item);
+            }
+        }
+        List<List<Integer>> groupItems = new ArrayList<>(groups.values());
+        // best[m] is the largest value achievable with at most m moves, and
+        // taken[group][m] records how many items of the group that used
+        long[] best = new long[movesAvailable + 1];
+        int[][] taken = new int[groupItems.size()][movesAvailable + 1];
+        for (int group = 0; group < groupItems.size(); group++)
+        {
+            List<Integer> items = groupItems.get(group);
+            // the most valuable items first (keeping the original order for ties)
+            items.sort(Comparator.comparingInt(item -> -values[item]));
+            long[] prefixValues = new long[items.size() + 1];
+            for (int t = 0; t < items.size(); t++)
+            {
+                prefixValues[t + 1] = prefixValues[t] + values[items.get(t)];
+            }
+            int cost = moves[items.get(0)];
+            // going down through the moves, so best[] still holds the previous
+            // groups' values wherever it is read from
+            for (int m = movesAvailable; m >= 0; m--)
+            {
+                int mostItems = (cost == 0) ? items.size() : Math.min(items.size(), m / cost);
+                for (int t = 1; t <= mostItems; t++)
+                {
+                    long withItems = best[m - t * cost] + prefixValues[t];
+                    if (withItems > best[m])
+                    {
+                        best[m] = withItems;
+                        taken[group][m] = t;
+                    }
+                }
+            }
+        }
+        // walk back through the groups to recover the chosen set
+        int m = movesAvailable;
+        for (int group = groupItems.size() - 1; group >= 0; group--)
+        {
+            List<Integer> items = groupItems.get(group);
+            int t = taken[group][m];
+            for (int i = 0; i < t; i++)
+            {
+                chosen[items.get(i)] = true;
+            }
+            m -= t * moves[items.get(0)];
+        }
+        return chosen;
+    }
+
+}
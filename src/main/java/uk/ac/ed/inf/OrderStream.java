@@ -0,0 +1,168 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * this class reads the orders for a date from the REST server on its own
+ * thread, starting as soon as it is opened, and passes them through a
+ * bounded queue to the thread that plans them (so the orders can already
+ * be arriving while the planning context is still being loaded)
+ */
+public class OrderStream implements AutoCloseable
+{
+    // the maximum number of orders read ahead of the ones being planned
+    private static final int QUEUE_CAPACITY = 1024;
+
+    // put on the queue after the last order has been read
+    private static final QueuedOrder END_OF_ORDERS = new QueuedOrder(null);
+
+    // the orders read, but not taken yet
+    private final BlockingQueue<QueuedOrder> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    // the reason the orders could not be read (null if there was none)
+    private final AtomicReference<RuntimeException> readFailure = new AtomicReference<>();
+
+    // the thread reading the orders
+    private final Thread reader;
+
+    // whether the last order has been taken
+    private boolean finished;
+
+    // an element of the queue (an order read, or the end of the orders)
+    private record QueuedOrder(Order order) {}
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    // sets up the reader thread (without starting it)
+    // @param baseURL the validated URL from the command line
+    // @param date the date of the orders, in the format "yyyy-MM-dd"
+    // @param responseCache the cache the orders are read through (or null to download them)
+    private OrderStream(URL baseURL, String date, ResponseCache responseCache)
+    {
+        reader = new Thread(() ->
+        {
+            try
+            {
+                RetrieveData.streamData(baseURL, "/orders/" + date, new TypeReference<Order>(){}, responseCache,
+                        this::putOrder);
+            }
+            catch (RuntimeException e)
+            {
+                readFailure.set(e);
+            }
+            finally
+            {
+                try
+                {
+                    queue.put(END_OF_ORDERS);
+                }
+                catch (InterruptedException e)
+                {
+                    // the stream has already been closed
+                }
+            }
+        }, "order-reader");
+        reader.setDaemon(true);
+    }
+
+    /**
+     * starts reading the orders for the given date from the REST server
+     * @param baseURL the validated URL from the command line
+     * @param date the date of the orders, in the format "yyyy-MM-dd"
+     * @param responseCache the on-disk cache the orders are read through
+     * (or null to always download them)
+     * @return the stream of orders (to be closed once it is no longer needed)
+     */
+    public static OrderStream open(URL baseURL, String date, ResponseCache responseCache)
+    {
+        OrderStream orders = new OrderStream(baseURL, date, responseCache);
+        orders.reader.start();
+        return orders;
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * waits for the next order to be read
+     * @return the next order, or null once every order has been taken
+     * @throws RuntimeException if the orders could not be read
+     */
+    public Order next()
+    {
+        if (finished)
+        {
+            return null;
+        }
+        try
+        {
+            QueuedOrder queued = queue.take();
+            if (queued != END_OF_ORDERS)
+            {
+                return queued.order();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finished = true;
+        if (readFailure.get() != null)
+        {
+            throw readFailure.get();
+        }
+        return null;
+    }
+
+    /**
+     * waits for all the orders still to be read
+     * @return the orders not taken yet, in the order they were read
+     * @throws RuntimeException if the orders could not be read
+     */
+    public List<Order> readAll()
+    {
+        List<Order> orders = new ArrayList<>();
+        for (Order order = next(); order != null; order = next())
+        {
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /**
+     * stops reading the orders (if they have not all been read yet)
+     */
+    @Override
+    public void close()
+    {
+        reader.interrupt();
+    }
+
+    // puts an order read from the REST server on the queue, waiting
+    // while the queue is full (until the stream is closed)
+    // @param order the order read
+    private void putOrder(Order order)
+    {
+        try
+        {
+            queue.put(new QueuedOrder(order));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+}
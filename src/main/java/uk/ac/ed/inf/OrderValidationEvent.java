@@ -0,0 +1,80 @@
+package uk.ac.ed.inf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+
+/**
+ * this class is the Java Flight Recorder event for validating orders,
+ * either a whole list of orders at once, or a single order as it is read
+ * from the REST server
+ */
+@Name("uk.ac.ed.inf.OrderValidation")
+@Label("Order Validation")
+@Category({"PizzaDronz", "Planning"})
+@Description("Orders being validated against the restaurants' menus")
+@StackTrace(false)
+public class OrderValidationEvent extends Event
+{
+    // the date of the orders
+    @Label("Order Date")
+    String orderDate;
+
+    // the order number (only when a single order is validated)
+    @Label("Order Number")
+    String orderNo;
+
+    // the number of orders validated, and how many of them were valid
+    @Label("Orders")
+    int orders;
+
+    @Label("Valid Orders")
+    int validOrders;
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * ends the event, and records it for a list of orders
+     * (if the event is being recorded, and took long enough)
+     * @param validatedOrders the orders that were validated
+     * @param validOrders the number of them that turned out to be valid
+     */
+    public void record(List<Order> validatedOrders, int validOrders)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.orderDate = validatedOrders.isEmpty() ? null : validatedOrders.get(0).getOrderDate();
+            this.orders = validatedOrders.size();
+            this.validOrders = validOrders;
+            commit();
+        }
+    }
+
+    /**
+     * ends the event, and records it for a single order
+     * (if the event is being recorded, and took long enough)
+     * @param order the order that was validated
+     * @param valid true if the order turned out to be valid
+     */
+    public void record(Order order, boolean valid)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.orderDate = order.getOrderDate();
+            this.orderNo = order.getOrderNumber();
+            this.orders = 1;
+            this.validOrders = valid ? 1 : 0;
+            commit();
+        }
+    }
+
+}
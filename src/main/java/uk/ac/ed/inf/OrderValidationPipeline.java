@@ -0,0 +1,84 @@
+package uk.ac.ed.inf;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * this class is used to validate a large number of orders at once
+ * (e.g. a peak day, or several days being planned together), spreading
+ * the validation over the threads of a fork/join pool
+ * (orders only read the shared menu index, and only update themselves,
+ * so they can safely be validated at the same time)
+ */
+public class OrderValidationPipeline
+{
+    // below this number of orders, splitting the work up costs more than it saves
+    static final int PARALLEL_THRESHOLD = 256;
+
+    // sorts the valid orders by their order number (orders without one go last)
+    private static final Comparator<Order> BY_ORDER_NUMBER =
+            Comparator.comparing(Order::getOrderNumber, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    // the index over the menus of all the restaurants
+    private final MenuIndex menuIndex;
+
+    // the pool the orders are validated in
+    private final ForkJoinPool pool;
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the validation pipeline
+     * (validates the orders in the common fork/join pool)
+     * @param menuIndex the index over the menus of all the restaurants
+     */
+    public OrderValidationPipeline(MenuIndex menuIndex)
+    {
+        this(menuIndex, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * constructor method for the validation pipeline
+     * @param menuIndex the index over the menus of all the restaurants
+     * @param pool the pool the orders are validated in
+     */
+    public OrderValidationPipeline(MenuIndex menuIndex, ForkJoinPool pool)
+    {
+        this.menuIndex = menuIndex;
+        this.pool = pool;
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * validates all the given orders (updating the outcome of each one),
+     * in parallel if there are enough of them
+     * @param orders the orders to be validated
+     * @return the valid orders, sorted by their order number
+     * (so the result does not depend on how the work was split up)
+     */
+    public List<Order> validate(List<Order> orders)
+    {
+        if (orders.size() < PARALLEL_THRESHOLD)
+        {
+            return validOrdersSorted(orders.stream());
+        }
+        // a parallel stream started from inside a pool runs in that pool
+        return pool.submit(() -> validOrdersSorted(orders.parallelStream())).join();
+    }
+
+    // validates the orders of a stream, and sorts the valid ones
+    // @param orders the stream of orders to be validated
+    // @return the valid orders, sorted by their order number
+    private List<Order> validOrdersSorted(Stream<Order> orders)
+    {
+        return orders.filter(order -> order.validate(menuIndex)).sorted(BY_ORDER_NUMBER).toList();
+    }
+
+}
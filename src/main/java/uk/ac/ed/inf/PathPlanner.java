@@ -0,0 +1,42 @@
+package uk.ac.ed.inf;
+
+import java.util.List;
+
+/**
+ * this interface is used to plug different path-finding
+ * algorithms into the drone (each implementation computes the
+ * moves needed to get from a start point to a destination,
+ * while avoiding all the no-fly-zones)
+ */
+public interface PathPlanner
+{
+    /**
+     * computes the moves the drone needs to make in order to get
+     * from the start point to a point close to the destination
+     * (the final hover move is not included)
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @return the list of compass directions to be taken (in order),
+     * or null if no path could be found
+     */
+    List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones);
+
+    /**
+     * computes the moves the drone needs to make in order to get
+     * from the start point to a point close to the destination,
+     * adding the work done to the counters of a run
+     * (by default, the work is not counted)
+     * @param start the location from which the drone starts
+     * @param destination the location the drone needs to get close to
+     * @param noFlyZones the index over the no-fly-zones to be avoided
+     * @param metrics the metrics of the run (can be null)
+     * @return the list of compass directions to be taken (in order),
+     * or null if no path could be found
+     */
+    default List<CompassDirection> planPath(LngLat start, LngLat destination, NoFlyZoneIndex noFlyZones,
+                                            PlanningMetrics metrics)
+    {
+        return planPath(start, destination, noFlyZones);
+    }
+}
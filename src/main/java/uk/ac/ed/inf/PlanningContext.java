@@ -0,0 +1,356 @@
+package uk.ac.ed.inf;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * this class holds everything a single planning run works with
+ * (the restaurants, the no-fly-zones, the central area, the orders
+ * validated during the run, and where the output files are written),
+ * so that several runs never share any mutable state
+ */
+public class PlanningContext
+{
+    // the restaurants available on the PizzaDronz app
+    private final Restaurant[] restaurants;
+
+    // the index from each pizza to the restaurants selling it
+    private final MenuIndex menuIndex;
+
+    // the no-fly-zones, and the spatial index built over them
+    private final List<NoFlyZone> noFlyZones;
+    private final NoFlyZoneIndex noFlyZoneIndex;
+
+    // the central area (null if it is not needed for the run)
+    private final CentralArea centralArea;
+
+    // the directory the output files are written to
+    private final String outputDirectory;
+
+    // the on-disk cache the orders are read through (null to always download them)
+    private final ResponseCache responseCache;
+
+    // the orders validated during the run that turned out to be valid
+    private final List<Order> validOrders = Collections.synchronizedList(new ArrayList<>());
+
+    // the timings and counters of the run
+    private final PlanningMetrics metrics = new PlanningMetrics();
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the planning context
+     * (output files are written to the resultfiles folder)
+     * @param restaurants the restaurants available on the PizzaDronz app
+     * @param noFlyZones the no-fly-zones the drones need to avoid
+     * @param centralArea the central area (can be null if it is not needed)
+     */
+    public PlanningContext(Restaurant[] restaurants, List<NoFlyZone> noFlyZones, CentralArea centralArea)
+    {
+        this(restaurants, noFlyZones, centralArea, (ResponseCache) null);
+    }
+
+    /**
+     * constructor method for the planning context
+     * (output files are written to the resultfiles folder)
+     * @param restaurants the restaurants available on the PizzaDronz app
+     * @param noFlyZones the no-fly-zones the drones need to avoid
+     * @param centralArea the central area (can be null if it is not needed)
+     * @param responseCache the on-disk cache the orders are read through
+     * (or null to always download them)
+     */
+    public PlanningContext(Restaurant[] restaurants, List<NoFlyZone> noFlyZones, CentralArea centralArea,
+                           ResponseCache responseCache)
+    {
+        this(restaurants, noFlyZones, centralArea, System.getProperty("user.dir") + "/resultfiles", responseCache);
+    }
+
+    /**
+     * constructor method for the planning context
+     * @param restaurants the restaurants available on the PizzaDronz app
+     * @param noFlyZones the no-fly-zones the drones need to avoid
+     * @param centralArea the central area (can be null if it is not needed)
+     * @param outputDirectory the directory the output files are written to
+     */
+    public PlanningContext(Restaurant[] restaurants, List<NoFlyZone> noFlyZones, CentralArea centralArea,
+                           String outputDirectory)
+    {
+        this(restaurants, noFlyZones, centralArea, outputDirectory, null);
+    }
+
+    /**
+     * constructor method for the planning context
+     * @param restaurants the restaurants available on the PizzaDronz app
+     * @param noFlyZones the no-fly-zones the drones need to avoid
+     * @param centralArea the central area (can be null if it is not needed)
+     * @param outputDirectory the directory the output files are written to
+     * @param responseCache the on-disk cache the orders are read through
+     * (or null to always download them)
+     */
+    public PlanningContext(Restaurant[] restaurants, List<NoFlyZone> noFlyZones, CentralArea centralArea,
+                           String outputDirectory, ResponseCache responseCache)
+    {
+        this.restaurants = restaurants;
+        this.menuIndex = new MenuIndex(restaurants);
+        this.noFlyZones = List.copyOf(noFlyZones);
+        this.noFlyZoneIndex = new NoFlyZoneIndex(this.noFlyZones);
+        this.centralArea = centralArea;
+        this.outputDirectory = outputDirectory;
+        this.responseCache = responseCache;
+    }
+
+    // copy constructor used by newRun() (the indexes are shared, not rebuilt)
+    private PlanningContext(PlanningContext other)
+    {
+        this.restaurants = other.restaurants;
+        this.menuIndex = other.menuIndex;
+        this.noFlyZones = other.noFlyZones;
+        this.noFlyZoneIndex = other.noFlyZoneIndex;
+        this.centralArea = other.centralArea;
+        this.outputDirectory = other.outputDirectory;
+        this.responseCache = other.responseCache;
+    }
+
+    /**
+     * creates a planning context with all the data from the REST server
+     * that does not depend on the date (restaurants, no-fly-zones and
+     * the central area, all requested at the same time)
+     * @param baseURL the validated URL from the command line
+     * @return a new planning context, with no orders validated yet
+     */
+    public static PlanningContext fromRestServer(URL baseURL)
+    {
+        return fromRestServer(baseURL, null);
+    }
+
+    /**
+     * creates a planning context with all the data from the REST server
+     * that does not depend on the date, through an on-disk cache
+     * (the orders of its runs are read through the same cache)
+     * @param baseURL the validated URL from the command line
+     * @param responseCache the cache the responses go through (or null to always download them)
+     * @return a new planning context, with no orders validated yet
+     */
+    public static PlanningContext fromRestServer(URL baseURL, ResponseCache responseCache)
+    {
+        return new StartupLoader(baseURL, StartupLoader.DEFAULT_TIMEOUT, responseCache).loadContext();
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the restaurants
+     * @return the restaurants available on the PizzaDronz app
+     */
+    public Restaurant[] getRestaurants()
+    {
+        return restaurants;
+    }
+
+    /**
+     * getter method for the index over the restaurants' menus
+     * @return the index from each pizza to the restaurants selling it
+     */
+    public MenuIndex getMenuIndex()
+    {
+        return menuIndex;
+    }
+
+    /**
+     * getter method for the no-fly-zones
+     * @return the (unmodifiable) list of no-fly-zones
+     */
+    public List<NoFlyZone> getNoFlyZones()
+    {
+        return noFlyZones;
+    }
+
+    /**
+     * getter method for the spatial index over the no-fly-zones
+     * @return the index built from the no-fly-zones of this context
+     */
+    public NoFlyZoneIndex getNoFlyZoneIndex()
+    {
+        return noFlyZoneIndex;
+    }
+
+    /**
+     * getter method for the central area
+     * @return the central area (null if it is not used by this context)
+     */
+    public CentralArea getCentralArea()
+    {
+        return centralArea;
+    }
+
+    /**
+     * getter method for the directory the output files are written to
+     * @return the path of the output directory
+     */
+    public String getOutputDirectory()
+    {
+        return outputDirectory;
+    }
+
+    /**
+     * getter method for the on-disk cache the orders are read through
+     * @return the cache, or null if the orders are always downloaded
+     */
+    public ResponseCache getResponseCache()
+    {
+        return responseCache;
+    }
+
+    /**
+     * getter method for the valid orders of the run
+     * @return a copy of the valid orders, in the order they were validated
+     * (the orders of each call to validateOrders() sorted by order number)
+     */
+    public List<Order> getValidOrders()
+    {
+        synchronized (validOrders)
+        {
+            return new ArrayList<>(validOrders);
+        }
+    }
+
+    /**
+     * getter method for the metrics of the run
+     * @return the phase timings, counters and order planning times of this run
+     */
+    public PlanningMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * creates a planning context for a new run, sharing the restaurants,
+     * no-fly-zones, central area, output directory and response cache with this one
+     * (but none of its orders or metrics)
+     * @return a new planning context, with no orders validated yet
+     */
+    public PlanningContext newRun()
+    {
+        return new PlanningContext(this);
+    }
+
+    /**
+     * validates the given orders against the menus of this context
+     * (updating the outcome of each one, in parallel for large numbers
+     * of orders), and records the valid ones
+     * @param orders the orders to be validated
+     * @return the valid orders, in the same order as they were given
+     */
+    public List<Order> validateOrders(List<Order> orders)
+    {
+        OrderValidationEvent event = new OrderValidationEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        // the valid orders are recorded sorted by order number, so the
+        // record does not depend on how the validation was split up
+        validOrders.addAll(new OrderValidationPipeline(menuIndex).validate(orders));
+        List<Order> validOrdersGiven = new ArrayList<>();
+        for (Order order : orders)
+        {
+            if (order.getOutcome() == OrderOutcome.ValidButNotDelivered)
+            {
+                validOrdersGiven.add(order);
+            }
+        }
+        metrics.addPhaseTime(PlanningMetrics.Phase.VALIDATE, System.nanoTime() - startTime);
+        event.record(orders, validOrdersGiven.size());
+        return validOrdersGiven;
+    }
+
+    /**
+     * validates a single order against the menus of this context
+     * (updating its outcome), and records it if it is valid
+     * @param order the order to be validated
+     * @return true if the order is valid, false otherwise
+     */
+    public boolean validateOrder(Order order)
+    {
+        OrderValidationEvent event = new OrderValidationEvent();
+        event.begin();
+        boolean valid = order.validate(menuIndex);
+        if (valid)
+        {
+            validOrders.add(order);
+        }
+        event.record(order, valid);
+        return valid;
+    }
+
+    /**
+     * retrieves the orders for the given date from the REST server one at
+     * a time, validating each order as soon as it has been read, and
+     * handing the valid ones over straight away (so that planning can
+     * start before the last order has arrived)
+     * @param baseURL the validated URL from the command line
+     * @param date the date of the orders, in the format "yyyy-MM-dd"
+     * @param validOrderConsumer called with each valid order, in the order they are read
+     * @return all the orders for the date (valid or not), in the order they were read
+     */
+    public List<Order> streamOrders(URL baseURL, String date, Consumer<Order> validOrderConsumer)
+    {
+        return streamOrders(OrderStream.open(baseURL, date, responseCache), validOrderConsumer);
+    }
+
+    /**
+     * takes the orders from a stream that is already reading them, validating
+     * each order as soon as it has been read, and handing the valid ones over
+     * straight away (the orders are read on the stream's own thread, while
+     * the calling thread validates them and runs the consumer, so reading the
+     * next orders overlaps with planning; only the time spent waiting for the
+     * next order counts as fetching), and closes the stream
+     * @param orders the stream of orders for the date
+     * @param validOrderConsumer called with each valid order, in the order they are read
+     * @return all the orders for the date (valid or not), in the order they were read
+     */
+    public List<Order> streamOrders(OrderStream orders, Consumer<Order> validOrderConsumer)
+    {
+        List<Order> allOrders = new ArrayList<>();
+        long fetchNanos = 0;
+        long validateNanos = 0;
+        long planNanos = 0;
+        try (orders)
+        {
+            while (true)
+            {
+                long waitStart = System.nanoTime();
+                Order order = orders.next();
+                long validateStart = System.nanoTime();
+                fetchNanos += validateStart - waitStart;
+                if (order == null)
+                {
+                    break;
+                }
+                allOrders.add(order);
+                boolean valid = validateOrder(order);
+                long planStart = System.nanoTime();
+                validateNanos += planStart - validateStart;
+                if (valid)
+                {
+                    validOrderConsumer.accept(order);
+                    planNanos += System.nanoTime() - planStart;
+                }
+            }
+        }
+        metrics.addPhaseTime(PlanningMetrics.Phase.FETCH, fetchNanos);
+        metrics.addPhaseTime(PlanningMetrics.Phase.VALIDATE, validateNanos);
+        metrics.addPhaseTime(PlanningMetrics.Phase.PLAN, planNanos);
+        return allOrders;
+    }
+
+}
@@ -0,0 +1,338 @@
+package uk.ac.ed.inf;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * this class is a lightweight registry of the metrics of a single planning
+ * run (the wall time of each phase, counters of the work done by the path
+ * planners and the drones, and a histogram of how long each order took to
+ * plan), which is written as JSON alongside the result files so that
+ * regressions can be spotted across runs
+ * every method can be called from several threads at the same time
+ * (e.g. by the drones of a fleet)
+ */
+public class PlanningMetrics
+{
+    /**
+     * the phases of a planning run
+     * (when the orders are streamed, the time spent reading them is counted
+     * as fetching, and the time spent validating them as validating)
+     */
+    public enum Phase
+    {
+        // retrieving the data from the REST server
+        FETCH("fetch"),
+        // validating the orders
+        VALIDATE("validate"),
+        // planning the deliveries (including the routes planned ahead)
+        PLAN("plan"),
+        // writing the output files
+        WRITE("write");
+
+        // the name of the phase in the metrics file
+        private final String jsonName;
+
+        Phase(String jsonName)
+        {
+            this.jsonName = jsonName;
+        }
+
+        /**
+         * getter method for the name of the phase in the metrics file
+         * @return the camel case name of the phase
+         */
+        public String getJsonName()
+        {
+            return jsonName;
+        }
+    }
+
+    /**
+     * the counters of a planning run
+     */
+    public enum Counter
+    {
+        // the search nodes expanded by the path planners
+        NODES_EXPANDED("nodesExpanded"),
+        // the no-fly-zone edges a move was tested against
+        NO_FLY_ZONE_EDGE_TESTS("noFlyZoneEdgeTests"),
+        // the candidate moves rejected for ending in, or crossing, a no-fly-zone
+        MOVES_REJECTED("movesRejected"),
+        // the orders delivered by the drones
+        ORDERS_DELIVERED("ordersDelivered");
+
+        // the name of the counter in the metrics file
+        private final String jsonName;
+
+        Counter(String jsonName)
+        {
+            this.jsonName = jsonName;
+        }
+
+        /**
+         * getter method for the name of the counter in the metrics file
+         * @return the camel case name of the counter
+         */
+        public String getJsonName()
+        {
+            return jsonName;
+        }
+    }
+
+    /**
+     * a tally of the counters for work done on a single thread (e.g. one
+     * path search), which is not thread-safe, so it can be updated in the
+     * innermost loops for next to nothing, and is added to the metrics in one go
+     */
+    public static final class Tally
+    {
+        private final long[] counts = new long[Counter.values().length];
+
+        /**
+         * adds one to a counter
+         * @param counter the counter to be incremented
+         */
+        public void increment(Counter counter)
+        {
+            counts[counter.ordinal()]++;
+        }
+
+        /**
+         * adds an amount to a counter
+         * @param counter the counter to be added to
+         * @param amount the amount to be added
+         */
+        public void add(Counter counter, long amount)
+        {
+            counts[counter.ordinal()] += amount;
+        }
+
+        /**
+         * getter method for the value of a counter
+         * @param counter the counter to be read
+         * @return the total added to the counter so far
+         */
+        public long get(Counter counter)
+        {
+            return counts[counter.ordinal()];
+        }
+    }
+
+    /**
+     * the number of buckets in the order planning time histogram
+     * (bucket i holds the times up to 2^i nanoseconds)
+     */
+    public static final int BUCKETS = 64;
+
+    // the wall time of each phase (in nanoseconds), and the value of each counter
+    private final LongAdder[] phaseNanos = newAdders(Phase.values().length);
+    private final LongAdder[] counters = newAdders(Counter.values().length);
+
+    // the histogram of the time taken to plan each order (in nanoseconds)
+    private final AtomicLongArray orderPlanningBuckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder orderPlanningTotalNanos = new LongAdder();
+    private final LongAccumulator orderPlanningMaxNanos = new LongAccumulator(Math::max, 0);
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for the wall time of a phase
+     * @param phase the phase of the run
+     * @return the time spent in the phase so far, in nanoseconds
+     */
+    public long getPhaseNanos(Phase phase)
+    {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * getter method for the value of a counter
+     * @param counter the counter to be read
+     * @return the total added to the counter so far
+     */
+    public long getCount(Counter counter)
+    {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * getter method for the number of orders whose planning time was recorded
+     * @return the number of orders planned (delivered or not)
+     */
+    public long getOrdersPlanned()
+    {
+        long ordersPlanned = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            ordersPlanned += orderPlanningBuckets.get(bucket);
+        }
+        return ordersPlanned;
+    }
+
+    /**
+     * getter method for the total time spent planning orders
+     * @return the sum of the planning times of every order, in nanoseconds
+     */
+    public long getOrderPlanningTotalNanos()
+    {
+        return orderPlanningTotalNanos.sum();
+    }
+
+    /**
+     * getter method for the longest time spent planning a single order
+     * @return the largest planning time recorded, in nanoseconds
+     */
+    public long getOrderPlanningMaxNanos()
+    {
+        return orderPlanningMaxNanos.get();
+    }
+
+    /**
+     * getter method for the number of orders in a bucket of the planning time histogram
+     * @param bucket the bucket, from 0 to 63 (bucket i holds the times
+     *               longer than 2^(i-1) and up to 2^i nanoseconds)
+     * @return the number of orders whose planning time fell in the bucket
+     */
+    public long getOrderPlanningBucket(int bucket)
+    {
+        return orderPlanningBuckets.get(bucket);
+    }
+
+    /**
+     * estimates a percentile of the order planning times from the histogram
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the bucket holding the percentile, in
+     * nanoseconds (so at most twice the real value), or 0 if no order was planned
+     */
+    public long getOrderPlanningPercentileNanos(double percentile)
+    {
+        long ordersPlanned = getOrdersPlanned();
+        if (ordersPlanned == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(ordersPlanned * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            seen += orderPlanningBuckets.get(bucket);
+            if (seen >= rank)
+            {
+                return Math.min(bucketUpperBound(bucket), getOrderPlanningMaxNanos());
+            }
+        }
+        return getOrderPlanningMaxNanos();
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * adds wall time to a phase
+     * @param phase the phase of the run
+     * @param nanos the time spent in the phase, in nanoseconds
+     */
+    public void addPhaseTime(Phase phase, long nanos)
+    {
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    /**
+     * runs a task, adding the time it takes to a phase
+     * @param phase the phase the task belongs to
+     * @param task the task to be run (on the calling thread)
+     */
+    public void time(Phase phase, Runnable task)
+    {
+        long startTime = System.nanoTime();
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            addPhaseTime(phase, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * adds one to a counter
+     * @param counter the counter to be incremented
+     */
+    public void increment(Counter counter)
+    {
+        counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * adds every counter of a tally to the counters of the run
+     * @param tally the tally of the work done on one thread
+     */
+    public void add(Tally tally)
+    {
+        for (Counter counter : Counter.values())
+        {
+            long count = tally.get(counter);
+            if (count != 0)
+            {
+                counters[counter.ordinal()].add(count);
+            }
+        }
+    }
+
+    /**
+     * records the time taken to plan a single order in the histogram
+     * @param nanos the time spent planning the order, in nanoseconds
+     */
+    public void recordOrderPlanningTime(long nanos)
+    {
+        nanos = Math.max(0, nanos);
+        orderPlanningBuckets.incrementAndGet(bucketOf(nanos));
+        orderPlanningTotalNanos.add(nanos);
+        orderPlanningMaxNanos.accumulate(nanos);
+    }
+
+    /**
+     * gives the upper bound of a bucket of the planning time histogram
+     * @param bucket the bucket, from 0 to 63
+     * @return the longest time held by the bucket, in nanoseconds
+     */
+    public static long bucketUpperBound(int bucket)
+    {
+        return (bucket == BUCKETS - 1) ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    // the bucket a time falls in (the smallest i such that the time is at most 2^i)
+    private static int bucketOf(long nanos)
+    {
+        return (nanos <= 1) ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+    }
+
+    private static LongAdder[] newAdders(int count)
+    {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++)
+        {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * writes the metrics of the run to the appropriate JSON file
+     * (next to the deliveries and flight path files of the same date)
+     * @param date the date of the flight plan
+     * @param context the planning context of the run (giving the output directory)
+     */
+    public void writeMetricsToJson(String date, PlanningContext context)
+    {
+        JsonFileWriter fileWriter = new JsonFileWriter(context);
+        fileWriter.writeMetricsToJSON(this, date);
+    }
+
+}
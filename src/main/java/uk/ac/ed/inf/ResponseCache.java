@@ -0,0 +1,386 @@
+package uk.ac.ed.inf;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * this class is used to keep a copy of the REST server's responses
+ * on disk (keyed by URL), so that data which rarely changes is only
+ * downloaded again when the server says it has changed (using the
+ * ETag and Last-Modified headers), and so that a run can also be
+ * done fully offline from the stored copies
+ */
+public class ResponseCache
+{
+    // the system properties used to set up the cache from the command line
+    public static final String DIRECTORY_PROPERTY = "pizzadronz.cacheDir";
+    public static final String OFFLINE_PROPERTY = "pizzadronz.offline";
+
+    // the names of the fields stored alongside each response
+    private static final String URL_FIELD = "url";
+    private static final String ETAG_FIELD = "etag";
+    private static final String LAST_MODIFIED_FIELD = "lastModified";
+
+    // the directory the responses are stored in
+    private final Path directory;
+
+    // whether the server is never contacted (only stored responses are used)
+    private final boolean offline;
+
+    // the number of responses served from disk, and downloaded from the server
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the response cache
+     * @param directory the directory the responses are stored in
+     * (created if it does not exist yet)
+     * @param offline true if only the stored responses should be used
+     */
+    public ResponseCache(Path directory, boolean offline)
+    {
+        this.directory = directory;
+        this.offline = offline;
+        try
+        {
+            Files.createDirectories(directory);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * creates a response cache from the system properties
+     * ("pizzadronz.cacheDir" for the directory, and "pizzadronz.offline"
+     * set to true to run without contacting the server)
+     * @return the response cache, or null if no cache directory was given
+     */
+    public static ResponseCache fromSystemProperties()
+    {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isBlank())
+        {
+            return null;
+        }
+        return new ResponseCache(Path.of(directory), Boolean.getBoolean(OFFLINE_PROPERTY));
+    }
+
+    // =========================================================================
+    // ================================ GETTERS ================================
+    // =========================================================================
+
+    /**
+     * getter method for whether the cache runs offline
+     * @return true if the server is never contacted
+     */
+    public boolean isOffline()
+    {
+        return offline;
+    }
+
+    /**
+     * getter method for the number of responses served from disk
+     * (either offline, or after the server said they had not changed)
+     * @return the number of cache hits so far
+     */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /**
+     * getter method for the number of responses downloaded in full
+     * @return the number of downloads so far
+     */
+    public long getDownloads()
+    {
+        return downloads.get();
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * returns the body of the response for the given URL, only downloading
+     * it again if the stored copy is missing or out of date
+     * (if the server cannot be reached, the stored copy is used instead)
+     * @param url the full URL of the data to be retrieved
+     * @return the body of the response
+     * @throws IOException if there is no stored copy, and the server
+     * cannot be reached (or the cache is offline)
+     */
+    public byte[] fetch(URL url) throws IOException
+    {
+        try (InputStream in = open(url))
+        {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * opens the body of the response for the given URL as a stream, only
+     * downloading it again if the stored copy is missing or out of date
+     * (a stored copy is read straight from its file, and a download is
+     * stored on disk as it is read, so the body is never held in memory)
+     * @param url the full URL of the data to be retrieved
+     * @return the body of the response (to be closed by the caller, and only
+     * stored once the stream is closed, after the whole body has been read)
+     * @throws IOException if there is no stored copy, and the server
+     * cannot be reached (or the cache is offline)
+     */
+    public InputStream open(URL url) throws IOException
+    {
+        String key = keyFor(url);
+        Path bodyFile = directory.resolve(key + ".json");
+        Path metadataFile = directory.resolve(key + ".properties");
+        boolean stored = Files.exists(bodyFile) && Files.exists(metadataFile);
+        if (offline)
+        {
+            if (!stored)
+            {
+                throw new IOException("No stored response for " + url + " (the cache is offline)");
+            }
+            hits.incrementAndGet();
+            return Files.newInputStream(bodyFile);
+        }
+        Properties metadata = stored ? readMetadata(metadataFile) : new Properties();
+        try
+        {
+            URLConnection connection = RetrieveData.openConnection(url);
+            if (!(connection instanceof HttpURLConnection httpConnection))
+            {
+                // e.g. a file: URL, which is already on disk
+                return connection.getInputStream();
+            }
+            // ask the server to only send the data if it has changed
+            if (stored && metadata.getProperty(ETAG_FIELD) != null)
+            {
+                httpConnection.setRequestProperty("If-None-Match", metadata.getProperty(ETAG_FIELD));
+            }
+            if (stored && metadata.getProperty(LAST_MODIFIED_FIELD) != null)
+            {
+                httpConnection.setRequestProperty("If-Modified-Since", metadata.getProperty(LAST_MODIFIED_FIELD));
+            }
+            try
+            {
+                if (stored && httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED)
+                {
+                    httpConnection.disconnect();
+                    hits.incrementAndGet();
+                    return Files.newInputStream(bodyFile);
+                }
+                InputStream body = new StoringInputStream(httpConnection, url, bodyFile, metadataFile);
+                downloads.incrementAndGet();
+                return body;
+            }
+            catch (IOException e)
+            {
+                httpConnection.disconnect();
+                throw e;
+            }
+        }
+        catch (IOException e)
+        {
+            if (!stored)
+            {
+                throw e;
+            }
+            // the server cannot be reached, so fall back to the stored copy
+            hits.incrementAndGet();
+            return Files.newInputStream(bodyFile);
+        }
+    }
+
+    // reads the fields stored alongside a response
+    // @param metadataFile the file the fields are stored in
+    // @return the stored fields
+    private static Properties readMetadata(Path metadataFile) throws IOException
+    {
+        Properties metadata = new Properties();
+        try (Reader reader = Files.newBufferedReader(metadataFile, StandardCharsets.UTF_8))
+        {
+            metadata.load(reader);
+        }
+        return metadata;
+    }
+
+    // stores a response on disk (each file is written to a temporary
+    // file first and then moved into place, so that a run reading the
+    // cache at the same time never sees a half-written file)
+    // @param url the full URL the response came from
+    // @param bodyFile the file the body is stored in
+    // @param metadataFile the file the validators are stored in
+    // @param bodyTemp the temporary file the whole body has been written to
+    // @param etag the ETag header of the response (can be null)
+    // @param lastModified the Last-Modified header of the response (can be null)
+    private void store(URL url, Path bodyFile, Path metadataFile, Path bodyTemp, String etag, String lastModified)
+            throws IOException
+    {
+        Properties metadata = new Properties();
+        metadata.setProperty(URL_FIELD, url.toString());
+        if (etag != null)
+        {
+            metadata.setProperty(ETAG_FIELD, etag);
+        }
+        if (lastModified != null)
+        {
+            metadata.setProperty(LAST_MODIFIED_FIELD, lastModified);
+        }
+        Files.move(bodyTemp, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Path metadataTemp = Files.createTempFile(directory, "response", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(metadataTemp, StandardCharsets.UTF_8))
+        {
+            metadata.store(writer, null);
+        }
+        Files.move(metadataTemp, metadataFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // the name the response for the given URL is stored under
+    // @param url the full URL of the data
+    // @return the SHA-256 hash of the URL, in hexadecimal
+    private static String keyFor(URL url)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    // the body of a response being downloaded, copied to a temporary file
+    // as it is read, and stored in the cache when the stream is closed
+    // (whatever the caller did not read is read first, so the whole body
+    // is stored, and nothing is stored if the download fails)
+    private final class StoringInputStream extends FilterInputStream
+    {
+        private final HttpURLConnection connection;
+        private final URL url;
+        private final Path bodyFile;
+        private final Path metadataFile;
+        private final Path bodyTemp;
+        private final OutputStream copy;
+        private boolean closed;
+
+        private StoringInputStream(HttpURLConnection connection, URL url, Path bodyFile, Path metadataFile)
+                throws IOException
+        {
+            super(connection.getInputStream());
+            this.connection = connection;
+            this.url = url;
+            this.bodyFile = bodyFile;
+            this.metadataFile = metadataFile;
+            this.bodyTemp = Files.createTempFile(directory, "response", ".tmp");
+            this.copy = Files.newOutputStream(bodyTemp);
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int b = in.read();
+            if (b != -1)
+            {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException
+        {
+            int read = in.read(bytes, offset, length);
+            if (read > 0)
+            {
+                copy.write(bytes, offset, read);
+            }
+            return read;
+        }
+
+        // skipped bytes are still read, so that they are copied too
+        @Override
+        public long skip(long length) throws IOException
+        {
+            byte[] buffer = new byte[(int) Math.min(8192, Math.max(0, length))];
+            long skipped = 0;
+            while (skipped < length)
+            {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, length - skipped));
+                if (read <= 0)
+                {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        // going back would copy the same bytes twice
+        @Override
+        public boolean markSupported()
+        {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            boolean complete = false;
+            try
+            {
+                byte[] buffer = new byte[8192];
+                while (read(buffer, 0, buffer.length) != -1)
+                {
+                    // the rest of the body is only read to be stored
+                }
+                copy.close();
+                store(url, bodyFile, metadataFile, bodyTemp,
+                        connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+                complete = true;
+            }
+            finally
+            {
+                copy.close();
+                in.close();
+                connection.disconnect();
+                if (!complete)
+                {
+                    Files.deleteIfExists(bodyTemp);
+                }
+            }
+        }
+    }
+
+}
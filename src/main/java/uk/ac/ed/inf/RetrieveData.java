@@ -1,8 +1,16 @@
 package uk.ac.ed.inf;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
 import java.net.URL;
+import java.net.URLConnection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * this class is used to retrieve data
@@ -10,6 +18,30 @@ import java.net.URL;
  */
 public class RetrieveData
 {
+    // how long to wait for the REST server to accept a connection,
+    // and to send the next part of its response (in milliseconds)
+    static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    static final int READ_TIMEOUT_MILLIS = 30_000;
+
+    // the mapper shared by every call (it is thread-safe once configured,
+    // and keeps Jackson's deserializer caches between calls)
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // the readers built so far, one for each type of data requested
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    /**
+     * returns the shared reader for the given type, building it the
+     * first time the type is asked for
+     * @param typeReference the type of the object (or list of objects) to be read
+     * @return the (thread-safe) reader for that type
+     */
+    public static ObjectReader readerFor(TypeReference<?> typeReference)
+    {
+        return READERS.computeIfAbsent(typeReference.getType(),
+                type -> MAPPER.readerFor(MAPPER.constructType(type)));
+    }
+
     /**
      * generic method for retrieving the data from the REST server
      * for each individual class
@@ -20,11 +52,114 @@ public class RetrieveData
      * @return the data from the REST server in the specified format
      */
     public static <T> T getData(URL baseURL, String extension, TypeReference<T> typeReference)
+    {
+        return getData(baseURL, extension, typeReference, null);
+    }
+
+    /**
+     * generic method for retrieving the data from the REST server
+     * for each individual class, through an on-disk cache
+     * @param baseURL the base REST server
+     * @param extension the necessary extension (depends on the class)
+     * @param typeReference the type of the object (or list of objects) to be returned
+     * @param cache the cache the response goes through (or null to always download it)
+     * @param <T> allows for multiple classes to use this method
+     * @return the data from the REST server in the specified format
+     */
+    public static <T> T getData(URL baseURL, String extension, TypeReference<T> typeReference, ResponseCache cache)
+    {
+        try
+        {
+            URL url = new URL(baseURL.toString() + extension);
+            try (InputStream in = (cache != null) ? cache.open(url) : openConnection(url).getInputStream())
+            {
+                return readerFor(typeReference).readValue(in);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * generic method for retrieving a list of data from the REST server
+     * one element at a time, handing each element over as soon as it has
+     * been read (so the whole list never has to be read in first)
+     * @param baseURL the base REST server
+     * @param extension the necessary extension (depends on the class)
+     * @param elementType the type of each element of the list
+     * @param consumer called with each element, in the order they are read
+     * @param <T> allows for multiple classes to use this method
+     * @return the number of elements read
+     */
+    public static <T> int streamData(URL baseURL, String extension, TypeReference<T> elementType,
+                                     Consumer<? super T> consumer)
+    {
+        return streamData(baseURL, extension, elementType, null, consumer);
+    }
+
+    /**
+     * generic method for retrieving a list of data from the REST server
+     * one element at a time, through an on-disk cache
+     * @param baseURL the base REST server
+     * @param extension the necessary extension (depends on the class)
+     * @param elementType the type of each element of the list
+     * @param cache the cache the response goes through (or null to always download it)
+     * @param consumer called with each element, in the order they are read
+     * @param <T> allows for multiple classes to use this method
+     * @return the number of elements read
+     */
+    public static <T> int streamData(URL baseURL, String extension, TypeReference<T> elementType,
+                                     ResponseCache cache, Consumer<? super T> consumer)
+    {
+        try
+        {
+            URL url = new URL(baseURL.toString() + extension);
+            // (a cached response is read straight from its file, never buffered whole)
+            InputStream in = (cache != null) ? cache.open(url) : openConnection(url).getInputStream();
+            // the reader steps into the top-level array, and reads its elements one by one
+            try (in; MappingIterator<T> elements = readerFor(elementType).readValues(in))
+            {
+                int count = 0;
+                while (elements.hasNextValue())
+                {
+                    consumer.accept(elements.nextValue());
+                    count++;
+                }
+                return count;
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // opens a connection to the given URL, with the connect and read timeouts set
+    // @param url the full URL of the data to be retrieved
+    // @return the (not yet connected) connection
+    static URLConnection openConnection(URL url) throws IOException
+    {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        return connection;
+    }
+
+    /**
+     * generic method for reading data in the same format as the REST server
+     * from a JSON string (e.g. a saved response)
+     * @param json the JSON text to be read
+     * @param typeReference the type of the object (or list of objects) to be returned
+     * @param <T> allows for multiple classes to use this method
+     * @return the data in the specified format
+     */
+    public static <T> T parseData(String json, TypeReference<T> typeReference)
     {
         try
         {
-            return new ObjectMapper().readValue(new URL(baseURL.toString() + extension),
-                    typeReference);
+            return readerFor(typeReference).readValue(json);
         }
         catch (IOException e)
         {
@@ -0,0 +1,64 @@
+package uk.ac.ed.inf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * this class is the Java Flight Recorder event for planning the round trip
+ * to a restaurant (the path planner's search), so the path planning frames
+ * in a profile can be matched up with the restaurant, and the order that
+ * first needed the route (each restaurant is only planned for once per drone)
+ */
+@Name("uk.ac.ed.inf.RoutePlanning")
+@Label("Route Planning")
+@Category({"PizzaDronz", "Planning"})
+@Description("The round trip to a restaurant being planned by a drone")
+@StackTrace(false)
+public class RoutePlanningEvent extends Event
+{
+    // the date of the flight plan, and the order the route was first needed for
+    @Label("Order Date")
+    String orderDate;
+
+    @Label("Order Number")
+    String orderNo;
+
+    // the name of the restaurant the route goes to
+    @Label("Restaurant")
+    String restaurant;
+
+    // the number of moves in the round trip (including both hovers,
+    // or -1 if no route could be found)
+    @Label("Moves")
+    int moves;
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * ends the event, and records it for the round trip to a restaurant
+     * (if the event is being recorded, and took long enough)
+     * @param orderDate the date of the flight plan
+     * @param orderNo the order the route was first needed for
+     * @param restaurant the restaurant the route goes to
+     * @param moves the number of moves in the round trip, or -1 if there is no path
+     */
+    public void record(String orderDate, String orderNo, Restaurant restaurant, int moves)
+    {
+        end();
+        if (shouldCommit())
+        {
+            this.orderDate = orderDate;
+            this.orderNo = orderNo;
+            this.restaurant = restaurant.getName();
+            this.moves = moves;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package uk.ac.ed.inf;
+
+/**
+ * an enum class indicating what the drone tries to maximise
+ * when choosing which orders to deliver with its battery
+ */
+public enum SelectionObjective
+{
+    // deliver as many orders as possible
+    ORDER_COUNT,
+    // collect as much money (delivery cost, in pence) as possible
+    REVENUE
+}
@@ -0,0 +1,154 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * this class is used to retrieve everything a run needs from the
+ * REST server at startup (the restaurants, the no-fly-zones, the
+ * central area and the orders), sending all the requests at the same
+ * time, so that startup only takes as long as the slowest request
+ * (the orders keep streaming in after the rest has been retrieved)
+ */
+public class StartupLoader
+{
+    /**
+     * how long to wait for all the requests by default
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    // the validated URL of the REST server
+    private final URL baseURL;
+
+    // how long to wait for all the requests to finish
+    private final Duration timeout;
+
+    // the on-disk cache the responses go through (null to always download them)
+    private final ResponseCache responseCache;
+
+    /**
+     * the data retrieved at startup
+     * @param context the planning context, with the central area already retrieved
+     * @param orders the stream of orders for the given date, still being read
+     * (null if no date was given)
+     */
+    public record StartupData(PlanningContext context, OrderStream orders) {}
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the startup loader
+     * @param baseURL the validated URL from the command line
+     * @param timeout how long to wait for all the requests to finish
+     */
+    public StartupLoader(URL baseURL, Duration timeout)
+    {
+        this(baseURL, timeout, null);
+    }
+
+    /**
+     * constructor method for the startup loader
+     * (the planning context it loads reads its orders through the same cache)
+     * @param baseURL the validated URL from the command line
+     * @param timeout how long to wait for all the requests to finish
+     * @param responseCache the on-disk cache the responses go through
+     * (or null to always download them)
+     */
+    public StartupLoader(URL baseURL, Duration timeout, ResponseCache responseCache)
+    {
+        this.baseURL = baseURL;
+        this.timeout = timeout;
+        this.responseCache = responseCache;
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    /**
+     * retrieves the restaurants, the no-fly-zones and the central area
+     * at the same time
+     * @return a new planning context, with no orders validated yet
+     */
+    public PlanningContext loadContext()
+    {
+        return load(null).context();
+    }
+
+    /**
+     * retrieves the restaurants, the no-fly-zones and the central area at
+     * the same time, while the orders for the given date start streaming in
+     * @param date the date of the orders, in the format "yyyy-MM-dd"
+     * (or null if the orders are not needed)
+     * @return the planning context (with the time taken recorded as its
+     * fetch phase), and the stream of orders for the date, to be handed to
+     * the context once it is loaded (null if no date was given)
+     */
+    public StartupData load(String date)
+    {
+        // the orders are requested first, and read on their own thread
+        OrderStream orders = (date == null) ? null : OrderStream.open(baseURL, date, responseCache);
+        boolean loaded = false;
+        // one thread for each of the other three requests, so that they are
+        // all in flight together with the orders
+        ExecutorService executor = Executors.newFixedThreadPool(3, runnable ->
+        {
+            Thread thread = new Thread(runnable, "startup-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startTime = System.nanoTime();
+        try
+        {
+            CompletableFuture<List<Restaurant>> restaurants = CompletableFuture.supplyAsync(
+                    () -> RetrieveData.getData(baseURL, "/restaurants", new TypeReference<>(){}, responseCache),
+                    executor);
+            CompletableFuture<List<NoFlyZone>> noFlyZones = CompletableFuture.supplyAsync(
+                    () -> RetrieveData.getData(baseURL, "/noFlyZones", new TypeReference<>(){}, responseCache),
+                    executor);
+            CompletableFuture<CentralArea> centralArea = CompletableFuture.supplyAsync(
+                    () -> new CentralArea(RetrieveData.getData(baseURL, "/centralArea",
+                            new TypeReference<List<LngLat>>(){}, responseCache)), executor);
+            CompletableFuture.allOf(restaurants, noFlyZones, centralArea)
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            PlanningContext context = new PlanningContext(restaurants.join().toArray(new Restaurant[0]),
+                    noFlyZones.join(), centralArea.join(), responseCache);
+            context.getMetrics().addPhaseTime(PlanningMetrics.Phase.FETCH, System.nanoTime() - startTime);
+            loaded = true;
+            return new StartupData(context, orders);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new RuntimeException(e.getCause());
+        }
+        catch (TimeoutException e)
+        {
+            throw new RuntimeException("The REST server did not respond within " + timeout.toMillis() + " ms", e);
+        }
+        finally
+        {
+            executor.shutdownNow();
+            if (!loaded && orders != null)
+            {
+                orders.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,475 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * this class is used to generate synthetic data for scale testing the
+ * planner (restaurants with menus, no-fly-zones, a central area, and the
+ * orders for any date), in the same JSON format as the REST server
+ * the data only depends on the seed and the sizes given, so the same
+ * workload can be generated again (or served one date at a time)
+ * it can also be run from the command line, writing a folder laid out
+ * like the REST server, which can then be used in place of its URL
+ * (e.g. "file:/tmp/workload")
+ */
+public class WorkloadGenerator
+{
+    // the factory for the streaming generators (thread-safe, and shared)
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // the size of the buffer between the generator and the output
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // the drones start from, and return to, Appleton Tower (the centre of the map)
+    private static final double CENTRE_LNG = -3.186874;
+    private static final double CENTRE_LAT = 55.944494;
+
+    // the number of vertices of each (closed) no-fly-zone polygon
+    private static final int ZONE_VERTICES = 8;
+
+    // the share of the orders that are invalid (as in the 2023 data: 7 out of 47)
+    private static final double INVALID_SHARE = 7.0 / 47.0;
+
+    // the invalid outcomes, given out in turn to the invalid orders
+    private static final OrderOutcome[] INVALID_OUTCOMES = {
+            OrderOutcome.InvalidCardNumber, OrderOutcome.InvalidExpiryDate, OrderOutcome.InvalidCvv,
+            OrderOutcome.InvalidTotal, OrderOutcome.InvalidPizzaNotDefined, OrderOutcome.InvalidPizzaCount,
+            OrderOutcome.InvalidPizzaCombinationMultipleSuppliers};
+
+    // the customers the orders are placed by
+    private static final String[] CUSTOMERS = {"Gaston Lagaffe", "Harlan Kimery", "Ginette Fetter",
+            "Shane Hartig", "Dan Tamayo", "Anya Herbold", "Margot Hurtado", "Ethan Rubio"};
+
+    // the seed all the data is generated from
+    private final long seed;
+
+    // the number of orders generated for each date
+    private final int ordersPerDay;
+
+    // half the width (and height) of the map, in degrees
+    private final double halfSide;
+
+    // the vertices of each no-fly-zone
+    private final double[][] zoneLngs;
+    private final double[][] zoneLats;
+
+    // the location of each restaurant (never inside a no-fly-zone)
+    private final double[] restaurantLngs;
+    private final double[] restaurantLats;
+
+    // the pizzas on the menu of each restaurant, and their prices
+    private final String[][] menuNames;
+    private final int[][] menuPrices;
+
+    // =========================================================================
+    // ============================= CONSTRUCTOR ===============================
+    // =========================================================================
+
+    /**
+     * constructor method for the workload generator
+     * (the map grows with the number of no-fly-zones, keeping them
+     * about as dense as they are around the campus)
+     * @param seed the seed all the data is generated from
+     * @param numberOfRestaurants the number of restaurants
+     * @param numberOfNoFlyZones the number of no-fly-zones
+     * @param ordersPerDay the number of orders generated for each date
+     */
+    public WorkloadGenerator(long seed, int numberOfRestaurants, int numberOfNoFlyZones, int ordersPerDay)
+    {
+        if (numberOfRestaurants < 2 || numberOfNoFlyZones < 0 || ordersPerDay < 0)
+        {
+            throw new IllegalArgumentException("At least two restaurants, and no negative sizes, are needed");
+        }
+        this.seed = seed;
+        this.ordersPerDay = ordersPerDay;
+        this.halfSide = 0.01 + 0.002 * Math.sqrt(numberOfNoFlyZones);
+        zoneLngs = new double[numberOfNoFlyZones][];
+        zoneLats = new double[numberOfNoFlyZones][];
+        generateNoFlyZones(new Random(seed));
+        restaurantLngs = new double[numberOfRestaurants];
+        restaurantLats = new double[numberOfRestaurants];
+        menuNames = new String[numberOfRestaurants][];
+        menuPrices = new int[numberOfRestaurants][];
+        generateRestaurants(new Random(seed + 1));
+    }
+
+    // =========================================================================
+    // ========================== OTHER CLASS METHODS ==========================
+    // =========================================================================
+
+    // scatters the no-fly-zones over the map (as irregular octagons),
+    // keeping Appleton Tower out of all of them
+    // @param random the source of randomness for the no-fly-zones
+    private void generateNoFlyZones(Random random)
+    {
+        int zone = 0;
+        while (zone < zoneLngs.length)
+        {
+            double centreLng = CENTRE_LNG + (random.nextDouble() * 2 - 1) * halfSide;
+            double centreLat = CENTRE_LAT + (random.nextDouble() * 2 - 1) * halfSide;
+            double radius = 0.0002 + random.nextDouble() * 0.0004;
+            double[] lngs = new double[ZONE_VERTICES + 1];
+            double[] lats = new double[ZONE_VERTICES + 1];
+            for (int vertex = 0; vertex < ZONE_VERTICES; vertex++)
+            {
+                double angle = 2 * Math.PI * vertex / ZONE_VERTICES;
+                double distance = radius * (0.7 + 0.3 * random.nextDouble());
+                lngs[vertex] = centreLng + distance * Math.cos(angle);
+                lats[vertex] = centreLat + distance * Math.sin(angle);
+            }
+            // the polygon is closed, like the ones from the REST server
+            lngs[ZONE_VERTICES] = lngs[0];
+            lats[ZONE_VERTICES] = lats[0];
+            if (!LngLat.inArea(CENTRE_LNG, CENTRE_LAT, lngs, lats))
+            {
+                zoneLngs[zone] = lngs;
+                zoneLats[zone] = lats;
+                zone++;
+            }
+        }
+    }
+
+    // scatters the restaurants over the map (outside the no-fly-zones),
+    // each with between two and four pizzas, which no other restaurant sells
+    // @param random the source of randomness for the restaurants
+    private void generateRestaurants(Random random)
+    {
+        for (int restaurant = 0; restaurant < restaurantLngs.length; restaurant++)
+        {
+            do
+            {
+                restaurantLngs[restaurant] = CENTRE_LNG + (random.nextDouble() * 2 - 1) * halfSide;
+                restaurantLats[restaurant] = CENTRE_LAT + (random.nextDouble() * 2 - 1) * halfSide;
+            }
+            while (inNoFlyZone(restaurantLngs[restaurant], restaurantLats[restaurant]));
+            int menuSize = 2 + random.nextInt(3);
+            menuNames[restaurant] = new String[menuSize];
+            menuPrices[restaurant] = new int[menuSize];
+            for (int pizza = 0; pizza < menuSize; pizza++)
+            {
+                menuNames[restaurant][pizza] = String.format("Pizza %04d-%d", restaurant, pizza + 1);
+                menuPrices[restaurant][pizza] = 100 * (5 + random.nextInt(11));
+            }
+        }
+    }
+
+    // checks if a location is inside any of the no-fly-zones
+    private boolean inNoFlyZone(double lng, double lat)
+    {
+        for (int zone = 0; zone < zoneLngs.length; zone++)
+        {
+            if (LngLat.inArea(lng, lat, zoneLngs[zone], zoneLats[zone]))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * writes the restaurants, in the format of the "/restaurants" endpoint
+     * @param out where the JSON is written to (left open)
+     * @throws IOException if the JSON could not be written
+     */
+    public void writeRestaurants(OutputStream out) throws IOException
+    {
+        try (JsonGenerator generator = openGenerator(out))
+        {
+            generator.writeStartArray();
+            for (int restaurant = 0; restaurant < restaurantLngs.length; restaurant++)
+            {
+                generator.writeStartObject();
+                generator.writeStringField("name", String.format("Restaurant %04d", restaurant));
+                generator.writeNumberField("longitude", restaurantLngs[restaurant]);
+                generator.writeNumberField("latitude", restaurantLats[restaurant]);
+                generator.writeArrayFieldStart("menu");
+                for (int pizza = 0; pizza < menuNames[restaurant].length; pizza++)
+                {
+                    generator.writeStartObject();
+                    generator.writeStringField("name", menuNames[restaurant][pizza]);
+                    generator.writeNumberField("priceInPence", menuPrices[restaurant][pizza]);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * writes the no-fly-zones, in the format of the "/noFlyZones" endpoint
+     * @param out where the JSON is written to (left open)
+     * @throws IOException if the JSON could not be written
+     */
+    public void writeNoFlyZones(OutputStream out) throws IOException
+    {
+        try (JsonGenerator generator = openGenerator(out))
+        {
+            generator.writeStartArray();
+            for (int zone = 0; zone < zoneLngs.length; zone++)
+            {
+                generator.writeStartObject();
+                generator.writeStringField("name", String.format("No-Fly-Zone %04d", zone));
+                generator.writeArrayFieldStart("coordinates");
+                for (int vertex = 0; vertex < zoneLngs[zone].length; vertex++)
+                {
+                    generator.writeStartArray();
+                    generator.writeNumber(zoneLngs[zone][vertex]);
+                    generator.writeNumber(zoneLats[zone][vertex]);
+                    generator.writeEndArray();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * writes the central area (a square around Appleton Tower, covering
+     * a third of the map), in the format of the "/centralArea" endpoint
+     * @param out where the JSON is written to (left open)
+     * @throws IOException if the JSON could not be written
+     */
+    public void writeCentralArea(OutputStream out) throws IOException
+    {
+        double half = halfSide / 3;
+        double[][] corners = {{-half, half}, {half, half}, {half, -half}, {-half, -half}};
+        try (JsonGenerator generator = openGenerator(out))
+        {
+            generator.writeStartArray();
+            for (int corner = 0; corner < corners.length; corner++)
+            {
+                generator.writeStartObject();
+                generator.writeStringField("name", "Corner " + (corner + 1));
+                generator.writeNumberField("longitude", CENTRE_LNG + corners[corner][0]);
+                generator.writeNumberField("latitude", CENTRE_LAT + corners[corner][1]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * writes the orders for a given date, in the format of the
+     * "/orders/{date}" endpoint (one order at a time, so any number
+     * of orders can be written without keeping them in memory)
+     * about one order in seven is invalid, with each kind of invalid
+     * order given out in turn
+     * @param date the date of the orders, in the format "yyyy-MM-dd"
+     * @param out where the JSON is written to (left open)
+     * @throws IOException if the JSON could not be written
+     */
+    public void writeOrders(String date, OutputStream out) throws IOException
+    {
+        LocalDate orderDate = LocalDate.parse(date);
+        // every date has its own orders, whatever order the dates are generated in
+        Random random = new Random(seed ^ (orderDate.toEpochDay() * 0x9E3779B97F4A7C15L));
+        int orderNumberSalt = random.nextInt();
+        int invalidOrders = 0;
+        try (JsonGenerator generator = openGenerator(out))
+        {
+            generator.writeStartArray();
+            for (int order = 0; order < ordersPerDay; order++)
+            {
+                // multiplying by an odd number never maps two orders to the same number
+                String orderNo = String.format("%08X", order * 0x9E3779B1 ^ orderNumberSalt);
+                OrderOutcome invalidOutcome = (random.nextDouble() < INVALID_SHARE)
+                        ? INVALID_OUTCOMES[invalidOrders++ % INVALID_OUTCOMES.length] : null;
+                writeOrder(generator, random, orderNo, orderDate, invalidOutcome);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    // writes one order, made invalid in the given way
+    // @param generator the generator the order is written with
+    // @param random the source of randomness for the orders of the date
+    // @param orderNo the (unique) number of the order
+    // @param orderDate the date of the order
+    // @param invalidOutcome the outcome the order should be validated to, or null for a valid order
+    private void writeOrder(JsonGenerator generator, Random random, String orderNo, LocalDate orderDate,
+                            OrderOutcome invalidOutcome) throws IOException
+    {
+        int restaurant = random.nextInt(restaurantLngs.length);
+        List<String> items = new ArrayList<>();
+        int total = 100;
+        int lastPrice = 0;
+        int numberOfItems = 1 + random.nextInt(4);
+        for (int item = 0; item < numberOfItems; item++)
+        {
+            int pizza = random.nextInt(menuNames[restaurant].length);
+            items.add(menuNames[restaurant][pizza]);
+            lastPrice = menuPrices[restaurant][pizza];
+            total += lastPrice;
+        }
+        String cardNumber = randomCardNumber(random);
+        LocalDate expiry = orderDate.plusMonths(1 + random.nextInt(48));
+        String cvv = String.format("%03d", random.nextInt(1000));
+        if (invalidOutcome != null)
+        {
+            switch (invalidOutcome)
+            {
+                case InvalidCardNumber -> cardNumber = cardNumber.substring(1);
+                case InvalidExpiryDate -> expiry = orderDate.minusMonths(1 + random.nextInt(24));
+                case InvalidCvv -> cvv = cvv.substring(1);
+                case InvalidTotal -> total += 100 * (1 + random.nextInt(10));
+                case InvalidPizzaNotDefined -> items.set(0, "Pizza-Surprise " + random.nextInt());
+                case InvalidPizzaCount ->
+                {
+                    while (items.size() <= 4)
+                    {
+                        items.add(menuNames[restaurant][0]);
+                        total += menuPrices[restaurant][0];
+                    }
+                }
+                case InvalidPizzaCombinationMultipleSuppliers ->
+                {
+                    int otherRestaurant = (restaurant + 1 + random.nextInt(restaurantLngs.length - 1))
+                            % restaurantLngs.length;
+                    // an order that already has 4 pizzas swaps its last one instead
+                    // (so it does not also have too many pizzas)
+                    if (items.size() == 4)
+                    {
+                        items.remove(3);
+                        total -= lastPrice;
+                    }
+                    items.add(menuNames[otherRestaurant][0]);
+                    total += menuPrices[otherRestaurant][0];
+                }
+                default -> throw new IllegalArgumentException("Not an invalid outcome: " + invalidOutcome);
+            }
+        }
+        generator.writeStartObject();
+        generator.writeStringField("orderNo", orderNo);
+        generator.writeStringField("orderDate", orderDate.toString());
+        generator.writeStringField("customer", CUSTOMERS[random.nextInt(CUSTOMERS.length)]);
+        generator.writeStringField("creditCardNumber", cardNumber);
+        generator.writeStringField("creditCardExpiry",
+                String.format("%02d/%02d", expiry.getMonthValue(), expiry.getYear() % 100));
+        generator.writeStringField("cvv", cvv);
+        generator.writeNumberField("priceTotalInPence", total);
+        generator.writeArrayFieldStart("orderItems");
+        for (String item : items)
+        {
+            generator.writeString(item);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    // creates a random 16 digit Visa number, with a valid Luhn checksum
+    // @param random the source of randomness
+    // @return the card number
+    private static String randomCardNumber(Random random)
+    {
+        int[] digits = new int[16];
+        digits[0] = 4;
+        for (int i = 1; i < 15; i++)
+        {
+            digits[i] = random.nextInt(10);
+        }
+        // the check digit makes the Luhn sum (doubling every second digit from the end) a multiple of 10
+        int luhnSum = 0;
+        for (int i = 14; i >= 0; i--)
+        {
+            int digit = ((i & 1) == 0) ? digits[i] * 2 : digits[i];
+            luhnSum += (digit > 9) ? digit - 9 : digit;
+        }
+        digits[15] = (10 - luhnSum % 10) % 10;
+        StringBuilder number = new StringBuilder(16);
+        for (int digit : digits)
+        {
+            number.append(digit);
+        }
+        return number.toString();
+    }
+
+    /**
+     * writes the whole workload to a folder laid out like the REST server
+     * (restaurants, noFlyZones, centralArea, and orders/{date} for each date)
+     * @param directory the folder the files are written to (created if needed)
+     * @param dates the dates orders are generated for, in the format "yyyy-MM-dd"
+     * @throws IOException if the files could not be written
+     */
+    public void writeTo(Path directory, List<String> dates) throws IOException
+    {
+        Files.createDirectories(directory.resolve("orders"));
+        try (OutputStream out = Files.newOutputStream(directory.resolve("restaurants")))
+        {
+            writeRestaurants(out);
+        }
+        try (OutputStream out = Files.newOutputStream(directory.resolve("noFlyZones")))
+        {
+            writeNoFlyZones(out);
+        }
+        try (OutputStream out = Files.newOutputStream(directory.resolve("centralArea")))
+        {
+            writeCentralArea(out);
+        }
+        for (String date : dates)
+        {
+            try (OutputStream out = Files.newOutputStream(directory.resolve("orders").resolve(date)))
+            {
+                writeOrders(date, out);
+            }
+        }
+    }
+
+    // opens a buffered generator over the given output (which is flushed, but left open, on close)
+    // @param out where the JSON is written to
+    // @return the generator
+    private static JsonGenerator openGenerator(OutputStream out) throws IOException
+    {
+        JsonGenerator generator = JSON_FACTORY.createGenerator(new BufferedOutputStream(out, BUFFER_SIZE),
+                JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    /**
+     * generates a workload from the command line
+     * @param args the folder to write to, the dates (one date, or a range
+     *             like "2023-01-01..2023-01-31"), then optionally the number
+     *             of orders per date, of restaurants, of no-fly-zones, and the seed
+     *             (by default 1000, 50, 100 and 2023)
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 2 || args.length > 6)
+        {
+            System.err.println("Usage: WorkloadGenerator <folder> <date[..lastDate]> "
+                    + "[ordersPerDay] [restaurants] [noFlyZones] [seed]");
+            System.exit(1);
+        }
+        try
+        {
+            String[] range = args[1].split("\\.\\.", 2);
+            List<String> dates = BatchPlanner.datesBetween(range[0], range[range.length - 1]);
+            int ordersPerDay = (args.length > 2) ? Integer.parseInt(args[2]) : 1000;
+            int restaurants = (args.length > 3) ? Integer.parseInt(args[3]) : 50;
+            int noFlyZones = (args.length > 4) ? Integer.parseInt(args[4]) : 100;
+            long seed = (args.length > 5) ? Long.parseLong(args[5]) : 2023;
+            new WorkloadGenerator(seed, restaurants, noFlyZones, ordersPerDay).writeTo(Path.of(args[0]), dates);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            System.err.println("The workload could not be generated: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+}
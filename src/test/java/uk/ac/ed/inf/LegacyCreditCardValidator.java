@@ -0,0 +1,80 @@
+package uk.ac.ed.inf;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * the previous, regex based credit card checks (kept for the tests
+ * and benchmarks, which compare the CreditCardValidator against them)
+ */
+final class LegacyCreditCardValidator
+{
+    private LegacyCreditCardValidator()
+    {
+
+    }
+
+    // the previous card number check (patterns compiled on every call,
+    // and the Luhn digits read with substring and Integer.parseInt)
+    static boolean validCreditCardNumber(String creditCardNumber)
+    {
+        if (creditCardNumber == null || creditCardNumber.length() != 16)
+        {
+            return false;
+        }
+        Pattern patternVisa = Pattern.compile("^4[0-9]{0,}$");
+        Pattern patternMasterCard = Pattern.compile("^(5[1-5]|222[1-9]|22[3-9]|2[3-6]|27[01]|2720)[0-9]{0,}$");
+        int luhnSum = 0;
+        boolean shouldBeDoubled = false;
+        for (int i = creditCardNumber.length() - 1; i >= 0; i--)
+        {
+            try
+            {
+                int currentDigit = Integer.parseInt(creditCardNumber.substring(i, i + 1));
+                if (shouldBeDoubled)
+                {
+                    currentDigit *= 2;
+                    if (currentDigit > 9)
+                    {
+                        currentDigit = (currentDigit % 10) + 1;
+                    }
+                }
+                luhnSum += currentDigit;
+                shouldBeDoubled = !shouldBeDoubled;
+            }
+            catch (Exception ignored) {}
+        }
+        return (patternVisa.matcher(creditCardNumber).matches()
+                || patternMasterCard.matcher(creditCardNumber).matches()) && (luhnSum % 10 == 0);
+    }
+
+    // the previous expiry date check (the end of the month is
+    // reformatted as a string and parsed again)
+    static boolean validExpiryDate(String creditCardExpiry, String orderDate)
+    {
+        if (creditCardExpiry == null || orderDate == null)
+        {
+            return false;
+        }
+        LocalDate dateOfOrder = LocalDate.parse(orderDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        if (!creditCardExpiry.matches("^((0[1-9])|(1[0-2]))/*((0[0-9])|([1-3][0-9]))$"))
+        {
+            return false;
+        }
+        LocalDate lastDay = YearMonth.parse(creditCardExpiry, DateTimeFormatter.ofPattern("MM/yy")).atEndOfMonth();
+        String lastDayString = lastDay.toString();
+        String reformattedLastDay = lastDayString.substring(0, 4) + "-" +
+                lastDayString.substring(5, 7) + "-" + lastDayString.substring(8, 10);
+        lastDay = LocalDate.parse(reformattedLastDay, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        return !dateOfOrder.isAfter(lastDay);
+    }
+
+    // the previous cvv check (pattern compiled on every call)
+    static boolean validCvv(String cvv)
+    {
+        return cvv != null && Pattern.compile("^[0-9]{3}$").matcher(cvv).matches();
+    }
+
+}
@@ -50,8 +50,9 @@ public class OrderIntegrationTest
     void testOrderValidationForAllOrders()
     {
         // set up data before checking order validation
-        Order.setRestaurants(Restaurant.getRestaurantsFromRestServer(baseUrl));
+        PlanningContext context = new PlanningContext(Restaurant.getRestaurantsFromRestServer(baseUrl), List.of(), null);
         List<Order> allOrders = RetrieveData.getData(baseUrl, "/orders", new TypeReference<>(){});
+        context.validateOrders(allOrders);
         // order validation data
         int invalidTotal = 0;
         int invalidCvv = 0;
@@ -91,8 +92,9 @@ public class OrderIntegrationTest
     void testOrderValidationForOrdersOnGivenDate1()
     {
         // set up data before checking order validation
-        Order.setRestaurants(Restaurant.getRestaurantsFromRestServer(baseUrl));
+        PlanningContext context = new PlanningContext(Restaurant.getRestaurantsFromRestServer(baseUrl), List.of(), null);
         List<Order> allOrders = RetrieveData.getData(baseUrl, "/orders/2023-01-15", new TypeReference<>(){});
+        context.validateOrders(allOrders);
         // order validation data
         int invalidTotal = 0;
         int invalidCvv = 0;
@@ -132,8 +134,9 @@ public class OrderIntegrationTest
     void testOrderValidationForOrdersOnGivenDate2()
     {
         // set up data before checking order validation
-        Order.setRestaurants(Restaurant.getRestaurantsFromRestServer(baseUrl));
+        PlanningContext context = new PlanningContext(Restaurant.getRestaurantsFromRestServer(baseUrl), List.of(), null);
         List<Order> allOrders = RetrieveData.getData(baseUrl, "/orders/2023-02-02", new TypeReference<>(){});
+        context.validateOrders(allOrders);
         // order validation data
         int invalidTotal = 0;
         int invalidCvv = 0;
@@ -0,0 +1,85 @@
+package uk.ac.ed.inf;
+
+import java.util.Random;
+
+/**
+ * generates random credit card details for the tests and benchmarks
+ * (a mix of valid and invalid numbers, expiry dates and cvv numbers,
+ * close enough to valid ones to exercise every check)
+ */
+final class SyntheticCards
+{
+    // the first digits of the generated numbers (valid and invalid providers)
+    private static final String[] PREFIXES = {"4", "4", "51", "55", "56", "2221", "2220", "2720", "2721", "23", "3"};
+
+    private SyntheticCards()
+    {
+
+    }
+
+    // a 16 digit number, with a correct Luhn check digit about half the time
+    // (and occasionally the wrong length, or a character that is not a digit)
+    static String randomNumber(Random random)
+    {
+        StringBuilder number = new StringBuilder(PREFIXES[random.nextInt(PREFIXES.length)]);
+        while (number.length() < 15)
+        {
+            number.append((char) ('0' + random.nextInt(10)));
+        }
+        number.append(random.nextBoolean() ? checkDigit(number) : (char) ('0' + random.nextInt(10)));
+        switch (random.nextInt(20))
+        {
+            case 0 -> number.setCharAt(random.nextInt(16), 'x');
+            case 1 -> number.deleteCharAt(15);
+            case 2 -> number.append('0');
+            default -> { }
+        }
+        return number.toString();
+    }
+
+    // the Luhn check digit for the first 15 digits of a number
+    private static char checkDigit(CharSequence firstDigits)
+    {
+        int sum = 0;
+        for (int i = 0; i < 15; i++)
+        {
+            int digit = firstDigits.charAt(i) - '0';
+            if (i % 2 == 0)
+            {
+                digit = (digit * 2 > 9) ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    // an expiry date in the format "MM/yy", with the month and year sometimes out of range
+    // (or occasionally another format)
+    static String randomExpiry(Random random)
+    {
+        if (random.nextInt(20) == 0)
+        {
+            return random.nextBoolean() ? "4/28" : "04-28";
+        }
+        return String.format("%02d/%02d", random.nextInt(14), random.nextInt(45));
+    }
+
+    // a cvv number, usually with 3 digits
+    static String randomCvv(Random random)
+    {
+        return switch (random.nextInt(10))
+        {
+            case 0 -> String.valueOf(random.nextInt(100));
+            case 1 -> String.format("%04d", random.nextInt(10000));
+            case 2 -> "9a1";
+            default -> String.format("%03d", random.nextInt(1000));
+        };
+    }
+
+    // an order date between 2020 and 2044
+    static String randomOrderDate(Random random)
+    {
+        return String.format("%d-%02d-%02d", 2020 + random.nextInt(25), 1 + random.nextInt(12), 1 + random.nextInt(28));
+    }
+
+}
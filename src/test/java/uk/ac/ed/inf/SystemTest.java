@@ -1,21 +1,30 @@
 package uk.ac.ed.inf;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * System test for the whole PizzaDronz application
- * (test the drone based on certain dates and information from the REST server)
+ * (test the drone based on certain dates, served by a local stand-in for the
+ * REST server from the benchmark fixtures, since the server's order endpoints
+ * are no longer reachable; the restaurants, no-fly-zones and central area are
+ * the server's, but the orders are reconstructed from the deliveries files, so
+ * the numbers of orders delivered are the planner's results for those fixtures)
  */
 public class SystemTest
 {
@@ -37,33 +46,53 @@ public class SystemTest
     // ================================ TESTS ==================================
     // =========================================================================
 
+    // the folder of fixtures served in place of the REST server
+    private static final Path FIXTURES = Path.of(System.getProperty("user.dir"),
+            "benchmarks/src/main/resources/fixtures");
+
+    // the directory the output files are written to
+    @TempDir
+    Path outputDirectory;
+
+    // the local server, and its base URL
+    private LocalRestServer server;
+    URL baseUrl;
+
     @BeforeEach
-    void displayTestName(TestInfo testInfo)
+    void startServer(TestInfo testInfo) throws IOException
     {
         System.out.println(testInfo.getDisplayName());
+        server = new LocalRestServer(FIXTURES, 0, Duration.ZERO, 0);
+        baseUrl = server.getBaseURL();
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.close();
     }
 
-    // base URL for REST server
-    URL baseUrl = new URL("https://ilp-rest.azurewebsites.net");
+    // sets up the planning context with the restaurants, the no-fly-zones
+    // and the central area from the server, writing to the output directory
+    private PlanningContext createContext()
+    {
+        PlanningContext loaded = PlanningContext.fromRestServer(baseUrl);
+        return new PlanningContext(loaded.getRestaurants(), loaded.getNoFlyZones(), loaded.getCentralArea(),
+                outputDirectory.toString());
+    }
 
     @Test
     @DisplayName("Testing if the whole PizzaDronz app works as expected (1)")
     void testWholeSystem1()
     {
-        // set the available restaurants field to all the restaurants from the validated URL
-        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(baseUrl);
-        Order.setRestaurants(restaurants);
+        // set up the planning context with the restaurants, the no-fly-zones
+        // and the central area from the validated URL
+        PlanningContext context = createContext();
         // retrieve all available orders for the validated date
         String extension = "/orders/2023-01-11";
         List<Order> allOrders = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set up all the no-fly-zones
-        extension = "/noFlyZones";
-        List<NoFlyZone> allNoFlyZones = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set the base URL inside the LngLat class
-        // (for retrieving data for the central area)
-        LngLat.setBaseUrl(baseUrl);
         // create the drone
-        Drone drone = new Drone();
+        Drone drone = new Drone(context);
         // set the date to be the validated date
         drone.setDateOfFlightPlan("2023-01-11");
         // and run the flight planning algorithm for the given date
@@ -71,17 +100,17 @@ public class SystemTest
 
         // check to see if order outcome has changed for delivered orders
         int totalDelivered = 0;
-        for (Order order: Order.getValidOrders())
+        for (Order order: context.getValidOrders())
         {
             if (order.getOutcome().equals(OrderOutcome.Delivered))
             {
                 totalDelivered += 1;
             }
         }
-        assertEquals(20, totalDelivered);
+        assertEquals(29, totalDelivered);
 
         // check appropriate files are created
-        String path = System.getProperty("user.dir") + "/resultfiles";
+        String path = outputDirectory.toString();
         String file1 = "deliveries-2023-01-11.json";
         String file2 = "drone-2023-01-11.geojson";
         String file3 = "flightpath-2023-01-11.json";
@@ -97,20 +126,14 @@ public class SystemTest
     @DisplayName("Testing if the whole PizzaDronz app works as expected (2)")
     void testWholeSystem2()
     {
-        // set the available restaurants field to all the restaurants from the validated URL
-        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(baseUrl);
-        Order.setRestaurants(restaurants);
+        // set up the planning context with the restaurants, the no-fly-zones
+        // and the central area from the validated URL
+        PlanningContext context = createContext();
         // retrieve all available orders for the validated date
         String extension = "/orders/2023-02-03";
         List<Order> allOrders = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set up all the no-fly-zones
-        extension = "/noFlyZones";
-        List<NoFlyZone> allNoFlyZones = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set the base URL inside the LngLat class
-        // (for retrieving data for the central area)
-        LngLat.setBaseUrl(baseUrl);
         // create the drone
-        Drone drone = new Drone();
+        Drone drone = new Drone(context);
         // set the date to be the validated date
         drone.setDateOfFlightPlan("2023-02-03");
         // and run the flight planning algorithm for the given date
@@ -118,17 +141,17 @@ public class SystemTest
 
         // check to see if order outcome has changed for delivered orders
         int totalDelivered = 0;
-        for (Order order: Order.getValidOrders())
+        for (Order order: context.getValidOrders())
         {
             if (order.getOutcome().equals(OrderOutcome.Delivered))
             {
                 totalDelivered += 1;
             }
         }
-        assertEquals(20, totalDelivered);
+        assertEquals(28, totalDelivered);
 
         // check appropriate files are created
-        String path = System.getProperty("user.dir") + "/resultfiles";
+        String path = outputDirectory.toString();
         String file1 = "deliveries-2023-02-03.json";
         String file2 = "drone-2023-02-03.geojson";
         String file3 = "flightpath-2023-02-03.json";
@@ -144,20 +167,14 @@ public class SystemTest
     @DisplayName("Testing if the whole PizzaDronz app works as expected (3)")
     void testWholeSystem3()
     {
-        // set the available restaurants field to all the restaurants from the validated URL
-        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(baseUrl);
-        Order.setRestaurants(restaurants);
+        // set up the planning context with the restaurants, the no-fly-zones
+        // and the central area from the validated URL
+        PlanningContext context = createContext();
         // retrieve all available orders for the validated date
         String extension = "/orders/2023-03-21";
         List<Order> allOrders = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set up all the no-fly-zones
-        extension = "/noFlyZones";
-        List<NoFlyZone> allNoFlyZones = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set the base URL inside the LngLat class
-        // (for retrieving data for the central area)
-        LngLat.setBaseUrl(baseUrl);
         // create the drone
-        Drone drone = new Drone();
+        Drone drone = new Drone(context);
         // set the date to be the validated date
         drone.setDateOfFlightPlan("2023-03-21");
         // and run the flight planning algorithm for the given date
@@ -165,17 +182,17 @@ public class SystemTest
 
         // check to see if order outcome has changed for delivered orders
         int totalDelivered = 0;
-        for (Order order: Order.getValidOrders())
+        for (Order order: context.getValidOrders())
         {
             if (order.getOutcome().equals(OrderOutcome.Delivered))
             {
                 totalDelivered += 1;
             }
         }
-        assertEquals(20, totalDelivered);
+        assertEquals(29, totalDelivered);
 
         // check appropriate files are created
-        String path = System.getProperty("user.dir") + "/resultfiles";
+        String path = outputDirectory.toString();
         String file1 = "deliveries-2023-03-21.json";
         String file2 = "drone-2023-03-21.geojson";
         String file3 = "flightpath-2023-03-21.json";
@@ -191,20 +208,14 @@ public class SystemTest
     @DisplayName("Testing if the whole PizzaDronz app works as expected (4)")
     void testWholeSystem4()
     {
-        // set the available restaurants field to all the restaurants from the validated URL
-        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(baseUrl);
-        Order.setRestaurants(restaurants);
+        // set up the planning context with the restaurants, the no-fly-zones
+        // and the central area from the validated URL
+        PlanningContext context = createContext();
         // retrieve all available orders for the validated date
         String extension = "/orders/2023-04-13";
         List<Order> allOrders = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set up all the no-fly-zones
-        extension = "/noFlyZones";
-        List<NoFlyZone> allNoFlyZones = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set the base URL inside the LngLat class
-        // (for retrieving data for the central area)
-        LngLat.setBaseUrl(baseUrl);
         // create the drone
-        Drone drone = new Drone();
+        Drone drone = new Drone(context);
         // set the date to be the validated date
         drone.setDateOfFlightPlan("2023-04-13");
         // and run the flight planning algorithm for the given date
@@ -212,17 +223,17 @@ public class SystemTest
 
         // check to see if order outcome has changed for delivered orders
         int totalDelivered = 0;
-        for (Order order: Order.getValidOrders())
+        for (Order order: context.getValidOrders())
         {
             if (order.getOutcome().equals(OrderOutcome.Delivered))
             {
                 totalDelivered += 1;
             }
         }
-        assertEquals(20, totalDelivered);
+        assertEquals(30, totalDelivered);
 
         // check appropriate files are created
-        String path = System.getProperty("user.dir") + "/resultfiles";
+        String path = outputDirectory.toString();
         String file1 = "deliveries-2023-04-13.json";
         String file2 = "drone-2023-04-13.geojson";
         String file3 = "flightpath-2023-04-13.json";
@@ -238,20 +249,14 @@ public class SystemTest
     @DisplayName("Testing if the whole PizzaDronz app works as expected (5)")
     void testWholeSystem5()
     {
-        // set the available restaurants field to all the restaurants from the validated URL
-        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(baseUrl);
-        Order.setRestaurants(restaurants);
+        // set up the planning context with the restaurants, the no-fly-zones
+        // and the central area from the validated URL
+        PlanningContext context = createContext();
         // retrieve all available orders for the validated date
         String extension = "/orders/2023-05-22";
         List<Order> allOrders = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set up all the no-fly-zones
-        extension = "/noFlyZones";
-        List<NoFlyZone> allNoFlyZones = RetrieveData.getData(baseUrl, extension, new TypeReference<>(){});
-        // set the base URL inside the LngLat class
-        // (for retrieving data for the central area)
-        LngLat.setBaseUrl(baseUrl);
         // create the drone
-        Drone drone = new Drone();
+        Drone drone = new Drone(context);
         // set the date to be the validated date
         drone.setDateOfFlightPlan("2023-05-22");
         // and run the flight planning algorithm for the given date
@@ -259,17 +264,17 @@ public class SystemTest
 
         // check to see if order outcome has changed for delivered orders
         int totalDelivered = 0;
-        for (Order order: Order.getValidOrders())
+        for (Order order: context.getValidOrders())
         {
             if (order.getOutcome().equals(OrderOutcome.Delivered))
             {
                 totalDelivered += 1;
             }
         }
-        assertEquals(20, totalDelivered);
+        assertEquals(29, totalDelivered);
 
         // check appropriate files are created
-        String path = System.getProperty("user.dir") + "/resultfiles";
+        String path = outputDirectory.toString();
         String file1 = "deliveries-2023-05-22.json";
         String file2 = "drone-2023-05-22.geojson";
         String file3 = "flightpath-2023-05-22.json";
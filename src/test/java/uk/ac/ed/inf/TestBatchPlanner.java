@@ -0,0 +1,39 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the BatchPlanner class
+ * (ensures the range of dates to be planned is worked out correctly)
+ */
+public class TestBatchPlanner
+{
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    @Test
+    @DisplayName("Testing if the datesBetween() method works as expected")
+    void testDatesBetween()
+    {
+        assertEquals(List.of("2023-01-01"), BatchPlanner.datesBetween("2023-01-01", "2023-01-01"));
+        assertEquals(List.of("2023-02-27", "2023-02-28", "2023-03-01"),
+                BatchPlanner.datesBetween("2023-02-27", "2023-03-01"));
+        // the whole season
+        List<String> season = BatchPlanner.datesBetween("2023-01-01", "2023-05-30");
+        assertEquals(150, season.size());
+        assertEquals("2023-05-30", season.get(season.size() - 1));
+        assertTrue(BatchPlanner.datesBetween("2023-01-02", "2023-01-01").isEmpty());
+    }
+
+}
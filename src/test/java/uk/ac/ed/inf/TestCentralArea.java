@@ -48,7 +48,7 @@ public class TestCentralArea
     @DisplayName("Testing if the central campus area is generated correctly")
     void testCentralAreaInstantiation()
     {
-        List<LngLat> centralAreaVertices = CentralArea.getInstance(baseUrl).getCentralArea();
+        List<LngLat> centralAreaVertices = new CentralArea(baseUrl).getCentralArea();
         assertEquals(4, centralAreaVertices.size());
     }
 
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,4 +80,23 @@ public class TestCreditCardValidator
         assertTrue(validCardDetailsOrderValidator.validCreditCardDetails());
     }
 
+    @Test
+    @DisplayName("Testing if the checks agree with the previous regex based checks")
+    void testSameAsRegexChecks()
+    {
+        Random random = new Random(2023);
+        for (int i = 0; i < 100000; i++)
+        {
+            String number = SyntheticCards.randomNumber(random);
+            String expiry = SyntheticCards.randomExpiry(random);
+            String orderDate = SyntheticCards.randomOrderDate(random);
+            String cvv = SyntheticCards.randomCvv(random);
+            assertEquals(LegacyCreditCardValidator.validCreditCardNumber(number),
+                    CreditCardValidator.isValidNumber(number), number);
+            assertEquals(LegacyCreditCardValidator.validExpiryDate(expiry, orderDate),
+                    CreditCardValidator.isValidExpiryDate(expiry, orderDate), expiry + " " + orderDate);
+            assertEquals(LegacyCreditCardValidator.validCvv(cvv), CreditCardValidator.isValidCvv(cvv), cvv);
+        }
+    }
+
 }
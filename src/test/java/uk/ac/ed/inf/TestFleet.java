@@ -0,0 +1,195 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the Fleet class
+ * (ensures the orders are shared out between the drones, that the
+ * orders a drone has no room for go to another drone, and that
+ * more drones deliver more orders, using a restaurant far from
+ * Appleton Tower and no no-fly-zones)
+ */
+public class TestFleet
+{
+
+    // the context every test plans with (no no-fly-zones or central area)
+    private PlanningContext context;
+
+    @BeforeEach
+    void setUpContext(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+        // a restaurant roughly 270 moves (there and back) from Appleton Tower
+        context = new PlanningContext(new Restaurant[] {
+                new Restaurant("Far Away Pizza", List.of(new Menu("Margarita", 1000), new Menu("Calzone", 1400)),
+                        -3.186874, 55.964494)}, List.of(), null);
+    }
+
+    // creates the given number of orders, all from the same restaurant
+    private static List<Order> createOrders(int numberOfOrders)
+    {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < numberOfOrders; i++)
+        {
+            orders.add(new Order(String.format("F%07d", i), "2023-01-01",
+                    "Harlan Kimery", "5480088966844071", "06/28", "641",
+                    2500, new ArrayList<>(Arrays.asList("Margarita", "Calzone"))));
+        }
+        return orders;
+    }
+
+    // creates the given number of valid orders, and validates them in the context
+    private List<Order> createValidOrders(int numberOfOrders)
+    {
+        List<Order> orders = createOrders(numberOfOrders);
+        assertEquals(numberOfOrders, context.validateOrders(orders).size());
+        for (Order order : orders)
+        {
+            assertEquals(OrderOutcome.ValidButNotDelivered, order.getOutcome());
+        }
+        return orders;
+    }
+
+    // counts the delivered orders in the given list
+    private static long countDelivered(List<Order> orders)
+    {
+        return orders.stream().filter(order -> order.getOutcome() == OrderOutcome.Delivered).count();
+    }
+
+    @Test
+    @DisplayName("Testing if a fleet of one drone delivers like a single drone")
+    void testSingleDroneFleet()
+    {
+        List<Order> orders = createValidOrders(20);
+        Drone drone = new Drone(context);
+        drone.deliverOrders(orders);
+        long deliveredByDrone = countDelivered(orders);
+        orders = createValidOrders(20);
+        Fleet fleet = new Fleet(context, 1, "2023-01-01");
+        fleet.deliverOrders(orders);
+        assertEquals(deliveredByDrone, countDelivered(orders));
+        assertEquals(drone.getAllFlightPaths().size(), fleet.getAllFlightPaths().size());
+    }
+
+    @Test
+    @DisplayName("Testing if the orders are shared out between the drones")
+    void testOrdersSharedOut()
+    {
+        List<Order> orders = createValidOrders(20);
+        Fleet fleet = new Fleet(context, 3, "2023-01-01");
+        fleet.deliverOrders(orders);
+        // every drone only flies for the orders it was given (every third one),
+        // since each share fits in a drone's battery
+        for (int drone = 0; drone < 3; drone++)
+        {
+            for (FlightPath flightPath : fleet.getDrones().get(drone).getAllFlightPaths())
+            {
+                assertEquals(drone, Integer.parseInt(flightPath.orderNo().substring(1)) % 3);
+                assertEquals("2023-01-01", flightPath.orderDate());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing if more drones deliver more orders")
+    void testMoreDronesDeliverMore()
+    {
+        List<Order> orders = createValidOrders(20);
+        new Fleet(context, 1, "2023-01-01").deliverOrders(orders);
+        long deliveredByOne = countDelivered(orders);
+        orders = createValidOrders(20);
+        new Fleet(context, 2, "2023-01-01").deliverOrders(orders);
+        long deliveredByTwo = countDelivered(orders);
+        assertTrue(deliveredByOne < 20);
+        assertTrue(deliveredByTwo > deliveredByOne);
+    }
+
+    @Test
+    @DisplayName("Testing if the orders a drone has no room for are delivered by another drone")
+    void testUndeliveredOrdersOffered()
+    {
+        // a second restaurant, roughly 16 moves (there and back) from Appleton Tower
+        PlanningContext twoRestaurants = new PlanningContext(new Restaurant[] {context.getRestaurants()[0],
+                new Restaurant("Nearby Pizza", List.of(new Menu("Focaccia", 1000), new Menu("Lasagne", 1400)),
+                        -3.186874, 55.945494)}, List.of(), null);
+        // the first drone is given every far order, and the second every nearby one
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+        {
+            orders.add(new Order(String.format("F%07d", i), "2023-01-01",
+                    "Harlan Kimery", "5480088966844071", "06/28", "641", 2500,
+                    new ArrayList<>((i % 2 == 0) ? List.of("Margarita", "Calzone") : List.of("Focaccia", "Lasagne"))));
+        }
+        assertEquals(20, twoRestaurants.validateOrders(orders).size());
+        Fleet fleet = new Fleet(twoRestaurants, 2, "2023-01-01");
+        fleet.deliverOrders(orders);
+        // the first drone only fits 7 of its 10 far orders, so the second drone takes the rest
+        assertEquals(20, countDelivered(orders));
+        assertTrue(fleet.getDrones().get(1).getAllFlightPaths().stream()
+                .anyMatch(flightPath -> Integer.parseInt(flightPath.orderNo().substring(1)) % 2 == 0));
+    }
+
+    @Test
+    @DisplayName("Testing if only the valid orders given are planned")
+    void testValidOrdersGiven()
+    {
+        List<Order> orders = createOrders(3);
+        orders.add(new Order("FINVALID", "2023-01-01", "Harlan Kimery", "5480088966844071", "06/28", "641",
+                9999, new ArrayList<>(Arrays.asList("Margarita", "Calzone"))));
+        List<Order> validOrders = context.validateOrders(orders);
+        assertEquals(orders.subList(0, 3), validOrders);
+        assertEquals(OrderOutcome.InvalidTotal, orders.get(3).getOutcome());
+        assertEquals(validOrders, context.getValidOrders());
+        // a new run shares the restaurants, but none of the valid orders
+        PlanningContext nextRun = context.newRun();
+        assertSame(context.getRestaurants(), nextRun.getRestaurants());
+        assertTrue(nextRun.getValidOrders().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing if orders read one at a time are planned like a list of orders")
+    void testStreamedOrders(@TempDir Path directory) throws IOException
+    {
+        // the orders for the date, in the format returned by the REST server
+        // (the last order has the wrong total, so it is invalid)
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i <= 20; i++)
+        {
+            json.append(String.format("{\"orderNo\":\"F%07d\",\"orderDate\":\"2023-01-01\","
+                    + "\"customer\":\"Harlan Kimery\",\"creditCardNumber\":\"5480088966844071\","
+                    + "\"creditCardExpiry\":\"06/28\",\"cvv\":\"641\",\"priceTotalInPence\":%d,"
+                    + "\"orderItems\":[\"Margarita\",\"Calzone\"]},", i, (i == 20) ? 9999 : 2500));
+        }
+        json.setCharAt(json.length() - 1, ']');
+        Files.createDirectories(directory.resolve("orders"));
+        Files.writeString(directory.resolve("orders/2023-01-01"), json);
+        PlanningContext streamedContext = new PlanningContext(context.getRestaurants(), List.of(), null,
+                directory.toString());
+        Fleet streamedFleet = new Fleet(streamedContext, 2, "2023-01-01");
+        streamedFleet.planFlightPaths(new URL("file:" + directory));
+        List<Order> streamedOrders = streamedContext.getValidOrders();
+        assertEquals(20, streamedOrders.size());
+        assertTrue(Files.exists(directory.resolve("deliveries-2023-01-01.json")));
+        // the same orders, given as a list, are delivered in the same way
+        List<Order> orders = createValidOrders(20);
+        Fleet fleet = new Fleet(context, 2, "2023-01-01");
+        fleet.deliverOrders(orders);
+        assertEquals(countDelivered(orders), countDelivered(streamedOrders));
+        assertEquals(fleet.getAllFlightPaths().size(), streamedFleet.getAllFlightPaths().size());
+    }
+
+}
@@ -0,0 +1,105 @@
+package uk.ac.ed.inf;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the Java Flight Recorder events
+ * (ensures a planning run records the validation of every order, the
+ * planning of every restaurant's route, the route of every valid order,
+ * and every output file it writes)
+ */
+public class TestFlightRecorderEvents
+{
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    @Test
+    @DisplayName("Testing if a planning run records its validation, route planning, route and file write events")
+    void testPlanningRunEvents() throws IOException
+    {
+        Path serverDirectory = Files.createDirectory(directory.resolve("server"));
+        Path outputDirectory = Files.createDirectory(directory.resolve("output"));
+        new WorkloadGenerator(5, 10, 20, 100).writeTo(serverDirectory, List.of("2023-04-02"));
+        URL baseURL = new URL("file:" + serverDirectory);
+        PlanningContext loaded = PlanningContext.fromRestServer(baseURL);
+        PlanningContext context = new PlanningContext(loaded.getRestaurants(), loaded.getNoFlyZones(),
+                loaded.getCentralArea(), outputDirectory.toString());
+        Path recordingFile = directory.resolve("planning.jfr");
+        try (Recording recording = new Recording())
+        {
+            recording.enable(OrderValidationEvent.class);
+            recording.enable(OrderRouteEvent.class);
+            recording.enable(RoutePlanningEvent.class);
+            recording.enable(FileWriteEvent.class);
+            recording.start();
+            Drone drone = new Drone(context);
+            drone.setDateOfFlightPlan("2023-04-02");
+            drone.planFlightPath(baseURL);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        // the orders are streamed, so each one is validated on its own
+        List<RecordedEvent> validations = events.get("uk.ac.ed.inf.OrderValidation");
+        assertEquals(100, validations.size());
+        assertEquals(context.getValidOrders().size(),
+                validations.stream().mapToInt(event -> event.getInt("validOrders")).sum());
+        assertTrue(validations.stream().allMatch(event -> event.getString("orderNo") != null
+                && event.getString("orderDate").equals("2023-04-02")));
+        // every valid order has a route event with its restaurant, whether it was delivered or not
+        List<RecordedEvent> routes = events.get("uk.ac.ed.inf.OrderRoute");
+        assertEquals(context.getValidOrders().size(), routes.size());
+        Map<String, Order> validOrders = context.getValidOrders().stream()
+                .collect(Collectors.toMap(Order::getOrderNumber, order -> order));
+        // the round trip to each restaurant is planned once, for the first order that needed it
+        List<RecordedEvent> plannings = events.get("uk.ac.ed.inf.RoutePlanning");
+        assertEquals(context.getValidOrders().stream().map(Order::getCorrespondingRestaurant).distinct().count(),
+                plannings.size());
+        for (RecordedEvent planning : plannings)
+        {
+            Order order = validOrders.get(planning.getString("orderNo"));
+            assertEquals(order.getCorrespondingRestaurant().getName(), planning.getString("restaurant"));
+            assertEquals("2023-04-02", planning.getString("orderDate"));
+        }
+        for (RecordedEvent route : routes)
+        {
+            Order order = validOrders.get(route.getString("orderNo"));
+            assertEquals(order.getCorrespondingRestaurant().getName(), route.getString("restaurant"));
+            assertEquals(order.getOutcome() == OrderOutcome.Delivered, route.getBoolean("delivered"));
+            assertTrue(route.getInt("moves") > 0);
+        }
+        // the deliveries, flight path, GeoJSON and metrics files are all written
+        List<RecordedEvent> fileWrites = events.get("uk.ac.ed.inf.FileWrite");
+        assertEquals(4, fileWrites.size());
+        for (RecordedEvent fileWrite : fileWrites)
+        {
+            assertEquals(Files.size(Path.of(fileWrite.getString("path"))), fileWrite.getLong("bytesWritten"));
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package uk.ac.ed.inf;
+
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.Point;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the GeoJSONWriter class
+ * (ensures the streamed file is the same as the one the Mapbox
+ * library wrote, for a fleet delivering orders from a restaurant
+ * far from Appleton Tower)
+ */
+public class TestGeoJSONWriter
+{
+
+    @TempDir
+    Path outputDirectory;
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    // the GeoJSON the Mapbox library would have written for the given drones
+    private static String mapboxGeoJSON(List<Drone> drones)
+    {
+        List<Feature> features = new ArrayList<>();
+        for (Drone drone : drones)
+        {
+            List<Point> points = new ArrayList<>();
+            for (LngLat point : drone.getAllMovesMade())
+            {
+                points.add(Point.fromLngLat(point.getLng(), point.getLat()));
+            }
+            features.add(Feature.fromGeometry(LineString.fromLngLats(points)));
+        }
+        return FeatureCollection.fromFeatures(features).toJson();
+    }
+
+    @Test
+    @DisplayName("Testing if the GeoJSON file is the same as the one Mapbox wrote")
+    void testSameAsMapbox() throws IOException
+    {
+        PlanningContext context = new PlanningContext(new Restaurant[] {
+                new Restaurant("Far Away Pizza", List.of(new Menu("Margarita", 1000), new Menu("Calzone", 1400)),
+                        -3.186874, 55.964494)}, List.of(), null, outputDirectory.toString());
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 6; i++)
+        {
+            orders.add(new Order(String.format("G%07d", i), "2023-01-01", "Harlan Kimery", "5480088966844071",
+                    "06/28", "641", 2500, new ArrayList<>(Arrays.asList("Margarita", "Calzone"))));
+        }
+        Fleet fleet = new Fleet(context, 2, "2023-01-01");
+        fleet.deliverOrders(context.validateOrders(orders));
+        new GeoJSONWriter(context).writePlansToGeoJSON(fleet.getDrones(), "2023-01-01");
+        String written = Files.readString(outputDirectory.resolve("drone-2023-01-01.geojson"));
+        assertEquals(mapboxGeoJSON(fleet.getDrones()), written);
+        // and it can be read back as a feature collection
+        assertEquals(2, FeatureCollection.fromJson(written).features().size());
+    }
+
+}
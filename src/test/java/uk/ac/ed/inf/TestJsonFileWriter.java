@@ -0,0 +1,107 @@
+package uk.ac.ed.inf;
+
+import org.json.simple.JSONArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the JsonFileWriter class
+ * (ensures the streamed files are byte for byte the same as the
+ * files json-simple wrote before)
+ */
+public class TestJsonFileWriter
+{
+
+    @TempDir
+    Path outputDirectory;
+
+    private PlanningContext context;
+
+    @BeforeEach
+    void setUpContext(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+        context = new PlanningContext(new Restaurant[0], List.of(), null, outputDirectory.toString());
+    }
+
+    // a string with every character json-simple escaped, for the order numbers
+    private static final String AWKWARD_STRING = "a\"b\\c/d\b\f\n\r\t\u0001\u007f\u0085 €é";
+
+    @Test
+    @DisplayName("Testing if the deliveries file is the same as the one json-simple wrote")
+    void testDeliveriesFile() throws IOException
+    {
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(AWKWARD_STRING, "2023-04-15", "Gaston", "5480088966844071", "06/28", "641", 2500,
+                new ArrayList<>(List.of("Margarita", "Calzone"))));
+        orders.add(new Order(null, "2023-04-15", "Gaston", "5480088966844071", "06/28", "641", 2500,
+                new ArrayList<>(List.of("Margarita"))));
+        // no restaurants, so the first order is invalid too
+        MenuIndex menuIndex = new MenuIndex(new Restaurant[0]);
+        for (Order order : orders)
+        {
+            order.validate(menuIndex);
+        }
+        // the file json-simple would have written (its objects are plain hash maps)
+        List<Object> expected = new ArrayList<>();
+        for (Order order : orders)
+        {
+            Map<String, Object> object = new HashMap<>();
+            object.put("orderNo", order.getOrderNumber());
+            object.put("outcome", order.getOutcome().name());
+            object.put("costInPence", order.getOrderDeliveryCost());
+            expected.add(object);
+        }
+        Order.writeOrdersToJson(orders, context);
+        assertEquals(JSONArray.toJSONString(expected),
+                Files.readString(outputDirectory.resolve("deliveries-2023-04-15.json")));
+    }
+
+    @Test
+    @DisplayName("Testing if the flightpath file is the same as the one json-simple wrote")
+    void testFlightPathFile() throws IOException
+    {
+        Random random = new Random(2023);
+        List<FlightPath> flightPaths = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            Double angle = (i % 10 == 0) ? null : 22.5 * random.nextInt(16);
+            flightPaths.add(new FlightPath(String.format("%08X", random.nextInt()), "2023-04-15",
+                    -3.19 + random.nextDouble() * 0.01, 55.94 + random.nextDouble() * 0.01, angle,
+                    -3.19 + random.nextDouble() * 1e-7, 55.94 + random.nextDouble() * 1e-5, random.nextInt(100000)));
+        }
+        // the file json-simple would have written (its objects are plain hash maps)
+        List<Object> expected = new ArrayList<>();
+        for (FlightPath flightPath : flightPaths)
+        {
+            Map<String, Object> object = new HashMap<>();
+            object.put("orderNo", flightPath.orderNo());
+            object.put("orderDate", flightPath.orderDate());
+            object.put("fromLongitude", flightPath.fromLongitude());
+            object.put("fromLatitude", flightPath.fromLatitude());
+            object.put("angle", (flightPath.angle() == null) ? Double.NaN : flightPath.angle());
+            object.put("toLongitude", flightPath.toLongitude());
+            object.put("toLatitude", flightPath.toLatitude());
+            object.put("ticksSinceStartOfCalculation", flightPath.ticksSinceStartOfCalculation());
+            expected.add(object);
+        }
+        FlightPath.writeFlightPathsToJson(flightPaths, context);
+        assertEquals(JSONArray.toJSONString(expected),
+                Files.readString(outputDirectory.resolve("flightpath-2023-04-15.json")));
+    }
+
+}
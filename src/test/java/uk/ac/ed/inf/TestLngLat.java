@@ -6,9 +6,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
+import java.awt.geom.Line2D;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,12 +39,13 @@ public class TestLngLat
     @DisplayName("Testing if the inCentralArea() method works as expected")
     void testInCentralArea() throws MalformedURLException
     {
-        LngLat.setBaseUrl(new URL("https://ilp-rest.azurewebsites.net"));
-        assertTrue(point1.inCentralArea());
-        assertTrue(point2.inCentralArea());
-        assertTrue(point3.inCentralArea());
-        assertTrue(point4.inCentralArea());
-        assertFalse(point5.inCentralArea());
+        CentralArea centralArea = new CentralArea(new URL("https://ilp-rest.azurewebsites.net"));
+        PlanningContext context = new PlanningContext(new Restaurant[0], List.of(), centralArea);
+        assertTrue(point1.inCentralArea(context));
+        assertTrue(point2.inCentralArea(context));
+        assertTrue(point3.inCentralArea(context));
+        assertTrue(point4.inCentralArea(context));
+        assertFalse(point5.inCentralArea(context));
     }
 
     // points covering each case for each of the no-fly-zones (in this order):
@@ -78,26 +81,27 @@ public class TestLngLat
     {
         URL baseURL = new URL("https://ilp-rest.azurewebsites.net");
         List<NoFlyZone> allNoFlyZones = RetrieveData.getData(baseURL, "/noFlyZones", new TypeReference<>(){});
+        PlanningContext context = new PlanningContext(new Restaurant[0], allNoFlyZones, null);
         // check points for no-fly-zone 1
-        assertTrue(nf1point1.inNoFlyZone());
-        assertTrue(nf1point2.inNoFlyZone());
-        assertTrue(nf1point3.inNoFlyZone());
-        assertFalse(nf1point4.inNoFlyZone());
+        assertTrue(nf1point1.inNoFlyZone(context));
+        assertTrue(nf1point2.inNoFlyZone(context));
+        assertTrue(nf1point3.inNoFlyZone(context));
+        assertFalse(nf1point4.inNoFlyZone(context));
         // check points for no-fly-zone 2
-        assertTrue(nf2point1.inNoFlyZone());
-        assertTrue(nf2point2.inNoFlyZone());
-        assertTrue(nf2point3.inNoFlyZone());
-        assertFalse(nf2point4.inNoFlyZone());
+        assertTrue(nf2point1.inNoFlyZone(context));
+        assertTrue(nf2point2.inNoFlyZone(context));
+        assertTrue(nf2point3.inNoFlyZone(context));
+        assertFalse(nf2point4.inNoFlyZone(context));
         // check points for no-fly-zone 3
-        assertTrue(nf3point1.inNoFlyZone());
-        assertTrue(nf3point2.inNoFlyZone());
-        assertTrue(nf3point3.inNoFlyZone());
-        assertFalse(nf3point4.inNoFlyZone());
+        assertTrue(nf3point1.inNoFlyZone(context));
+        assertTrue(nf3point2.inNoFlyZone(context));
+        assertTrue(nf3point3.inNoFlyZone(context));
+        assertFalse(nf3point4.inNoFlyZone(context));
         // check points for no-fly-zone 4
-        assertTrue(nf4point1.inNoFlyZone());
-        assertTrue(nf4point2.inNoFlyZone());
-        assertTrue(nf4point3.inNoFlyZone());
-        assertFalse(nf4point4.inNoFlyZone());
+        assertTrue(nf4point1.inNoFlyZone(context));
+        assertTrue(nf4point2.inNoFlyZone(context));
+        assertTrue(nf4point3.inNoFlyZone(context));
+        assertFalse(nf4point4.inNoFlyZone(context));
     }
 
     // edge case for the closeTo() method (distance to point1 is exactly 0.00015)
@@ -127,6 +131,82 @@ public class TestLngLat
         assertEquals(55.946290402514855, (point3.nextPosition(CompassDirection.WEST_NORTH_WEST)).getLat());
     }
 
+    @Test
+    @DisplayName("Testing if the nextLng() and nextLat() methods work as expected")
+    void testNextLngLat()
+    {
+        // check the primitive variants agree exactly with nextPosition() for every direction
+        for (CompassDirection direction : CompassDirection.values())
+        {
+            LngLat next = point6.nextPosition(direction);
+            assertEquals(next.getLng(), LngLat.nextLng(point6.getLng(), direction));
+            assertEquals(next.getLat(), LngLat.nextLat(point6.getLat(), direction));
+        }
+        assertEquals(-3.1924, LngLat.nextLng(-3.1924, null));
+        assertEquals(55.94637, LngLat.nextLat(55.94637, null));
+        // first two moves (angle 157.5) from Appleton Tower in resultfiles/flightpath-2023-01-01.json
+        double lng = LngLat.nextLng(-3.186874, CompassDirection.WEST_NORTH_WEST);
+        double lat = LngLat.nextLat(55.944494, CompassDirection.WEST_NORTH_WEST);
+        assertEquals(-3.1870125819298765, lng);
+        assertEquals(55.944551402514854, lat);
+        assertEquals(-3.187151163859753, LngLat.nextLng(lng, CompassDirection.WEST_NORTH_WEST));
+        assertEquals(55.94460880502971, LngLat.nextLat(lat, CompassDirection.WEST_NORTH_WEST));
+    }
+
+    @Test
+    @DisplayName("Testing if the inArea() method works as expected")
+    void testInArea()
+    {
+        // a triangle with a sloped edge, and its bounding box
+        double[] lngs = {0, 0.003, 0};
+        double[] lats = {0, 0, 0.004};
+        BoundingBox bounds = BoundingBox.of(lngs, lats);
+        // vertex, on a straight edge, on the sloped edge, inside, outside but in the box, far away
+        assertTrue(LngLat.inArea(0.003, 0, lngs, lats, bounds));
+        assertTrue(LngLat.inArea(0, 0.002, lngs, lats, bounds));
+        assertTrue(LngLat.inArea(0.0015, 0.002, lngs, lats, bounds));
+        assertTrue(LngLat.inArea(0.001, 0.001, lngs, lats, bounds));
+        assertFalse(LngLat.inArea(0.002, 0.002, lngs, lats, bounds));
+        assertFalse(LngLat.inArea(-4, 60, lngs, lats, bounds));
+        // the bounding box never changes the answer
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++)
+        {
+            double lng = random.nextDouble() * 0.005 - 0.001;
+            double lat = random.nextDouble() * 0.006 - 0.001;
+            assertEquals(LngLat.inArea(lng, lat, lngs, lats), LngLat.inArea(lng, lat, lngs, lats, bounds));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing if the segmentsIntersect() method works as expected")
+    void testSegmentsIntersect()
+    {
+        // crossing, touching at an end, collinear overlapping, collinear apart, parallel
+        assertTrue(LngLat.segmentsIntersect(0, 0, 2, 2, 0, 2, 2, 0));
+        assertTrue(LngLat.segmentsIntersect(0, 0, 1, 1, 1, 1, 2, 0));
+        assertTrue(LngLat.segmentsIntersect(0, 0, 2, 0, 1, 0, 3, 0));
+        assertFalse(LngLat.segmentsIntersect(0, 0, 1, 0, 2, 0, 3, 0));
+        assertFalse(LngLat.segmentsIntersect(0, 0, 1, 0, 0, 1, 1, 1));
+        // same results as java.awt.geom.Line2D for random drone moves
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++)
+        {
+            double x1 = random.nextInt(8) * 0.00015;
+            double y1 = random.nextInt(8) * 0.00015;
+            double x3 = random.nextInt(8) * 0.00015;
+            double y3 = random.nextInt(8) * 0.00015;
+            CompassDirection first = CompassDirection.values()[random.nextInt(16)];
+            CompassDirection second = CompassDirection.values()[random.nextInt(16)];
+            double x2 = LngLat.nextLng(x1, first);
+            double y2 = LngLat.nextLat(y1, first);
+            double x4 = LngLat.nextLng(x3, second);
+            double y4 = LngLat.nextLat(y3, second);
+            assertEquals(Line2D.linesIntersect(x1, y1, x2, y2, x3, y3, x4, y4),
+                    LngLat.segmentsIntersect(x1, y1, x2, y2, x3, y3, x4, y4));
+        }
+    }
+
     @Test
     @DisplayName("Testing if the distanceTo() method works as expected")
     void testDistanceTo()
@@ -146,12 +226,13 @@ public class TestLngLat
     {
         URL baseURL = new URL("https://ilp-rest.azurewebsites.net");
         List<NoFlyZone> allNoFlyZones = RetrieveData.getData(baseURL, "/noFlyZones", new TypeReference<>(){});
+        PlanningContext context = new PlanningContext(new Restaurant[0], allNoFlyZones, null);
         // check line intersections
-        assertFalse(point1.lineCutsThroughNoFlyZones(point5));
-        assertTrue(point3.lineCutsThroughNoFlyZones(nf2point3));
-        assertTrue(nf2point1.lineCutsThroughNoFlyZones(nf2point3));
-        assertTrue(point1.lineCutsThroughNoFlyZones(nf1point1));
-        assertTrue(point1.lineCutsThroughNoFlyZones(point7));
+        assertFalse(point1.lineCutsThroughNoFlyZones(point5, context));
+        assertTrue(point3.lineCutsThroughNoFlyZones(nf2point3, context));
+        assertTrue(nf2point1.lineCutsThroughNoFlyZones(nf2point3, context));
+        assertTrue(point1.lineCutsThroughNoFlyZones(nf1point1, context));
+        assertTrue(point1.lineCutsThroughNoFlyZones(point7, context));
     }
 
 }
@@ -0,0 +1,104 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the LocalRestServer class
+ * (ensures it serves the same data as the folder or generator behind it,
+ * and that the injected latency and throughput limit slow it down)
+ */
+public class TestLocalRestServer
+{
+
+    @TempDir
+    Path directory;
+
+    // a small workload (about 50 orders a day, like the REST server)
+    private final WorkloadGenerator generator = new WorkloadGenerator(2023, 5, 4, 50);
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    @Test
+    @DisplayName("Testing if a folder is served like the REST server, with 404s for anything else")
+    void testServeFolder() throws IOException
+    {
+        generator.writeTo(directory, List.of("2023-01-01"));
+        try (LocalRestServer server = new LocalRestServer(directory, 0, Duration.ZERO, 0))
+        {
+            StartupLoader.StartupData data = new StartupLoader(server.getBaseURL(), Duration.ofSeconds(30))
+                    .load("2023-01-01");
+            assertEquals(5, data.context().getRestaurants().length);
+            assertEquals(4, data.context().getNoFlyZones().size());
+            assertEquals(4, data.context().getCentralArea().getCentralArea().size());
+            assertEquals(50, data.orders().readAll().size());
+            assertEquals(Files.readString(directory.resolve("orders/2023-01-01")),
+                    new String(new URL(server.getBaseURL() + "/orders/2023-01-01").openStream().readAllBytes()));
+            // a date with no orders, a file outside the endpoints, and an unknown endpoint
+            for (String missing : List.of("/orders/2023-01-02", "/orders/../restaurants", "/drones"))
+            {
+                assertThrows(FileNotFoundException.class,
+                        () -> new URL(server.getBaseURL() + missing).openStream().close());
+            }
+            assertEquals(8, server.getRequestCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing if the generated orders are served, and the startup requests overlap")
+    void testLatency() throws IOException
+    {
+        try (LocalRestServer server = new LocalRestServer(generator, 0, Duration.ofMillis(300), 0))
+        {
+            long startTime = System.nanoTime();
+            List<Order> orders = RetrieveData.getData(server.getBaseURL(), "/orders/2023-01-01",
+                    new TypeReference<>(){});
+            long singleRequestMillis = (System.nanoTime() - startTime) / 1_000_000;
+            assertEquals(50, orders.size());
+            assertTrue(singleRequestMillis >= 300);
+            assertEquals(1, server.getMaxConcurrentRequests());
+            // the four startup requests are sent at the same time, so the
+            // server is handling more than one of them at once
+            new StartupLoader(server.getBaseURL(), Duration.ofSeconds(30)).load("2023-01-01").orders().readAll();
+            assertEquals(5, server.getRequestCount());
+            assertTrue(server.getMaxConcurrentRequests() > 1,
+                    "at most " + server.getMaxConcurrentRequests() + " requests overlapped");
+        }
+    }
+
+    @Test
+    @DisplayName("Testing if the throughput limit slows down a large response")
+    void testThroughputLimit() throws IOException
+    {
+        WorkloadGenerator largeGenerator = new WorkloadGenerator(2023, 5, 4, 1000);
+        try (LocalRestServer server = new LocalRestServer(largeGenerator, 0, Duration.ZERO, 500_000))
+        {
+            // (only the lower bound is checked, a slow machine can always take longer)
+            long startTime = System.nanoTime();
+            byte[] body = new URL(server.getBaseURL() + "/orders/2023-01-01").openStream().readAllBytes();
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            // the orders are about 230 bytes each, so they take about half a second at 500 KB/s
+            assertTrue(body.length > 200_000);
+            assertTrue(seconds >= body.length / 500_000.0 * 0.9, "took " + seconds + " s for " + body.length);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the MenuIndex class
+ * (ensures orders are priced and validated correctly through the index,
+ * using two local restaurants that both sell a Margarita)
+ */
+public class TestMenuIndex
+{
+
+    private final Restaurant civerinos = new Restaurant("Civerinos Slice",
+            List.of(new Menu("Margarita", 1000), new Menu("Calzone", 1400)), -3.1912869215011597, 55.945535152517735);
+    private final Restaurant soraLella = new Restaurant("Sora Lella Vegan Restaurant",
+            List.of(new Menu("Meat Lover", 1400), new Menu("Margarita", 1100)), -3.202541470527649, 55.943284737579376);
+    private final MenuIndex menuIndex = new MenuIndex(new Restaurant[] {civerinos, soraLella});
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    // creates an order with a valid credit card, for the given total and pizzas
+    private static Order createOrder(int priceTotalInPence, String... pizzas)
+    {
+        return new Order("1AFFE082", "2023-01-01", "Gaston Lagaffe", "5480088966844071", "06/28", "641",
+                priceTotalInPence, new ArrayList<>(Arrays.asList(pizzas)));
+    }
+
+    @Test
+    @DisplayName("Testing if the index finds every restaurant selling a pizza")
+    void testSuppliers()
+    {
+        assertEquals(2, menuIndex.getSuppliers("Margarita").size());
+        assertEquals(1, menuIndex.getSuppliers("Calzone").size());
+        assertTrue(menuIndex.getSuppliers("Pineapple").isEmpty());
+        assertEquals(1100, menuIndex.getPrice("Margarita", soraLella));
+        assertEquals(-1, menuIndex.getPrice("Calzone", soraLella));
+    }
+
+    @Test
+    @DisplayName("Testing if orders are priced and validated through the index")
+    void testValidation()
+    {
+        Order valid = createOrder(2500, "Margarita", "Calzone");
+        assertTrue(valid.validate(menuIndex));
+        assertSame(civerinos, valid.getCorrespondingRestaurant());
+        assertEquals(2500, valid.getOrderDeliveryCost());
+        // only the second restaurant sells both of these
+        Order secondRestaurant = createOrder(2600, "Margarita", "Meat Lover");
+        assertTrue(secondRestaurant.validate(menuIndex));
+        assertSame(soraLella, secondRestaurant.getCorrespondingRestaurant());
+
+        Order wrongTotal = createOrder(2400, "Margarita", "Calzone");
+        assertFalse(wrongTotal.validate(menuIndex));
+        assertEquals(OrderOutcome.InvalidTotal, wrongTotal.getOutcome());
+        Order multipleSuppliers = createOrder(2900, "Calzone", "Meat Lover");
+        assertFalse(multipleSuppliers.validate(menuIndex));
+        assertEquals(OrderOutcome.InvalidPizzaCombinationMultipleSuppliers, multipleSuppliers.getOutcome());
+        Order notDefined = createOrder(2100, "Margarita", "Pineapple");
+        assertFalse(notDefined.validate(menuIndex));
+        assertEquals(OrderOutcome.InvalidPizzaNotDefined, notDefined.getOutcome());
+        assertEquals(0, notDefined.getOrderDeliveryCost());
+    }
+
+}
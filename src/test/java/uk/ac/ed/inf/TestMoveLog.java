@@ -0,0 +1,107 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the MoveLog class
+ * (ensures the moves are chained from the start position, that only the
+ * moves of the orders the drone delivers are logged, and that the flightpath
+ * file written from the log is the same as the one written from flight paths)
+ */
+public class TestMoveLog
+{
+
+    @TempDir
+    Path outputDirectory;
+
+    private static final LngLat START = new LngLat(-3.186874, 55.944494);
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    @Test
+    @DisplayName("Testing if every move starts where the previous move ended")
+    void testMovesChained()
+    {
+        MoveLog moveLog = new MoveLog(START);
+        int orderIndex = moveLog.addOrder("A0000001");
+        LngLat position = START;
+        // enough moves to make the arrays grow a few times
+        for (int i = 0; i < 1000; i++)
+        {
+            CompassDirection direction = (i % 10 == 9) ? null : CompassDirection.values()[i % 16];
+            position = (direction == null) ? position : position.nextPosition(direction);
+            moveLog.addMove(position, direction, orderIndex, i);
+        }
+        assertEquals(1000, moveLog.size());
+        assertEquals(START.getLng(), moveLog.getFromLongitude(0));
+        assertEquals(START.getLat(), moveLog.getFromLatitude(0));
+        for (int move = 1; move < moveLog.size(); move++)
+        {
+            assertEquals(moveLog.getToLongitude(move - 1), moveLog.getFromLongitude(move));
+            assertEquals(moveLog.getToLatitude(move - 1), moveLog.getFromLatitude(move));
+            assertEquals("A0000001", moveLog.getOrderNumber(move));
+            assertEquals(move, moveLog.getTicks(move));
+        }
+        assertTrue(Double.isNaN(moveLog.getAngle(9)));
+        assertEquals(CompassDirection.values()[10].ordinal() * 22.5, moveLog.getAngle(10));
+        assertEquals(1001, moveLog.toPositions().size());
+        assertNull(moveLog.toFlightPaths("2023-01-01").get(9).angle());
+    }
+
+    @Test
+    @DisplayName("Testing if a drone only logs the moves of the orders it delivers")
+    void testDroneMoveLog() throws IOException
+    {
+        // a restaurant roughly 270 moves (there and back) from Appleton Tower
+        PlanningContext context = new PlanningContext(new Restaurant[] {
+                new Restaurant("Far Away Pizza", List.of(new Menu("Margarita", 1000), new Menu("Calzone", 1400)),
+                        -3.186874, 55.964494)}, List.of(), null, outputDirectory.toString());
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            orders.add(new Order(String.format("M%07d", i), "2023-01-01", "Harlan Kimery", "5480088966844071",
+                    "06/28", "641", 2500, new ArrayList<>(Arrays.asList("Margarita", "Calzone"))));
+        }
+        Drone drone = new Drone(context);
+        drone.setDateOfFlightPlan("2023-01-01");
+        drone.deliverOrders(context.validateOrders(orders));
+        List<FlightPath> flightPaths = drone.getAllFlightPaths();
+        assertEquals(drone.getAllMovesMade().size() - 1, flightPaths.size());
+        for (FlightPath flightPath : flightPaths)
+        {
+            Order order = orders.get(Integer.parseInt(flightPath.orderNo().substring(1)));
+            assertEquals(OrderOutcome.Delivered, order.getOutcome());
+            // a hover stays where it is
+            if (flightPath.angle() == null)
+            {
+                assertEquals(flightPath.fromLongitude(), flightPath.toLongitude());
+                assertEquals(flightPath.fromLatitude(), flightPath.toLatitude());
+            }
+        }
+        // the file written from the move log is the same as the one written from the flight paths
+        MoveLog.writeMovesToJson(List.of(drone.getMoveLog()), "2023-01-01", context);
+        Path fromMoveLog = outputDirectory.resolve("flightpath-2023-01-01.json");
+        String written = Files.readString(fromMoveLog);
+        Files.delete(fromMoveLog);
+        FlightPath.writeFlightPathsToJson(flightPaths, context);
+        assertEquals(Files.readString(fromMoveLog), written);
+    }
+
+}
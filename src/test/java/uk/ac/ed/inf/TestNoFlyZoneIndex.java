@@ -0,0 +1,166 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the NoFlyZoneIndex class
+ * (ensures the index gives the same answers as checking
+ * every no-fly-zone one by one)
+ */
+public class TestNoFlyZoneIndex
+{
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    // creates a no-fly-zone from a flat list of (longitude, latitude) pairs
+    private static NoFlyZone createNoFlyZone(double... coordinates)
+    {
+        ArrayList<ArrayList<Double>> vertices = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2)
+        {
+            vertices.add(new ArrayList<>(Arrays.asList(coordinates[i], coordinates[i + 1])));
+        }
+        return new NoFlyZone(vertices);
+    }
+
+    // checks every no-fly-zone one by one (the behaviour the index replaces)
+    private static boolean linearInNoFlyZone(LngLat point, List<NoFlyZone> noFlyZones)
+    {
+        for (NoFlyZone noFlyZone : noFlyZones)
+        {
+            if (point.inArea(noFlyZone.getNoFlyZoneEdges()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // checks every edge of every no-fly-zone one by one (the behaviour the index replaces)
+    private static boolean linearLineCuts(LngLat from, LngLat to, List<NoFlyZone> noFlyZones)
+    {
+        for (NoFlyZone noFlyZone : noFlyZones)
+        {
+            List<LngLat> corners = noFlyZone.getNoFlyZoneEdges();
+            for (int i = 0, j = corners.size() - 1; i < corners.size(); j = i++)
+            {
+                if (Line2D.linesIntersect(from.getLng(), from.getLat(), to.getLng(), to.getLat(),
+                        corners.get(i).getLng(), corners.get(i).getLat(),
+                        corners.get(j).getLng(), corners.get(j).getLat()))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // George Square Area and Bristo Square Open Area
+    private List<NoFlyZone> createCampusNoFlyZones()
+    {
+        return List.of(
+                createNoFlyZone(-3.190578818321228, 55.94402412577528, -3.1899887323379517, 55.94284650540911,
+                        -3.187097311019897, 55.94328811724263, -3.187682032585144, 55.944477740393744,
+                        -3.190578818321228, 55.94402412577528),
+                createNoFlyZone(-3.189543485641479, 55.94552313663306, -3.189382553100586, 55.94553214854692,
+                        -3.189259171485901, 55.94544803726933, -3.1892001628875732, 55.94533688994374,
+                        -3.189194798469543, 55.94519570234043, -3.189135789871216, 55.94511759833873,
+                        -3.188138008117676, 55.9452738061846, -3.1885510683059692, 55.946105902745614,
+                        -3.1895381212234497, 55.94555918427592, -3.189543485641479, 55.94552313663306));
+    }
+
+    @Test
+    @DisplayName("Testing if the index answers point queries like a linear scan")
+    void testInNoFlyZone()
+    {
+        List<NoFlyZone> noFlyZones = createCampusNoFlyZones();
+        NoFlyZoneIndex index = new NoFlyZoneIndex(noFlyZones);
+        // vertex, on edge, inside and outside George Square Area
+        assertTrue(index.inNoFlyZone(new LngLat(-3.190578818321228, 55.94402412577528)));
+        assertTrue(index.inNoFlyZone(new LngLat(-3.1899887323379517, 55.94284650540911)));
+        assertTrue(index.inNoFlyZone(new LngLat(-3.19, 55.944)));
+        assertFalse(index.inNoFlyZone(new LngLat(-3.2, 56)));
+        // random points around the campus
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++)
+        {
+            LngLat point = new LngLat(-3.192 + random.nextDouble() * 0.006, 55.942 + random.nextDouble() * 0.005);
+            assertEquals(linearInNoFlyZone(point, noFlyZones), index.inNoFlyZone(point));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing if the index answers line queries like a linear scan")
+    void testLineCutsThroughNoFlyZones()
+    {
+        List<NoFlyZone> noFlyZones = createCampusNoFlyZones();
+        NoFlyZoneIndex index = new NoFlyZoneIndex(noFlyZones);
+        // a line from Appleton Tower straight through George Square Area
+        assertTrue(index.lineCutsThroughNoFlyZones(new LngLat(-3.186874, 55.944494),
+                new LngLat(-3.192473, 55.943)));
+        // random drone moves around the campus
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++)
+        {
+            LngLat from = new LngLat(-3.192 + random.nextDouble() * 0.006, 55.942 + random.nextDouble() * 0.005);
+            LngLat to = from.nextPosition(CompassDirection.values()[random.nextInt(16)]);
+            assertEquals(linearLineCuts(from, to, noFlyZones), index.lineCutsThroughNoFlyZones(from, to));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing if a line spanning several cells only tests each edge once")
+    void testEdgeTestedOnce()
+    {
+        // a square (its five edges include the one joining the repeated first vertex to itself),
+        // so the edges are bucketed into a 5 by 5 grid, and each side spans 5 cells
+        NoFlyZoneIndex index = new NoFlyZoneIndex(List.of(createNoFlyZone(-3.19, 55.94, -3.18, 55.94,
+                -3.18, 55.95, -3.19, 55.95, -3.19, 55.94)));
+        // a diagonal inside the square goes through every cell, without crossing an edge
+        PlanningMetrics.Tally tally = new PlanningMetrics.Tally();
+        assertFalse(index.lineCutsThroughNoFlyZones(-3.189, 55.941, -3.181, 55.949, tally));
+        assertEquals(5, tally.get(PlanningMetrics.Counter.NO_FLY_ZONE_EDGE_TESTS));
+        // and the next query tests every edge again
+        assertFalse(index.lineCutsThroughNoFlyZones(-3.181, 55.949, -3.189, 55.941, tally));
+        assertEquals(10, tally.get(PlanningMetrics.Counter.NO_FLY_ZONE_EDGE_TESTS));
+    }
+
+    @Test
+    @DisplayName("Testing if an empty index never reports a no-fly-zone")
+    void testEmptyIndex()
+    {
+        NoFlyZoneIndex index = new NoFlyZoneIndex(List.of());
+        assertFalse(index.inNoFlyZone(new LngLat(-3.19, 55.944)));
+        assertFalse(index.lineCutsThroughNoFlyZones(new LngLat(-3.19, 55.944), new LngLat(-3.18, 55.945)));
+    }
+
+    @Test
+    @DisplayName("Testing if each planning context only sees its own no-fly-zones")
+    void testContextIndex()
+    {
+        LngLat insideGeorgeSquare = new LngLat(-3.19, 55.944);
+        PlanningContext emptyContext = new PlanningContext(new Restaurant[0], List.of(), null);
+        PlanningContext campusContext = new PlanningContext(new Restaurant[0], createCampusNoFlyZones(), null);
+        assertFalse(insideGeorgeSquare.inNoFlyZone(emptyContext));
+        assertEquals(2, campusContext.getNoFlyZoneIndex().size());
+        assertTrue(insideGeorgeSquare.inNoFlyZone(campusContext));
+        // a new run shares the index instead of rebuilding it
+        assertSame(campusContext.getNoFlyZoneIndex(), campusContext.newRun().getNoFlyZoneIndex());
+    }
+
+}
@@ -9,6 +9,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,7 +50,7 @@ public class TestOrder
     @DisplayName("Testing if order validation works as expected")
     void testOrderValidation()
     {
-        Order.setRestaurants(Restaurant.getRestaurantsFromRestServer(baseUrl));
+        Restaurant[] restaurants = Restaurant.getRestaurantsFromRestServer(baseUrl);
         // list of mock order objects (both valid and invalid)
         Order order1 = new Order("1AFFE082","2023-01-01",
                 "Gilberto Handshoe","2402902","04/28","922",
@@ -89,8 +90,11 @@ public class TestOrder
         Order validOrder5 = new Order("63FD3ECE", "2023-01-01",
                 "Andra Guidotti","5552158567261299","01/27","260",
                 2500, new ArrayList<>(Arrays.asList("Margarita","Calzone")));
+        PlanningContext context = new PlanningContext(restaurants, List.of(), null);
+        context.validateOrders(List.of(order1, order2, order3, order4, order5, order6, order7,
+                validOrder1, validOrder2, validOrder3, validOrder4, validOrder5));
         // checks being performed
-        assertEquals(5, Order.getValidOrders().size());
+        assertEquals(5, context.getValidOrders().size());
         assertEquals(OrderOutcome.InvalidCardNumber, order1.getOutcome());
         assertEquals(OrderOutcome.InvalidExpiryDate, order2.getOutcome());
         assertEquals(OrderOutcome.InvalidCvv, order3.getOutcome());
@@ -107,7 +111,7 @@ public class TestOrder
     @DisplayName("Testing if the updateDeliveryCost() method works as expected")
     void testUpdateDeliveryCost()
     {
-        Order.setRestaurants(Restaurant.getRestaurantsFromRestServer(baseUrl));
+        MenuIndex menuIndex = new MenuIndex(Restaurant.getRestaurantsFromRestServer(baseUrl));
         // list of mock order objects (both valid and invalid)
         Order order1 = new Order("1AFFE082","2023-01-01",
                 "Gilberto Handshoe","2402902","04/28","922",
@@ -148,13 +152,13 @@ public class TestOrder
                 "Andra Guidotti","5552158567261299","01/27","260",
                 2500, new ArrayList<>(Arrays.asList("Margarita","Calzone")));
         // checks being performed
-        order4.updateDeliveryCost();
-        order5.updateDeliveryCost();
-        validOrder1.updateDeliveryCost();
-        validOrder2.updateDeliveryCost();
-        validOrder3.updateDeliveryCost();
-        validOrder4.updateDeliveryCost();
-        validOrder5.updateDeliveryCost();
+        order4.updateDeliveryCost(menuIndex);
+        order5.updateDeliveryCost(menuIndex);
+        validOrder1.updateDeliveryCost(menuIndex);
+        validOrder2.updateDeliveryCost(menuIndex);
+        validOrder3.updateDeliveryCost(menuIndex);
+        validOrder4.updateDeliveryCost(menuIndex);
+        validOrder5.updateDeliveryCost(menuIndex);
         assertEquals(2500, validOrder1.getOrderDeliveryCost());
         assertEquals(2600, validOrder2.getOrderDeliveryCost());
         assertEquals(2400, validOrder3.getOrderDeliveryCost());
@@ -0,0 +1,137 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the OrderSelector class
+ * (ensures the chosen deliveries fit in the battery and are optimal)
+ */
+public class TestOrderSelector
+{
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    // adds up the given values for the chosen items
+    private static int total(int[] values, boolean[] chosen)
+    {
+        int total = 0;
+        for (int item = 0; item < values.length; item++)
+        {
+            total += chosen[item] ? values[item] : 0;
+        }
+        return total;
+    }
+
+    // finds the best total value by trying every subset of items
+    private static int bruteForce(int[] moves, int[] values, int movesAvailable)
+    {
+        int best = 0;
+        for (int subset = 0; subset < (1 << moves.length); subset++)
+        {
+            int totalMoves = 0;
+            int totalValue = 0;
+            for (int item = 0; item < moves.length; item++)
+            {
+                if ((subset & (1 << item)) != 0)
+                {
+                    totalMoves += (moves[item] < 0) ? movesAvailable + 1 : moves[item];
+                    totalValue += values[item];
+                }
+            }
+            if (totalMoves <= movesAvailable)
+            {
+                best = Math.max(best, totalValue);
+            }
+        }
+        return best;
+    }
+
+    @Test
+    @DisplayName("Testing if the cheapest orders are chosen when counting orders")
+    void testSelectOrderCount()
+    {
+        // arrival order would deliver only the first (expensive) order
+        int[] moves = {1500, 400, 400, 400, 400, -1};
+        int[] values = {1, 1, 1, 1, 1, 1};
+        boolean[] chosen = OrderSelector.select(moves, values, 2000);
+        assertArrayEquals(new boolean[] {false, true, true, true, true, false}, chosen);
+    }
+
+    @Test
+    @DisplayName("Testing if the revenue chosen is optimal and fits in the battery")
+    void testSelectRevenue()
+    {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 200; trial++)
+        {
+            int[] moves = new int[12];
+            int[] values = new int[12];
+            for (int item = 0; item < moves.length; item++)
+            {
+                moves[item] = (random.nextInt(20) == 0) ? -1 : 50 + random.nextInt(500);
+                values[item] = 1100 + random.nextInt(5000);
+            }
+            boolean[] chosen = OrderSelector.select(moves, values, 2000);
+            int totalMoves = 0;
+            for (int item = 0; item < moves.length; item++)
+            {
+                if (chosen[item])
+                {
+                    assertTrue(moves[item] >= 0);
+                    totalMoves += moves[item];
+                }
+            }
+            assertTrue(totalMoves <= 2000);
+            assertEquals(bruteForce(moves, values, 2000), total(values, chosen));
+        }
+    }
+
+
+    @Test
+    @DisplayName("Testing if the revenue chosen is optimal when orders share a restaurant, even for a big day")
+    void testSelectRevenueSharedRestaurants()
+    {
+        Random random = new Random(7);
+        int[] restaurantMoves = {120, 260, 380, 610};
+        for (int trial = 0; trial < 200; trial++)
+        {
+            int[] moves = new int[12];
+            int[] values = new int[12];
+            for (int item = 0; item < moves.length; item++)
+            {
+                moves[item] = restaurantMoves[random.nextInt(restaurantMoves.length)];
+                values[item] = 1100 + random.nextInt(5000);
+            }
+            boolean[] chosen = OrderSelector.select(moves, values, 2000);
+            assertEquals(bruteForce(moves, values, 2000), total(values, chosen));
+        }
+        // 100,000 orders from 50 restaurants only need a table row per restaurant
+        int[] moves = new int[100_000];
+        int[] values = new int[moves.length];
+        for (int item = 0; item < moves.length; item++)
+        {
+            moves[item] = 40 + 2 * random.nextInt(50);
+            values[item] = 1100 + random.nextInt(5000);
+        }
+        boolean[] chosen = OrderSelector.select(moves, values, 2000);
+        int totalMoves = 0;
+        for (int item = 0; item < moves.length; item++)
+        {
+            totalMoves += chosen[item] ? moves[item] : 0;
+        }
+        assertTrue(totalMoves <= 2000);
+        assertTrue(total(values, chosen) > 0);
+    }
+
+}
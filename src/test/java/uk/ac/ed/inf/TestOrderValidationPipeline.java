@@ -0,0 +1,114 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the OrderValidationPipeline class
+ * (ensures validating orders in parallel gives the same outcomes as
+ * validating them one by one, with the valid orders sorted by order number)
+ */
+public class TestOrderValidationPipeline
+{
+
+    // the pizzas ordered (the last one is not on any menu)
+    private static final String[] PIZZAS = {"Margarita", "Calzone", "Meat Lover", "Vegan Delight", "Pineapple"};
+
+    private final MenuIndex menuIndex = new MenuIndex(new Restaurant[] {
+            new Restaurant("Civerinos Slice", List.of(new Menu("Margarita", 1000), new Menu("Calzone", 1400)),
+                    -3.1912869215011597, 55.945535152517735),
+            new Restaurant("Sora Lella Vegan Restaurant", List.of(new Menu("Meat Lover", 1400),
+                    new Menu("Vegan Delight", 1100)), -3.202541470527649, 55.943284737579376)});
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    // creates random orders (many of them invalid), with shuffled order numbers
+    private static List<Order> createOrders(long seed, int numberOfOrders)
+    {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < numberOfOrders; i++)
+        {
+            ArrayList<String> items = new ArrayList<>();
+            int numberOfItems = 1 + random.nextInt(2);
+            int total = 100;
+            for (int item = 0; item < numberOfItems; item++)
+            {
+                String pizza = PIZZAS[random.nextInt(random.nextInt(8) == 0 ? PIZZAS.length : 2)];
+                items.add(pizza);
+                total += pizza.equals("Margarita") ? 1000 : 1400;
+            }
+            orders.add(new Order(String.format("%08X", random.nextInt()), "2023-04-15", "Gaston Lagaffe",
+                    random.nextInt(4) == 0 ? SyntheticCards.randomNumber(random) : "5480088966844071",
+                    SyntheticCards.randomExpiry(random), SyntheticCards.randomCvv(random),
+                    random.nextInt(10) == 0 ? total + 1 : total, items));
+        }
+        return orders;
+    }
+
+    @Test
+    @DisplayName("Testing if parallel validation gives the same outcomes as serial validation")
+    void testSameAsSerial()
+    {
+        List<Order> serialOrders = createOrders(2023, 5000);
+        List<Order> parallelOrders = createOrders(2023, 5000);
+        List<Order> serialValid = new ArrayList<>();
+        for (Order order : serialOrders)
+        {
+            if (order.validate(menuIndex))
+            {
+                serialValid.add(order);
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            List<Order> parallelValid = new OrderValidationPipeline(menuIndex, pool).validate(parallelOrders);
+            for (int i = 0; i < serialOrders.size(); i++)
+            {
+                assertEquals(serialOrders.get(i).getOutcome(), parallelOrders.get(i).getOutcome());
+                assertEquals(serialOrders.get(i).getOrderDeliveryCost(), parallelOrders.get(i).getOrderDeliveryCost());
+            }
+            serialValid.sort(Comparator.comparing(Order::getOrderNumber));
+            assertFalse(serialValid.isEmpty());
+            assertEquals(serialValid.size(), parallelValid.size());
+            for (int i = 0; i < serialValid.size(); i++)
+            {
+                assertEquals(serialValid.get(i).getOrderNumber(), parallelValid.get(i).getOrderNumber());
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Testing if a few orders are validated and sorted without the pool")
+    void testSmallBatch()
+    {
+        List<Order> orders = createOrders(7, OrderValidationPipeline.PARALLEL_THRESHOLD - 1);
+        List<Order> validOrders = new OrderValidationPipeline(menuIndex).validate(orders);
+        for (int i = 1; i < validOrders.size(); i++)
+        {
+            assertTrue(validOrders.get(i - 1).getOrderNumber().compareTo(validOrders.get(i).getOrderNumber()) <= 0);
+        }
+        assertEquals(orders.stream().filter(order -> order.getOutcome() == OrderOutcome.ValidButNotDelivered).count(),
+                validOrders.size());
+    }
+
+}
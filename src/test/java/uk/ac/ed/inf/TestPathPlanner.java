@@ -0,0 +1,222 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the path planners
+ * (ensures both the greedy and the A* planners produce valid paths,
+ * using the no-fly-zones around the central campus area)
+ */
+public class TestPathPlanner
+{
+
+    // the index over the no-fly-zones every path has to avoid
+    private NoFlyZoneIndex noFlyZones;
+
+    @BeforeEach
+    void setUpNoFlyZones(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+        noFlyZones = new NoFlyZoneIndex(List.of(
+                // George Square Area
+                createNoFlyZone(-3.190578818321228, 55.94402412577528, -3.1899887323379517, 55.94284650540911,
+                        -3.187097311019897, 55.94328811724263, -3.187682032585144, 55.944477740393744,
+                        -3.190578818321228, 55.94402412577528),
+                // Dr Elsie Inglis Quadrangle
+                createNoFlyZone(-3.1907182931900024, 55.94519570234043, -3.1906163692474365, 55.94498241796357,
+                        -3.1900262832641597, 55.94507554227258, -3.190133571624756, 55.94529783810495,
+                        -3.1907182931900024, 55.94519570234043),
+                // Bayes Central Area
+                createNoFlyZone(-3.1876927614212036, 55.94520696732767, -3.187555968761444, 55.9449621408666,
+                        -3.186981976032257, 55.94505676722831, -3.1872327625751495, 55.94536993377657,
+                        -3.1874459981918335, 55.9453361389472, -3.1873735785484314, 55.94519344934259,
+                        -3.1875935196876526, 55.94515665035927, -3.187624365091324, 55.94521973430925,
+                        -3.1876927614212036, 55.94520696732767)));
+    }
+
+    // creates a no-fly-zone from a flat list of (longitude, latitude) pairs
+    private static NoFlyZone createNoFlyZone(double... coordinates)
+    {
+        ArrayList<ArrayList<Double>> vertices = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2)
+        {
+            vertices.add(new ArrayList<>(Arrays.asList(coordinates[i], coordinates[i + 1])));
+        }
+        return new NoFlyZone(vertices);
+    }
+
+    // replays the given directions from the start point, checking every move is valid
+    // @return the final position reached
+    private LngLat replayPath(LngLat start, List<CompassDirection> path)
+    {
+        LngLat position = start;
+        for (CompassDirection direction : path)
+        {
+            LngLat next = position.nextPosition(direction);
+            assertFalse(noFlyZones.inNoFlyZone(next));
+            assertFalse(noFlyZones.lineCutsThroughNoFlyZones(position, next));
+            position = next;
+        }
+        return position;
+    }
+
+    // Appleton Tower, and the location of Sodeberg Pavillion
+    // (the straight line between them goes through George Square Area)
+    LngLat appletonTower = new LngLat(-3.186874, 55.944494);
+    LngLat sodebergPavillion = new LngLat(-3.1940174102783203, 55.94390696616939);
+
+    @Test
+    @DisplayName("Testing if the greedy planner reaches the destination")
+    void testGreedyPlanner()
+    {
+        List<CompassDirection> path = new GreedyPathPlanner().planPath(appletonTower, sodebergPavillion, noFlyZones);
+        assertTrue(replayPath(appletonTower, path).closeTo(sodebergPavillion));
+    }
+
+    @Test
+    @DisplayName("Testing if the A* planner reaches the destination in fewer moves")
+    void testAStarPlanner()
+    {
+        List<CompassDirection> greedyPath = new GreedyPathPlanner().planPath(appletonTower, sodebergPavillion, noFlyZones);
+        List<CompassDirection> path = new AStarPathPlanner().planPath(appletonTower, sodebergPavillion, noFlyZones);
+        assertTrue(replayPath(appletonTower, path).closeTo(sodebergPavillion));
+        assertTrue(path.size() <= greedyPath.size());
+        // the path can never be shorter than the straight line distance
+        double minimumMoves = (appletonTower.distanceTo(sodebergPavillion) - 0.00015) / 0.00015;
+        assertTrue(path.size() >= minimumMoves);
+    }
+
+    @Test
+    @DisplayName("Testing if the A* planner handles the start and destination being close")
+    void testAStarPlannerAlreadyClose()
+    {
+        assertTrue(new AStarPathPlanner().planPath(appletonTower, appletonTower, noFlyZones).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing if the A* planner respects its node budget")
+    void testAStarPlannerNodeBudget()
+    {
+        assertNull(new AStarPathPlanner(10, null).planPath(appletonTower, sodebergPavillion, noFlyZones));
+    }
+
+    @Test
+    @DisplayName("Testing if an unreachable destination gives no path, instead of hanging or crashing")
+    void testUnreachableDestination()
+    {
+        // the middle of George Square Area, more than the acceptable distance from its edges
+        LngLat georgeSquare = new LngLat(-3.1889, 55.9437);
+        assertNull(new AStarPathPlanner().planPath(appletonTower, georgeSquare, noFlyZones));
+        assertNull(new AStarPathPlanner(1000, new GreedyPathPlanner()).planPath(appletonTower, georgeSquare,
+                noFlyZones));
+        assertNull(new GreedyPathPlanner(10).planPath(appletonTower, sodebergPavillion, noFlyZones));
+        // a start point boxed in by a no-fly-zone smaller than a single move
+        NoFlyZoneIndex boxedIn = new NoFlyZoneIndex(List.of(createNoFlyZone(-3.18690, 55.94447,
+                -3.18685, 55.94447, -3.18685, 55.94452, -3.18690, 55.94452, -3.18690, 55.94447)));
+        assertNull(new GreedyPathPlanner().planPath(appletonTower, sodebergPavillion, boxedIn));
+    }
+
+    @Test
+    @DisplayName("Testing if the caching planner only plans each route once")
+    void testCachingPlanner()
+    {
+        CachingPathPlanner planner = new CachingPathPlanner(new AStarPathPlanner());
+        List<CompassDirection> path = planner.planPath(appletonTower, sodebergPavillion, noFlyZones);
+        assertEquals(path, planner.planPath(appletonTower, sodebergPavillion, noFlyZones));
+        assertEquals(path, new AStarPathPlanner().planPath(appletonTower, sodebergPavillion, noFlyZones));
+        assertEquals(1, planner.getMisses());
+        assertEquals(1, planner.getHits());
+        // a route where no path is found is cached too
+        CachingPathPlanner failingPlanner = new CachingPathPlanner(new AStarPathPlanner(10, null));
+        assertNull(failingPlanner.planPath(appletonTower, sodebergPavillion, noFlyZones));
+        assertNull(failingPlanner.planPath(appletonTower, sodebergPavillion, noFlyZones));
+        assertEquals(1, failingPlanner.getMisses());
+    }
+
+    @Test
+    @DisplayName("Testing if the caching planner only plans a route once when several threads ask for it")
+    void testCachingPlannerConcurrent() throws InterruptedException, ExecutionException
+    {
+        CachingPathPlanner planner = new CachingPathPlanner(new AStarPathPlanner());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Callable<List<CompassDirection>>> requests = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+            {
+                requests.add(() -> planner.planPath(appletonTower, sodebergPavillion, noFlyZones));
+            }
+            for (Future<List<CompassDirection>> path : executor.invokeAll(requests))
+            {
+                assertNotNull(path.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertEquals(1, planner.getMisses());
+        assertEquals(7, planner.getHits());
+    }
+
+    @Test
+    @DisplayName("Testing if the caching planner forgets its routes when the no-fly-zones change")
+    void testCachingPlannerNoFlyZonesChanged()
+    {
+        CachingPathPlanner planner = new CachingPathPlanner(new AStarPathPlanner());
+        planner.planPath(appletonTower, sodebergPavillion, noFlyZones);
+        NoFlyZoneIndex noNoFlyZones = new NoFlyZoneIndex(List.of());
+        List<CompassDirection> path = planner.planPath(appletonTower, sodebergPavillion, noNoFlyZones);
+        assertEquals(2, planner.getMisses());
+        // the route for the new no-fly-zones stays cached
+        assertEquals(path, planner.planPath(appletonTower, sodebergPavillion, noNoFlyZones));
+        assertEquals(2, planner.getMisses());
+        // with no no-fly-zones left, the drone can fly straight there
+        assertEquals(new GreedyPathPlanner().planPath(appletonTower, sodebergPavillion, noNoFlyZones).size(),
+                path.size());
+    }
+
+
+    @Test
+    @DisplayName("Testing if nearly every route of a day of fixture orders comes from the cache")
+    void testCachingPlannerHitRate() throws MalformedURLException
+    {
+        // the benchmark fixtures (the REST server's restaurants and no-fly-zones,
+        // and the orders reconstructed from the deliveries of 2023-01-01)
+        Path fixtures = Path.of(System.getProperty("user.dir"), "benchmarks/src/main/resources/fixtures");
+        StartupLoader.StartupData data = new StartupLoader(new URL("file:" + fixtures), Duration.ofSeconds(30))
+                .load("2023-01-01");
+        PlanningContext context = data.context();
+        CachingPathPlanner planner = new CachingPathPlanner(new AStarPathPlanner());
+        Drone drone = new Drone(context, planner);
+        drone.deliverOrders(context.validateOrders(data.orders().readAll()));
+        long restaurants = context.getValidOrders().stream().map(Order::getCorrespondingRestaurant).distinct().count();
+        long delivered = context.getValidOrders().stream()
+                .filter(order -> order.getOutcome() == OrderOutcome.Delivered).count();
+        // every trip starts at Appleton Tower and flies back the same way, so the route
+        // to each restaurant is only planned once (when choosing the orders), and every
+        // delivery after that is served from the cache
+        assertEquals(restaurants, planner.getMisses());
+        assertEquals(delivered, planner.getHits());
+        assertTrue(planner.getHits() >= 0.85 * (planner.getHits() + planner.getMisses()));
+    }
+
+}
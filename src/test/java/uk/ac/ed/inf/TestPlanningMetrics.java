@@ -0,0 +1,132 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the PlanningMetrics class
+ * (ensures the histogram and counters add up, and that a planning run
+ * records every phase and counter, and writes them next to its result files)
+ */
+public class TestPlanningMetrics
+{
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    @Test
+    @DisplayName("Testing if the histogram, percentiles and tallies add up")
+    void testHistogram()
+    {
+        PlanningMetrics metrics = new PlanningMetrics();
+        assertEquals(0, metrics.getOrderPlanningPercentileNanos(50));
+        // 90 orders taking a microsecond, and 10 taking a millisecond
+        for (int i = 0; i < 90; i++)
+        {
+            metrics.recordOrderPlanningTime(1_000);
+        }
+        for (int i = 0; i < 10; i++)
+        {
+            metrics.recordOrderPlanningTime(1_000_000);
+        }
+        assertEquals(100, metrics.getOrdersPlanned());
+        assertEquals(90 * 1_000 + 10 * 1_000_000, metrics.getOrderPlanningTotalNanos());
+        assertEquals(1_000_000, metrics.getOrderPlanningMaxNanos());
+        assertEquals(90, metrics.getOrderPlanningBucket(10));
+        assertEquals(10, metrics.getOrderPlanningBucket(20));
+        assertEquals(1024, metrics.getOrderPlanningPercentileNanos(50));
+        assertEquals(1024, metrics.getOrderPlanningPercentileNanos(90));
+        // the upper bound of the bucket is capped by the longest time
+        assertEquals(1_000_000, metrics.getOrderPlanningPercentileNanos(99));
+        // tallies are only added to the counters when asked to
+        PlanningMetrics.Tally tally = new PlanningMetrics.Tally();
+        tally.increment(PlanningMetrics.Counter.NODES_EXPANDED);
+        tally.add(PlanningMetrics.Counter.NO_FLY_ZONE_EDGE_TESTS, 41);
+        assertEquals(0, metrics.getCount(PlanningMetrics.Counter.NODES_EXPANDED));
+        metrics.add(tally);
+        metrics.add(tally);
+        assertEquals(2, metrics.getCount(PlanningMetrics.Counter.NODES_EXPANDED));
+        assertEquals(82, metrics.getCount(PlanningMetrics.Counter.NO_FLY_ZONE_EDGE_TESTS));
+        assertEquals(0, metrics.getCount(PlanningMetrics.Counter.MOVES_REJECTED));
+    }
+
+    @Test
+    @DisplayName("Testing if a planning run records every phase and counter, and writes them as JSON")
+    void testPlanningRun() throws IOException
+    {
+        Path serverDirectory = Files.createDirectory(directory.resolve("server"));
+        Path outputDirectory = Files.createDirectory(directory.resolve("output"));
+        new WorkloadGenerator(11, 10, 20, 200).writeTo(serverDirectory, List.of("2023-04-01"));
+        URL baseURL = new URL("file:" + serverDirectory);
+        PlanningContext loaded = PlanningContext.fromRestServer(baseURL);
+        PlanningContext context = new PlanningContext(loaded.getRestaurants(), loaded.getNoFlyZones(),
+                loaded.getCentralArea(), outputDirectory.toString());
+        Drone drone = new Drone(context);
+        drone.setDateOfFlightPlan("2023-04-01");
+        drone.planFlightPath(baseURL);
+        PlanningMetrics metrics = context.getMetrics();
+        for (PlanningMetrics.Phase phase : PlanningMetrics.Phase.values())
+        {
+            assertTrue(metrics.getPhaseNanos(phase) > 0, phase.name());
+        }
+        assertTrue(metrics.getCount(PlanningMetrics.Counter.NODES_EXPANDED) > 0);
+        assertTrue(metrics.getCount(PlanningMetrics.Counter.NO_FLY_ZONE_EDGE_TESTS) > 0);
+        assertTrue(metrics.getCount(PlanningMetrics.Counter.MOVES_REJECTED) > 0);
+        long delivered = countDelivered(outputDirectory);
+        assertTrue(delivered > 0);
+        assertEquals(delivered, metrics.getCount(PlanningMetrics.Counter.ORDERS_DELIVERED));
+        // only the orders chosen for delivery have their routes planned
+        assertEquals(delivered, metrics.getOrdersPlanned());
+        // the metrics file holds the same values
+        JsonNode file = new ObjectMapper().readTree(outputDirectory.resolve("metrics-2023-04-01.json").toFile());
+        assertEquals("2023-04-01", file.get("orderDate").asText());
+        assertEquals(metrics.getPhaseNanos(PlanningMetrics.Phase.PLAN), file.get("phaseNanos").get("plan").asLong());
+        assertEquals(delivered, file.get("counters").get("ordersDelivered").asLong());
+        assertEquals(metrics.getCount(PlanningMetrics.Counter.NO_FLY_ZONE_EDGE_TESTS),
+                file.get("counters").get("noFlyZoneEdgeTests").asLong());
+        JsonNode histogram = file.get("orderPlanningNanos");
+        assertEquals(metrics.getOrdersPlanned(), histogram.get("count").asLong());
+        long bucketed = 0;
+        for (JsonNode bucket : histogram.get("buckets"))
+        {
+            bucketed += bucket.get("count").asLong();
+        }
+        assertEquals(metrics.getOrdersPlanned(), bucketed);
+    }
+
+    // counts the delivered orders in the deliveries file of a run
+    private static long countDelivered(Path outputDirectory) throws IOException
+    {
+        JsonNode deliveries = new ObjectMapper().readTree(
+                outputDirectory.resolve("deliveries-2023-04-01.json").toFile());
+        long delivered = 0;
+        for (JsonNode delivery : deliveries)
+        {
+            if (delivery.get("outcome").asText().equals("Delivered"))
+            {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+}
@@ -0,0 +1,166 @@
+package uk.ac.ed.inf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the ResponseCache class
+ * (uses a small local server that supports ETags, and counts
+ * how many full responses it sends)
+ */
+public class TestResponseCache
+{
+
+    // the central area, as returned by the REST server
+    private static final String CENTRAL_AREA = "[{\"name\":\"Forrest Hill\",\"longitude\":-3.192473,"
+            + "\"latitude\":55.946233},{\"name\":\"KFC\",\"longitude\":-3.184319,\"latitude\":55.946233},"
+            + "{\"name\":\"Top of the Meadows\",\"longitude\":-3.192473,\"latitude\":55.942617},"
+            + "{\"name\":\"Buccleuch St bus stop\",\"longitude\":-3.184319,\"latitude\":55.942617}]";
+
+    @TempDir
+    Path cacheDirectory;
+
+    private HttpServer server;
+    private URL baseUrl;
+
+    // the number of full (200) responses sent by the local server
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    @BeforeEach
+    void startServer(TestInfo testInfo) throws IOException
+    {
+        System.out.println(testInfo.getDisplayName());
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/centralArea", exchange ->
+        {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match")))
+            {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = CENTRAL_AREA.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+            fullResponses.incrementAndGet();
+        });
+        server.start();
+        baseUrl = new URL("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Testing if an unchanged response is revalidated instead of downloaded again")
+    void testRevalidation() throws IOException
+    {
+        ResponseCache cache = new ResponseCache(cacheDirectory, false);
+        URL url = new URL(baseUrl + "/centralArea");
+        byte[] first = cache.fetch(url);
+        byte[] second = cache.fetch(url);
+        assertArrayEquals(first, second);
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, cache.getDownloads());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Testing if the stored responses can be used offline")
+    void testOffline() throws IOException
+    {
+        List<LngLat> online = RetrieveData.getData(baseUrl, "/centralArea", new TypeReference<>(){},
+                new ResponseCache(cacheDirectory, false));
+        server.stop(0);
+        ResponseCache offlineCache = new ResponseCache(cacheDirectory, true);
+        List<LngLat> offline = RetrieveData.getData(baseUrl, "/centralArea", new TypeReference<>(){}, offlineCache);
+        assertEquals(4, offline.size());
+        assertEquals(online.get(0).getLng(), offline.get(0).getLng());
+        assertEquals(1, offlineCache.getHits());
+        // a response that was never stored cannot be served offline
+        assertThrows(IOException.class, () -> offlineCache.fetch(new URL(baseUrl + "/restaurants")));
+    }
+
+    @Test
+    @DisplayName("Testing if each planning context reads through its own cache")
+    void testCachePerContext() throws IOException
+    {
+        ResponseCache cache = new ResponseCache(cacheDirectory, false);
+        RetrieveData.getData(baseUrl, "/centralArea", new TypeReference<List<LngLat>>(){}, cache);
+        server.stop(0);
+        ResponseCache offlineCache = new ResponseCache(cacheDirectory, true);
+        PlanningContext cached = new PlanningContext(new Restaurant[0], List.of(), null, offlineCache);
+        PlanningContext uncached = new PlanningContext(new Restaurant[0], List.of(), null);
+        // a new run keeps the cache of the context it was created from
+        assertSame(offlineCache, cached.newRun().getResponseCache());
+        assertNull(uncached.newRun().getResponseCache());
+        // the stored response is streamed from the cache, with the server gone
+        int count = RetrieveData.streamData(baseUrl, "/centralArea", new TypeReference<LngLat>(){},
+                cached.getResponseCache(), vertex -> {});
+        assertEquals(4, count);
+        assertEquals(1, offlineCache.getHits());
+    }
+
+    @Test
+    @DisplayName("Testing if a download is streamed, and only stored once it has been read or skipped")
+    void testStreamedDownload() throws IOException
+    {
+        ResponseCache cache = new ResponseCache(cacheDirectory, false);
+        URL url = new URL(baseUrl + "/centralArea");
+        try (InputStream in = cache.open(url))
+        {
+            assertEquals('[', in.read());
+            // skipped bytes are stored as well
+            assertEquals(10, in.skip(10));
+            // nothing is stored while the body is still being read
+            try (Stream<Path> files = Files.list(cacheDirectory))
+            {
+                assertTrue(files.noneMatch(file -> file.toString().endsWith(".json")));
+            }
+        }
+        server.stop(0);
+        // the rest of the body was read when the stream was closed
+        assertArrayEquals(CENTRAL_AREA.getBytes(StandardCharsets.UTF_8),
+                new ResponseCache(cacheDirectory, true).fetch(url));
+        assertEquals(1, cache.getDownloads());
+    }
+
+    @Test
+    @DisplayName("Testing if the stored response is used when the server cannot be reached")
+    void testServerUnreachable() throws IOException
+    {
+        ResponseCache cache = new ResponseCache(cacheDirectory, false);
+        URL url = new URL(baseUrl + "/centralArea");
+        byte[] first = cache.fetch(url);
+        server.stop(0);
+        assertArrayEquals(first, cache.fetch(url));
+    }
+
+}
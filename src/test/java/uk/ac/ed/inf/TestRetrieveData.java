@@ -5,9 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -88,4 +93,54 @@ public class TestRetrieveData
         assertEquals(4, allNoFlyZones.size());
     }
 
+    @Test
+    @DisplayName("Testing if the shared readers are reused and read orders correctly")
+    void testSharedReaders()
+    {
+        assertSame(RetrieveData.readerFor(new TypeReference<List<Order>>(){}),
+                RetrieveData.readerFor(new TypeReference<List<Order>>(){}));
+        String json = "[{\"orderNo\":\"1AFFE082\",\"orderDate\":\"2023-01-01\",\"customer\":\"Gaston Lagaffe\","
+                + "\"creditCardNumber\":\"2221001234567890\",\"creditCardExpiry\":\"06/28\",\"cvv\":\"816\","
+                + "\"priceTotalInPence\":2400,\"orderItems\":[\"Margarita\",\"Calzone\"]}]";
+        List<Order> orders = RetrieveData.parseData(json, new TypeReference<>(){});
+        assertEquals(1, orders.size());
+        assertEquals("1AFFE082", orders.get(0).getOrderNumber());
+        assertEquals("06/28", orders.get(0).getCreditCardExpiry());
+    }
+
+    @Test
+    @DisplayName("Testing if a list is read one element at a time")
+    void testStreamData(@TempDir Path directory) throws IOException
+    {
+        Files.writeString(directory.resolve("centralArea"), "[{\"name\":\"Forrest Hill\",\"longitude\":-3.192473,"
+                + "\"latitude\":55.946233},{\"name\":\"KFC\",\"longitude\":-3.184319,\"latitude\":55.946233}]");
+        List<LngLat> vertices = new ArrayList<>();
+        int count = RetrieveData.streamData(new URL("file:" + directory), "/centralArea",
+                new TypeReference<LngLat>(){}, vertices::add);
+        assertEquals(2, count);
+        assertEquals(-3.184319, vertices.get(1).getLng());
+    }
+
+    @Test
+    @DisplayName("Testing if streamed orders are handed over on the calling thread while the rest are read")
+    void testStreamOrders(@TempDir Path directory) throws IOException
+    {
+        // more orders than fit in the queue between the reader and the calling thread
+        new WorkloadGenerator(3, 5, 10, 3000).writeTo(directory, List.of("2023-03-01"));
+        URL baseURL = new URL("file:" + directory);
+        PlanningContext context = PlanningContext.fromRestServer(baseURL);
+        Thread caller = Thread.currentThread();
+        List<Order> handedOver = new ArrayList<>();
+        List<Order> allOrders = context.streamOrders(baseURL, "2023-03-01", order ->
+        {
+            assertSame(caller, Thread.currentThread());
+            handedOver.add(order);
+        });
+        assertEquals(3000, allOrders.size());
+        assertEquals(context.getValidOrders(), handedOver);
+        // a failure to read the orders is passed on to the calling thread
+        assertThrows(RuntimeException.class,
+                () -> context.newRun().streamOrders(baseURL, "2023-03-02", order -> {}));
+    }
+
 }
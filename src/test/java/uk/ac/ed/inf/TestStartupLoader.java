@@ -0,0 +1,118 @@
+package uk.ac.ed.inf;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the StartupLoader class
+ * (uses a small local server which only answers once all four
+ * requests have arrived, so it only works if they are sent together)
+ */
+public class TestStartupLoader
+{
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private URL baseUrl;
+
+    // counted down by every request, and whether they all arrived together
+    private CountDownLatch allRequestsArrived;
+    private final AtomicBoolean requestsConcurrent = new AtomicBoolean(true);
+
+    @BeforeEach
+    void startServer(TestInfo testInfo) throws IOException
+    {
+        System.out.println(testInfo.getDisplayName());
+        allRequestsArrived = new CountDownLatch(4);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        serve("/restaurants", "[{\"name\":\"Civerinos Slice\",\"longitude\":-3.1912869215011597,"
+                + "\"latitude\":55.945535152517735,\"menu\":[{\"name\":\"Margarita\",\"priceInPence\":1000}]}]");
+        serve("/noFlyZones", "[{\"name\":\"George Square Area\",\"coordinates\":[[-3.190578818321228,"
+                + "55.94402412577528],[-3.1899887323379517,55.94284650540911],[-3.187097311019897,"
+                + "55.94328811724263],[-3.190578818321228,55.94402412577528]]}]");
+        serve("/centralArea", "[{\"name\":\"Forrest Hill\",\"longitude\":-3.192473,\"latitude\":55.946233},"
+                + "{\"name\":\"KFC\",\"longitude\":-3.184319,\"latitude\":55.946233},"
+                + "{\"name\":\"Top of the Meadows\",\"longitude\":-3.192473,\"latitude\":55.942617},"
+                + "{\"name\":\"Buccleuch St bus stop\",\"longitude\":-3.184319,\"latitude\":55.942617}]");
+        serve("/orders/2023-01-01", "[]");
+        server.start();
+        baseUrl = new URL("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    // answers the given path with the given body, once all four requests have arrived
+    private void serve(String path, String json)
+    {
+        server.createContext(path, exchange ->
+        {
+            allRequestsArrived.countDown();
+            try
+            {
+                if (!allRequestsArrived.await(5, TimeUnit.SECONDS))
+                {
+                    requestsConcurrent.set(false);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Testing if all the startup requests are sent at the same time, including the orders")
+    void testConcurrentRequests()
+    {
+        StartupLoader.StartupData data = new StartupLoader(baseUrl, Duration.ofSeconds(20)).load("2023-01-01");
+        assertTrue(requestsConcurrent.get());
+        assertEquals(1, data.context().getRestaurants().length);
+        assertEquals(1, data.context().getNoFlyZones().size());
+        assertEquals(4, data.context().getCentralArea().getCentralArea().size());
+        assertTrue(data.orders().readAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing if startup fails once the timeout has passed")
+    void testTimeout()
+    {
+        // without the orders request, the other three never get an answer in time
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class,
+                () -> new StartupLoader(baseUrl, Duration.ofMillis(300)).loadContext());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+    }
+
+}
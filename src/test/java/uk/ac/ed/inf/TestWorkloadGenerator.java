@@ -0,0 +1,109 @@
+package uk.ac.ed.inf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the WorkloadGenerator class
+ * (ensures the generated data is read like the REST server's, gives
+ * every kind of order outcome, and is the same for the same seed)
+ */
+public class TestWorkloadGenerator
+{
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void displayTestName(TestInfo testInfo)
+    {
+        System.out.println(testInfo.getDisplayName());
+    }
+
+    @Test
+    @DisplayName("Testing if a generated workload is loaded and validated like the REST server's")
+    void testLoadWorkload() throws IOException
+    {
+        new WorkloadGenerator(7, 20, 50, 2000).writeTo(directory, List.of("2023-02-01", "2023-02-02"));
+        StartupLoader.StartupData data = new StartupLoader(new URL("file:" + directory), Duration.ofSeconds(30))
+                .load("2023-02-01");
+        PlanningContext context = data.context();
+        List<Order> orders = data.orders().readAll();
+        assertEquals(20, context.getRestaurants().length);
+        assertEquals(50, context.getNoFlyZones().size());
+        assertEquals(2000, orders.size());
+        // no restaurant is inside a no-fly-zone, and Appleton Tower is in the central area
+        for (Restaurant restaurant : context.getRestaurants())
+        {
+            assertFalse(restaurant.getRestaurantLocation().inNoFlyZone(context));
+        }
+        assertTrue(new LngLat(-3.186874, 55.944494).inCentralArea(context));
+        // every order number is different, and every kind of outcome is given
+        Set<String> orderNumbers = new HashSet<>();
+        orders.forEach(order -> orderNumbers.add(order.getOrderNumber()));
+        assertEquals(2000, orderNumbers.size());
+        context.validateOrders(orders);
+        Map<OrderOutcome, Long> outcomes = orders.stream()
+                .collect(Collectors.groupingBy(Order::getOutcome, Collectors.counting()));
+        assertFalse(outcomes.containsKey(OrderOutcome.Invalid));
+        assertEquals(8, outcomes.size());
+        assertTrue(outcomes.get(OrderOutcome.ValidButNotDelivered) > 1600);
+        // the invalid outcomes are given out in turn, so each one is validated
+        // to exactly as many orders as it was given to
+        long invalidOrders = 2000 - outcomes.get(OrderOutcome.ValidButNotDelivered);
+        List<OrderOutcome> invalidOutcomes = List.of(OrderOutcome.InvalidCardNumber,
+                OrderOutcome.InvalidExpiryDate, OrderOutcome.InvalidCvv, OrderOutcome.InvalidTotal,
+                OrderOutcome.InvalidPizzaNotDefined, OrderOutcome.InvalidPizzaCount,
+                OrderOutcome.InvalidPizzaCombinationMultipleSuppliers);
+        for (int i = 0; i < invalidOutcomes.size(); i++)
+        {
+            assertEquals((invalidOrders - i + invalidOutcomes.size() - 1) / invalidOutcomes.size(),
+                    outcomes.get(invalidOutcomes.get(i)), invalidOutcomes.get(i).name());
+        }
+        // and a drone can deliver some of them
+        Drone drone = new Drone(context);
+        drone.deliverOrders(context.getValidOrders());
+        assertTrue(orders.stream().anyMatch(order -> order.getOutcome() == OrderOutcome.Delivered));
+    }
+
+    // writes the orders of a date, the restaurants and the no-fly-zones to a string
+    private static String workload(WorkloadGenerator generator, String date) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.writeOrders(date, out);
+        generator.writeRestaurants(out);
+        generator.writeNoFlyZones(out);
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Testing if the same seed gives the same workload, and another seed does not")
+    void testSameSeed() throws IOException
+    {
+        WorkloadGenerator first = new WorkloadGenerator(2023, 30, 100, 500);
+        WorkloadGenerator second = new WorkloadGenerator(2023, 30, 100, 500);
+        String expected = workload(first, "2023-03-01");
+        // the orders of a date do not depend on the dates generated before it
+        workload(second, "2023-03-02");
+        assertEquals(expected, workload(second, "2023-03-01"));
+        assertNotEquals(expected, workload(new WorkloadGenerator(2024, 30, 100, 500), "2023-03-01"));
+        assertNotEquals(expected, workload(first, "2023-03-02"));
+    }
+
+}